@@ -1,48 +1,165 @@
 package de.dagere.peass.ci;
 
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.ref.SoftReference;
+import java.net.URLEncoder;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 
 import de.dagere.peass.analysis.changes.Change;
 import de.dagere.peass.analysis.changes.Changes;
 import de.dagere.peass.ci.helper.HistogramValues;
 import de.dagere.peass.ci.helper.RCAVisualizer;
+import de.dagere.peass.ci.logs.LegacyLogMigration;
+import de.dagere.peass.ci.persistence.MeasureVersionData;
 import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.folders.PeassFolders;
 import de.dagere.peass.measurement.analysis.ProjectStatistics;
 import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
 import de.dagere.peass.statistics.StatisticUtil;
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Item;
+import hudson.model.Node;
+import hudson.model.Run;
+import jenkins.model.Jenkins;
 
+/**
+ * Displays the measurement results of a build. Only the configuration and a small summary are stored in the build.xml; the measurement data are stored in
+ * {@link MeasureVersionData#FILE_NAME} in the run directory, loaded on first access and held softly, so they can be reclaimed if memory is needed.
+ */
 public class MeasureVersionAction extends VisibleAction {
 
    private static final Logger LOG = LogManager.getLogger(MeasureVersionAction.class);
 
    private MeasurementConfig config;
+   private String prefix;
+   private int testcaseCount;
+   private int changedTestcaseCount;
+   private int updatedConfigurationCount;
+   /**
+    * Tests which were not measured since the measurement budget was exhausted, and measured tests whose result is still borderline; both are small, so they are
+    * kept in the build.xml
+    */
+   private List<String> skippedTests;
+   private List<String> borderlineTests;
+   /**
+    * If the results were summarized on the agent, the raw measurement files stay there; they are only fetched if a user requests them
+    */
+   private String rawResultComputer;
+   private String rawResultFolder;
+
+   /**
+    * Data which are not written to the run directory yet; if writing fails, they are kept in the build.xml
+    */
+   private MeasureVersionData inlineData;
+   private transient SoftReference<MeasureVersionData> dataReference;
+
+   // Builds created before the data were stored separately contain the data in the build.xml; they are moved to the data file on load
    private Changes changes;
    private ProjectStatistics statistics;
-   private final Map<String, TestcaseStatistic> noWarmupStatistics;
+   private Map<String, TestcaseStatistic> noWarmupStatistics;
    private Map<String, HistogramValues> measurements;
-   private String prefix;
    private Map<String, MeasurementConfig> updatedConfigurations;
 
    public MeasureVersionAction(final MeasurementConfig config, final Changes changes, final ProjectStatistics statistics,
          final Map<String, TestcaseStatistic> noWarmupStatistics, final Map<String, HistogramValues> measurements,
          final Map<String, MeasurementConfig> updatedConfigurations) {
       this.config = config;
-      this.changes = changes;
-      this.statistics = statistics;
-      this.noWarmupStatistics = noWarmupStatistics;
-      this.measurements = measurements;
-      this.updatedConfigurations = updatedConfigurations;
+      this.inlineData = new MeasureVersionData(changes, statistics, noWarmupStatistics, measurements, updatedConfigurations);
       for (Entry<String, List<Change>> change : changes.getTestcaseChanges().entrySet()) {
          System.out.println(change.getKey());
       }
       prefix = RCAVisualizer.getLongestPrefix(measurements.keySet());
       LOG.debug("Prefix: {} Keys: {}", prefix, measurements.keySet());
+      summarize(inlineData);
+   }
+
+   private void summarize(final MeasureVersionData data) {
+      testcaseCount = data.getMeasurements().size();
+      changedTestcaseCount = data.getChanges().getTestcaseChanges().values().stream().mapToInt(List::size).sum();
+      updatedConfigurationCount = data.getUpdatedConfigurations() != null ? data.getUpdatedConfigurations().size() : 0;
+   }
+
+   @Override
+   public void onAttached(final Run<?, ?> run) {
+      super.onAttached(run);
+      externalize(run);
+   }
+
+   /**
+    * Moves data of builds, which contain the data in the build.xml, to the data file and schedules saving the run, so the build.xml does not contain the data
+    * anymore; the run is not saved on the loading thread
+    */
+   @Override
+   public void onLoad(final Run<?, ?> run) {
+      super.onLoad(run);
+      boolean containsData = measurements != null || inlineData != null;
+      if (measurements != null) {
+         inlineData = new MeasureVersionData(changes, statistics, noWarmupStatistics, measurements, updatedConfigurations);
+         summarize(inlineData);
+         changes = null;
+         statistics = null;
+         noWarmupStatistics = null;
+         measurements = null;
+         updatedConfigurations = null;
+      }
+      externalize(run);
+      if (containsData && inlineData == null) {
+         LegacyLogMigration.scheduleSave(run);
+      }
+   }
+
+   private synchronized void externalize(final Run<?, ?> run) {
+      if (inlineData != null) {
+         try {
+            inlineData.write(run);
+            dataReference = new SoftReference<>(inlineData);
+            inlineData = null;
+         } catch (IOException e) {
+            LOG.error("Measurement data could not be written to {}, keeping them in the build", run.getRootDir());
+            e.printStackTrace();
+         }
+      }
+   }
+
+   private synchronized MeasureVersionData getData() {
+      if (inlineData != null) {
+         return inlineData;
+      }
+      MeasureVersionData data = dataReference != null ? dataReference.get() : null;
+      if (data == null) {
+         data = loadData();
+         dataReference = new SoftReference<>(data);
+      }
+      return data;
+   }
+
+   private MeasureVersionData loadData() {
+      Run<?, ?> run = getRun();
+      if (run == null) {
+         return MeasureVersionData.empty();
+      }
+      try {
+         return MeasureVersionData.read(run);
+      } catch (IOException e) {
+         LOG.error("Measurement data of {} could not be read", run);
+         e.printStackTrace();
+         return MeasureVersionData.empty();
+      }
    }
 
    @Override
@@ -64,25 +181,118 @@ public class MeasureVersionAction extends VisibleAction {
       return config;
    }
 
+   public int getTestcaseCount() {
+      return testcaseCount;
+   }
+
+   public int getChangedTestcaseCount() {
+      return changedTestcaseCount;
+   }
+
+   /**
+    * Sets the tests whose result is inconclusive, i.e. which were skipped because of the measurement budget or whose result is still borderline
+    */
+   public void setInconclusiveTests(final Collection<TestCase> skipped, final Collection<TestCase> borderline) {
+      skippedTests = skipped.stream().map(TestCase::getExecutable).collect(Collectors.toList());
+      borderlineTests = borderline.stream().map(TestCase::getExecutable).collect(Collectors.toList());
+   }
+
+   public List<String> getSkippedTests() {
+      return skippedTests != null ? skippedTests : Collections.emptyList();
+   }
+
+   public List<String> getBorderlineTests() {
+      return borderlineTests != null ? borderlineTests : Collections.emptyList();
+   }
+
+   public boolean hasInconclusiveTests() {
+      return !getSkippedTests().isEmpty() || !getBorderlineTests().isEmpty();
+   }
+
+   /**
+    * Sets the folder containing the raw measurement files, which stay on the given computer ("" for the controller)
+    */
+   public void setRawResultLocation(final String computerName, final String folder) {
+      this.rawResultComputer = computerName;
+      this.rawResultFolder = folder;
+   }
+
+   public boolean hasRawResults() {
+      return rawResultComputer != null && rawResultFolder != null;
+   }
+
+   public String getRawResultUrl(final String testcase, final String version, final int vmId) throws UnsupportedEncodingException {
+      return "rawResult?testcase=" + URLEncoder.encode(testcase, "UTF-8") + "&version=" + URLEncoder.encode(version, "UTF-8") + "&vm=" + vmId;
+   }
+
+   /**
+    * Streams the raw measurement file of one VM from the computer which executed the measurement. Parameters: testcase, version (current or predecessor version)
+    * and vm (index of the VM). The file is only read on request, so the controller does not need to store the raw data of all builds.
+    */
+   public void doRawResult(final StaplerRequest request, final StaplerResponse response) throws IOException, InterruptedException {
+      Run<?, ?> run = getRun();
+      if (run == null || !hasRawResults()) {
+         response.sendError(HttpServletResponse.SC_NOT_FOUND);
+         return;
+      }
+      run.getParent().checkPermission(Item.WORKSPACE);
+
+      String testcase = request.getParameter("testcase");
+      String version = request.getParameter("version");
+      String currentVersion = config.getExecutionConfig().getVersion();
+      if (testcase == null || !getMeasurements().containsKey(testcase)) {
+         response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown testcase " + testcase);
+         return;
+      }
+      if (version == null || !(version.equals(currentVersion) || version.equals(config.getExecutionConfig().getVersionOld()))) {
+         response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Version needs to be the current or the predecessor version");
+         return;
+      }
+      int vmId = TrendAction.getBuildParameter(request, "vm", -1);
+      if (vmId < 0 || vmId >= config.getVms()) {
+         response.sendError(HttpServletResponse.SC_BAD_REQUEST, "vm needs to be between 0 and " + (config.getVms() - 1));
+         return;
+      }
+
+      FilePath rawFile = getRawResultFolder();
+      if (rawFile == null) {
+         response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Computer " + rawResultComputer + " is not available");
+         return;
+      }
+      rawFile = rawFile.child(PeassFolders.getRelativeFullResultPath(new TestCase(testcase), currentVersion, version, vmId));
+      if (!rawFile.exists()) {
+         response.sendError(HttpServletResponse.SC_NOT_FOUND, "Raw result was removed from " + rawResultComputer);
+         return;
+      }
+      response.setContentType("application/xml;charset=UTF-8");
+      rawFile.copyTo(response.getOutputStream());
+   }
+
+   private FilePath getRawResultFolder() {
+      Computer computer = Jenkins.get().getComputer(rawResultComputer);
+      Node node = computer != null ? computer.getNode() : null;
+      return node != null ? node.createPath(rawResultFolder) : null;
+   }
+
    public boolean hasUpdatedConfigurations() {
-      return !updatedConfigurations.isEmpty();
+      return updatedConfigurationCount > 0;
    }
 
    public Map<String, MeasurementConfig> getUpdatedConfigurations() {
-      return updatedConfigurations;
+      return getData().getUpdatedConfigurations();
    }
 
    public ProjectStatistics getStatistics() {
-      return statistics;
+      return getData().getStatistics();
    }
 
    public Changes getChanges() {
-      return changes;
+      return getData().getChanges();
    }
 
    public boolean testIsChanged(final String testcase) {
       boolean isChanged = false;
-      for (Entry<String, List<Change>> changeEntry : changes.getTestcaseChanges().entrySet()) {
+      for (Entry<String, List<Change>> changeEntry : getChanges().getTestcaseChanges().entrySet()) {
          for (Change change : changeEntry.getValue()) {
             final String changedTestcase = changeEntry.getKey() + "#" + change.getMethod();
             if (testcase.equals(changedTestcase)) {
@@ -94,7 +304,7 @@ public class MeasureVersionAction extends VisibleAction {
    }
 
    public Map<String, HistogramValues> getMeasurements() {
-      return measurements;
+      return getData().getMeasurements();
    }
 
    public double getCriticalTValue() {
@@ -111,14 +321,21 @@ public class MeasureVersionAction extends VisibleAction {
       return Math.abs(value);
    }
 
+   /**
+    * Returns the statistic of the testcase, or null if there are no statistics, e.g. since the data file could not be read
+    */
    public TestcaseStatistic getTestcaseStatistic(final String testcase) {
-      Entry<String, Map<TestCase, TestcaseStatistic>> testcaseStatisticEntry = statistics.getStatistics().entrySet().iterator().next();
+      Map<String, Map<TestCase, TestcaseStatistic>> versionStatistics = getStatistics().getStatistics();
+      if (versionStatistics.isEmpty()) {
+         return null;
+      }
+      Entry<String, Map<TestCase, TestcaseStatistic>> testcaseStatisticEntry = versionStatistics.entrySet().iterator().next();
       Map<TestCase, TestcaseStatistic> testcaseStatistic = testcaseStatisticEntry.getValue();
       return testcaseStatistic.get(new TestCase(testcase));
    }
 
    public TestcaseStatistic getNoWarmupStatistic(final String testcase) {
-      return noWarmupStatistics.get(testcase);
+      return getData().getNoWarmupStatistics().get(testcase);
    }
 
    public String getReducedName(final String name) {
@@ -9,6 +9,7 @@ import java.util.Set;
 import javax.servlet.ServletException;
 import javax.xml.bind.JAXBException;
 
+import org.apache.commons.io.FileUtils;
 import org.jenkinsci.Symbol;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
@@ -71,6 +72,18 @@ public class MeasureVersionBuilder extends Builder implements SimpleBuildStep, S
    private boolean displayRTSLogs = true;
    private boolean displayLogs = true;
    private boolean displayRCALogs = true;
+   private boolean archiveLogs = false;
+   private boolean isolatedWorkspaces = false;
+   private String measurementAgentLabel = "";
+   private int rcaParallelism = 1;
+   private boolean adaptiveVMs = false;
+   private int maximumVMs = 0;
+   private boolean adaptiveWarmup = false;
+   private int minimumWarmup = 0;
+   private boolean calibrateRepetitions = false;
+   private int targetIterationDuration = 10;
+   private int measurementBudget = 0;
+   private boolean prioritizeTests = false;
    private boolean generateCoverageSelection = false;
    private boolean useGC;
    private boolean measureJMH;
@@ -107,9 +120,13 @@ public class MeasureVersionBuilder extends Builder implements SimpleBuildStep, S
       if (!workspace.exists()) {
          throw new RuntimeException("Workspace folder " + workspace.toString() + " does not exist, please asure that the repository was correctly cloned!");
       } else {
-         final File localWorkspace = new File(run.getRootDir(), ".." + File.separator + ".." + File.separator + "peass-data").getCanonicalFile();
+         final File sharedWorkspace = new File(run.getRootDir(), ".." + File.separator + ".." + File.separator + "peass-data").getCanonicalFile();
+         final File localWorkspace = isolatedWorkspaces ? getIsolatedWorkspace(sharedWorkspace, run) : sharedWorkspace;
          printRunMetadata(run, workspace, listener, localWorkspace);
 
+         if (isolatedWorkspaces) {
+            deleteOrphanedWorkspaces(sharedWorkspace, run, listener);
+         }
          if (!localWorkspace.exists()) {
             if (!localWorkspace.mkdirs()) {
                throw new RuntimeException("Was not able to create folder");
@@ -120,16 +137,63 @@ public class MeasureVersionBuilder extends Builder implements SimpleBuildStep, S
             PeassProcessConfiguration peassConfig = buildConfiguration(workspace, env, listener);
             boolean versionIsUsable = checkVersion(run, listener, peassConfig);
             if (versionIsUsable) {
-               runAllSteps(run, workspace, listener, localWorkspace, peassConfig);
+               runAllSteps(run, workspace, listener, localWorkspace, sharedWorkspace, peassConfig);
             }
+         } catch (InterruptedException e) {
+            listener.getLogger().println("Build was aborted");
+            run.setResult(Result.ABORTED);
+            throw e;
          } catch (Throwable e) {
             e.printStackTrace(listener.getLogger());
             e.printStackTrace();
             run.setResult(Result.FAILURE);
+         } finally {
+            if (isolatedWorkspaces) {
+               Result result = run.getResult();
+               if (result == null || result.isBetterOrEqualTo(Result.UNSTABLE)) {
+                  deleteIsolatedWorkspace(localWorkspace, listener);
+               } else {
+                  listener.getLogger().println("Keeping isolated workspace " + localWorkspace + " of the unsuccessful build for analysis");
+               }
+            }
          }
       }
    }
 
+   /**
+    * Returns the workspace of the run, if every build uses its own workspace; results which need to be displayed after the build are stored in the run folder,
+    * so the isolated workspace can be deleted after a successful build. Workspaces of failed or aborted builds are kept until their build is deleted.
+    */
+   static File getIsolatedWorkspace(final File sharedWorkspace, final Run<?, ?> run) {
+      return new File(sharedWorkspace, "builds" + File.separator + run.getNumber());
+   }
+
+   /**
+    * Deletes the kept isolated workspaces of builds which do not exist anymore
+    */
+   static void deleteOrphanedWorkspaces(final File sharedWorkspace, final Run<?, ?> run, final TaskListener listener) {
+      File[] workspaces = getIsolatedWorkspace(sharedWorkspace, run).getParentFile().listFiles();
+      if (workspaces == null) {
+         return;
+      }
+      for (File workspace : workspaces) {
+         if (workspace.isDirectory() && workspace.getName().matches("[0-9]{1,9}")) {
+            int buildNumber = Integer.parseInt(workspace.getName());
+            if (buildNumber != run.getNumber() && run.getParent().getBuildByNumber(buildNumber) == null) {
+               deleteIsolatedWorkspace(workspace, listener);
+            }
+         }
+      }
+   }
+
+   private static void deleteIsolatedWorkspace(final File localWorkspace, final TaskListener listener) {
+      try {
+         FileUtils.deleteDirectory(localWorkspace);
+      } catch (IOException e) {
+         listener.getLogger().println("Could not delete isolated workspace " + localWorkspace + ": " + e.getMessage());
+      }
+   }
+
    private boolean checkVersion(final Run<?, ?> run, final TaskListener listener, final PeassProcessConfiguration peassConfig) {
       boolean versionIsUsable;
       String version = peassConfig.getMeasurementConfig().getExecutionConfig().getVersion();
@@ -144,9 +208,10 @@ public class MeasureVersionBuilder extends Builder implements SimpleBuildStep, S
       return versionIsUsable;
    }
 
-   private void runAllSteps(final Run<?, ?> run, final FilePath workspace, final TaskListener listener, final File localWorkspace, final PeassProcessConfiguration peassConfig)
+   private void runAllSteps(final Run<?, ?> run, final FilePath workspace, final TaskListener listener, final File localWorkspace, final File sharedWorkspace,
+         final PeassProcessConfiguration peassConfig)
          throws IOException, InterruptedException, JAXBException, JsonParseException, JsonMappingException, JsonGenerationException, Exception {
-      final LocalPeassProcessManager processManager = new LocalPeassProcessManager(peassConfig, workspace, localWorkspace, listener, run);
+      final LocalPeassProcessManager processManager = new LocalPeassProcessManager(peassConfig, workspace, localWorkspace, sharedWorkspace, listener, run);
 
       RTSResult tests = processManager.rts();
       listener.getLogger().println("Tests: " + tests);
@@ -194,6 +259,19 @@ public class MeasureVersionBuilder extends Builder implements SimpleBuildStep, S
       DependencyConfig dependencyConfig = new DependencyConfig(1, false, true, generateCoverageSelection);
       PeassProcessConfiguration peassConfig = new PeassProcessConfiguration(updateSnapshotDependencies, configWithRealGitVersions, dependencyConfig, peassEnv,
             displayRTSLogs, displayLogs, displayRCALogs);
+      peassConfig.setArchiveLogs(archiveLogs);
+      peassConfig.setIsolatedWorkspaces(isolatedWorkspaces);
+      peassConfig.setMeasurementAgentLabel(measurementAgentLabel);
+      peassConfig.setRcaParallelism(rcaParallelism);
+      peassConfig.setAdaptiveVMs(adaptiveVMs);
+      // By default, borderline tests may get as many VMs again as configured
+      peassConfig.setMaximumVMs(maximumVMs > 0 ? maximumVMs : 2 * VMs);
+      peassConfig.setAdaptiveWarmup(adaptiveWarmup);
+      peassConfig.setMinimumWarmup(minimumWarmup);
+      peassConfig.setCalibrateRepetitions(calibrateRepetitions);
+      peassConfig.setTargetIterationDuration(targetIterationDuration);
+      peassConfig.setMeasurementBudget(measurementBudget);
+      peassConfig.setPrioritizeTests(prioritizeTests);
       return peassConfig;
    }
 
@@ -232,13 +310,16 @@ public class MeasureVersionBuilder extends Builder implements SimpleBuildStep, S
       config.setWarmup(warmup);
       config.setRepetitions(repetitions);
       config.setUseGC(useGC);
-      config.setEarlyStop(false);
+      config.setEarlyStop(adaptiveVMs);
       config.getExecutionConfig().setCreateDefaultConstructor(createDefaultConstructor);
       config.getExecutionConfig().setExecuteBeforeClassInMeasurement(executeBeforeClassInMeasurement);
       config.getExecutionConfig().setOnlyMeasureWorkload(onlyMeasureWorkload);
       if (onlyMeasureWorkload && repetitions != 1) {
          throw new RuntimeException("If onlyMeasureWorkload is set, repetitions should be 1, but are " + repetitions);
       }
+      if (onlyMeasureWorkload && calibrateRepetitions) {
+         throw new RuntimeException("If onlyMeasureWorkload is set, repetitions can not be calibrated");
+      }
       config.getExecutionConfig().setRedirectToNull(redirectToNull);
       config.setShowStart(showStart);
       config.getExecutionConfig().setRemoveSnapshots(removeSnapshots);
@@ -404,6 +485,114 @@ public class MeasureVersionBuilder extends Builder implements SimpleBuildStep, S
       this.displayRCALogs = displayRCALogs;
    }
 
+   public boolean isArchiveLogs() {
+      return archiveLogs;
+   }
+
+   @DataBoundSetter
+   public void setArchiveLogs(final boolean archiveLogs) {
+      this.archiveLogs = archiveLogs;
+   }
+
+   public boolean isIsolatedWorkspaces() {
+      return isolatedWorkspaces;
+   }
+
+   @DataBoundSetter
+   public void setIsolatedWorkspaces(final boolean isolatedWorkspaces) {
+      this.isolatedWorkspaces = isolatedWorkspaces;
+   }
+
+   public String getMeasurementAgentLabel() {
+      return measurementAgentLabel;
+   }
+
+   @DataBoundSetter
+   public void setMeasurementAgentLabel(final String measurementAgentLabel) {
+      this.measurementAgentLabel = measurementAgentLabel;
+   }
+
+   public int getRcaParallelism() {
+      return rcaParallelism;
+   }
+
+   @DataBoundSetter
+   public void setRcaParallelism(final int rcaParallelism) {
+      this.rcaParallelism = rcaParallelism;
+   }
+
+   public boolean isAdaptiveVMs() {
+      return adaptiveVMs;
+   }
+
+   @DataBoundSetter
+   public void setAdaptiveVMs(final boolean adaptiveVMs) {
+      this.adaptiveVMs = adaptiveVMs;
+   }
+
+   public int getMaximumVMs() {
+      return maximumVMs;
+   }
+
+   @DataBoundSetter
+   public void setMaximumVMs(final int maximumVMs) {
+      this.maximumVMs = maximumVMs;
+   }
+
+   public boolean isAdaptiveWarmup() {
+      return adaptiveWarmup;
+   }
+
+   @DataBoundSetter
+   public void setAdaptiveWarmup(final boolean adaptiveWarmup) {
+      this.adaptiveWarmup = adaptiveWarmup;
+   }
+
+   public int getMinimumWarmup() {
+      return minimumWarmup;
+   }
+
+   @DataBoundSetter
+   public void setMinimumWarmup(final int minimumWarmup) {
+      this.minimumWarmup = minimumWarmup;
+   }
+
+   public boolean isCalibrateRepetitions() {
+      return calibrateRepetitions;
+   }
+
+   @DataBoundSetter
+   public void setCalibrateRepetitions(final boolean calibrateRepetitions) {
+      this.calibrateRepetitions = calibrateRepetitions;
+   }
+
+   public int getTargetIterationDuration() {
+      return targetIterationDuration;
+   }
+
+   @DataBoundSetter
+   public void setTargetIterationDuration(final int targetIterationDuration) {
+      this.targetIterationDuration = targetIterationDuration;
+   }
+
+   public int getMeasurementBudget() {
+      return measurementBudget;
+   }
+
+   @DataBoundSetter
+   public void setMeasurementBudget(final int measurementBudget) {
+      this.measurementBudget = measurementBudget;
+   }
+
+   public boolean isPrioritizeTests() {
+      return prioritizeTests;
+   }
+
+   @DataBoundSetter
+   public void setPrioritizeTests(final boolean prioritizeTests) {
+      this.prioritizeTests = prioritizeTests;
+   }
+
    public boolean isRedirectSubprocessOutputToFile() {
       return redirectSubprocessOutputToFile;
    }
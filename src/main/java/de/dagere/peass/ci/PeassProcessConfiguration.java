@@ -19,6 +19,19 @@ public class PeassProcessConfiguration implements Serializable {
    private final boolean displayLogs;
    private final boolean displayRCALogs;
 
+   private boolean archiveLogs = false;
+   private boolean isolatedWorkspaces = false;
+   private String measurementAgentLabel = null;
+   private int rcaParallelism = 1;
+   private boolean adaptiveVMs = false;
+   private int maximumVMs = 0;
+   private boolean adaptiveWarmup = false;
+   private int minimumWarmup = 0;
+   private boolean calibrateRepetitions = false;
+   private int targetIterationDuration = 10;
+   private int measurementBudget = 0;
+   private boolean prioritizeTests = false;
+
    public PeassProcessConfiguration(final boolean updateSnapshotDependencies, final MeasurementConfig measurementConfig, final DependencyConfig dependencyConfig, final EnvironmentVariables envVars,
          final boolean displayRTSLogs, final boolean displayLogs, final boolean displayRCALogs) {
       this.updateSnapshotDependencies = updateSnapshotDependencies;
@@ -57,4 +70,146 @@ public class PeassProcessConfiguration implements Serializable {
    public boolean isDisplayRCALogs() {
       return displayRCALogs;
    }
+
+   public boolean isArchiveLogs() {
+      return archiveLogs;
+   }
+
+   public void setArchiveLogs(final boolean archiveLogs) {
+      this.archiveLogs = archiveLogs;
+   }
+
+   public boolean isIsolatedWorkspaces() {
+      return isolatedWorkspaces;
+   }
+
+   public void setIsolatedWorkspaces(final boolean isolatedWorkspaces) {
+      this.isolatedWorkspaces = isolatedWorkspaces;
+   }
+
+   public String getMeasurementAgentLabel() {
+      return measurementAgentLabel;
+   }
+
+   public void setMeasurementAgentLabel(final String measurementAgentLabel) {
+      this.measurementAgentLabel = measurementAgentLabel;
+   }
+
+   public int getRcaParallelism() {
+      return rcaParallelism;
+   }
+
+   public void setRcaParallelism(final int rcaParallelism) {
+      this.rcaParallelism = rcaParallelism;
+   }
+
+   public boolean isAdaptiveVMs() {
+      return adaptiveVMs;
+   }
+
+   public void setAdaptiveVMs(final boolean adaptiveVMs) {
+      this.adaptiveVMs = adaptiveVMs;
+   }
+
+   public int getMaximumVMs() {
+      return maximumVMs;
+   }
+
+   public void setMaximumVMs(final int maximumVMs) {
+      this.maximumVMs = maximumVMs;
+   }
+
+   public boolean isAdaptiveWarmup() {
+      return adaptiveWarmup;
+   }
+
+   public void setAdaptiveWarmup(final boolean adaptiveWarmup) {
+      this.adaptiveWarmup = adaptiveWarmup;
+   }
+
+   public int getMinimumWarmup() {
+      return minimumWarmup;
+   }
+
+   public void setMinimumWarmup(final int minimumWarmup) {
+      this.minimumWarmup = minimumWarmup;
+   }
+
+   public boolean isCalibrateRepetitions() {
+      return calibrateRepetitions;
+   }
+
+   public void setCalibrateRepetitions(final boolean calibrateRepetitions) {
+      this.calibrateRepetitions = calibrateRepetitions;
+   }
+
+   /**
+    * Target duration of one iteration in milliseconds, which is used for calibrating the repetitions
+    */
+   public int getTargetIterationDuration() {
+      return targetIterationDuration;
+   }
+
+   public void setTargetIterationDuration(final int targetIterationDuration) {
+      this.targetIterationDuration = targetIterationDuration;
+   }
+
+   /**
+    * Wall-clock budget of the measurement in minutes; 0 if the measurement is not budgeted
+    */
+   public int getMeasurementBudget() {
+      return measurementBudget;
+   }
+
+   public void setMeasurementBudget(final int measurementBudget) {
+      this.measurementBudget = measurementBudget;
+   }
+
+   public boolean isPrioritizeTests() {
+      return prioritizeTests;
+   }
+
+   public void setPrioritizeTests(final boolean prioritizeTests) {
+      this.prioritizeTests = prioritizeTests;
+   }
+
+   /**
+    * Creates a copy of the configuration, which only executes the given count of VMs; this is used for distributing the VMs to multiple agents
+    */
+   public PeassProcessConfiguration copyWithVMs(final int vms) {
+      MeasurementConfig agentMeasurementConfig = new MeasurementConfig(measurementConfig);
+      agentMeasurementConfig.setVms(vms);
+      return copyWithMeasurementConfig(agentMeasurementConfig);
+   }
+
+   /**
+    * Creates a copy of the configuration, which uses the given VMs, warmup and repetitions; this is used for measuring testcases with their recommended
+    * configuration
+    */
+   public PeassProcessConfiguration copyWithTestConfiguration(final int vms, final int warmup, final int iterations, final int repetitions) {
+      MeasurementConfig testMeasurementConfig = new MeasurementConfig(measurementConfig);
+      testMeasurementConfig.setVms(vms);
+      testMeasurementConfig.setWarmup(warmup);
+      testMeasurementConfig.setIterations(iterations);
+      testMeasurementConfig.setRepetitions(repetitions);
+      return copyWithMeasurementConfig(testMeasurementConfig);
+   }
+
+   private PeassProcessConfiguration copyWithMeasurementConfig(final MeasurementConfig copyMeasurementConfig) {
+      PeassProcessConfiguration copy = new PeassProcessConfiguration(updateSnapshotDependencies, copyMeasurementConfig, dependencyConfig, envVars,
+            displayRTSLogs, displayLogs, displayRCALogs);
+      copy.setArchiveLogs(archiveLogs);
+      copy.setIsolatedWorkspaces(isolatedWorkspaces);
+      copy.setMeasurementAgentLabel(measurementAgentLabel);
+      copy.setRcaParallelism(rcaParallelism);
+      copy.setAdaptiveVMs(adaptiveVMs);
+      copy.setMaximumVMs(maximumVMs);
+      copy.setAdaptiveWarmup(adaptiveWarmup);
+      copy.setMinimumWarmup(minimumWarmup);
+      copy.setCalibrateRepetitions(calibrateRepetitions);
+      copy.setTargetIterationDuration(targetIterationDuration);
+      copy.setMeasurementBudget(measurementBudget);
+      copy.setPrioritizeTests(prioritizeTests);
+      return copy;
+   }
 }
@@ -2,19 +2,26 @@ package de.dagere.peass.ci;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 
-import de.dagere.peass.ci.persistence.BuildMeasurementValues;
-import de.dagere.peass.ci.persistence.TestMeasurementValues;
-import de.dagere.peass.ci.persistence.TrendFileUtil;
-import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+import de.dagere.peass.ci.persistence.TrendSeries;
+import de.dagere.peass.ci.persistence.TrendStore;
+import de.dagere.peass.ci.persistence.TrendViewModel;
 import hudson.model.Action;
 import hudson.model.Job;
 import hudson.model.Project;
@@ -22,16 +29,19 @@ import hudson.model.Project;
 public class TrendAction implements Action {
 
    private Job<?, ?> project;
+   private transient TrendViewModel viewModel;
 
    public TrendAction(final Job<?, ?> project) {
       this.project = project;
    }
 
+   /**
+    * Returns the number of builds for pipelines; this uses the build numbers, since counting the builds would load all build records
+    */
    public int getBuildStepsCount() {
       if (project instanceof WorkflowJob) {
          WorkflowJob job = (WorkflowJob) project;
-         return job.getBuilds().size();
-         // WorkflowJob job = project;
+         return job.getNextBuildNumber() - 1;
       } else if (project instanceof Project) {
          return ((Project) project).getBuilders().size();
       } else {
@@ -39,77 +49,139 @@ public class TrendAction implements Action {
       }
    }
 
+   public Set<String> getTestcases() throws JsonParseException, JsonMappingException, IOException {
+      TrendViewModel model = getViewModel();
+      return model != null ? model.getTestcases() : Collections.emptySet();
+   }
+
+   public TrendSeries getSeries(final String testcase) throws IOException {
+      return getViewModel().getSeries(testcase);
+   }
+
    /**
-    * Gets a mapping from buildnumber to mean value of the measurement of the build; this returns a LinkedHashMap since the order of the values needs to be guaranteed
+    * Returns the series in the build range given by the request parameters from and to; the resolution is chosen by the size of the range
     */
-   public LinkedHashMap<Integer, Double> getMeanMap(final String testcase) throws InterruptedException, IOException {
-      final LinkedHashMap<Integer, Double> meanMap = new LinkedHashMap<>();
+   public TrendSeries getSeries(final String testcase, final StaplerRequest request) throws IOException {
+      TrendViewModel model = getViewModel();
+      int from = getBuildParameter(request, "from", model.getFirstBuild());
+      int to = getBuildParameter(request, "to", model.getLastBuild());
+      return model.getSeries(testcase, from, to, TrendStore.DEFAULT_MAX_POINTS);
+   }
 
-      BuildMeasurementValues values = readValues();
+   /**
+    * Returns the trend as gzip compressed JSON. Parameters: testcase (may be repeated; all testcases if missing), filter (substring of the testcase name), from
+    * and to (build range, inclusive), resolution (block size 1, 16 or 256; chosen automatically if missing) and maxPoints (maximum number of points for the
+    * automatic resolution). ETag and Last-Modified are derived from the newest appended build, so unchanged trends are answered with 304.
+    */
+   public void doApi(final StaplerRequest request, final StaplerResponse response) throws IOException {
+      TrendViewModel model = getViewModel();
+      if (model == null) {
+         response.sendError(HttpServletResponse.SC_NOT_FOUND);
+         return;
+      }
+      int from = getBuildParameter(request, "from", model.getFirstBuild());
+      int to = getBuildParameter(request, "to", model.getLastBuild());
+      int maxPoints = getBuildParameter(request, "maxPoints", TrendStore.DEFAULT_MAX_POINTS);
+      Integer blockSize = null;
+      if (request.getParameter("resolution") != null) {
+         blockSize = getBuildParameter(request, "resolution", -1);
+         if (!TrendStore.isSupportedBlockSize(blockSize)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported resolution " + request.getParameter("resolution"));
+            return;
+         }
+      }
+      if (maxPoints <= 0) {
+         response.sendError(HttpServletResponse.SC_BAD_REQUEST, "maxPoints needs to be positive");
+         return;
+      }
 
-      TestMeasurementValues testMeasurementValues = values.getValues().get(testcase);
-      for (Map.Entry<Integer, TestcaseStatistic> vals : testMeasurementValues.getStatistics().entrySet()) {
-         meanMap.put(vals.getKey(), vals.getValue().getMeanCurrent());
+      String etag = "\"" + model.getRevision() + "-" + Integer.toHexString(String.valueOf(request.getQueryString()).hashCode()) + "\"";
+      long lastModified = model.getLastModified();
+      response.setHeader("ETag", etag);
+      response.setDateHeader("Last-Modified", lastModified);
+      response.setHeader("Cache-Control", "no-cache");
+      // The content encoding depends on Accept-Encoding, so caches must not serve the gzip response to other clients
+      response.setHeader("Vary", "Accept-Encoding");
+      if (isNotModified(request, etag, lastModified)) {
+         response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+         return;
       }
 
-      return meanMap;
+      List<String> testcases = getRequestedTestcases(request, model);
+      response.setContentType("application/json;charset=UTF-8");
+      String acceptEncoding = request.getHeader("Accept-Encoding");
+      if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+         response.setHeader("Content-Encoding", "gzip");
+         try (OutputStream out = new GZIPOutputStream(response.getOutputStream())) {
+            model.writeJson(out, testcases, from, to, blockSize, maxPoints);
+         }
+      } else {
+         model.writeJson(response.getOutputStream(), testcases, from, to, blockSize, maxPoints);
+      }
    }
 
-   public LinkedHashMap<Integer, Double> getLowerBound(final String testcase) throws JsonParseException, JsonMappingException, InterruptedException, IOException {
-      final LinkedHashMap<Integer, Double> deviationMap = new LinkedHashMap<>();
-
-      BuildMeasurementValues values = readValues();
-
-      TestMeasurementValues testMeasurementValues = values.getValues().get(testcase);
-      for (Map.Entry<Integer, TestcaseStatistic> vals : testMeasurementValues.getStatistics().entrySet()) {
-         deviationMap.put(vals.getKey(), vals.getValue().getMeanCurrent() - vals.getValue().getDeviationCurrent());
+   private static boolean isNotModified(final StaplerRequest request, final String etag, final long lastModified) {
+      String ifNoneMatch = request.getHeader("If-None-Match");
+      if (ifNoneMatch != null) {
+         return ifNoneMatch.equals("*") || Arrays.asList(ifNoneMatch.split("\\s*,\\s*")).contains(etag);
       }
-
-      return deviationMap;
+      long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+      return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
    }
 
-   public LinkedHashMap<Integer, Double> getUpperBound(final String testcase) throws JsonParseException, JsonMappingException, InterruptedException, IOException {
-      final LinkedHashMap<Integer, Double> deviationMap = new LinkedHashMap<>();
-
-      BuildMeasurementValues values = readValues();
+   private static List<String> getRequestedTestcases(final StaplerRequest request, final TrendViewModel model) {
+      String[] requested = request.getParameterValues("testcase");
+      String filter = request.getParameter("filter");
+      List<String> testcases = new LinkedList<>();
+      for (String testcase : requested != null ? Arrays.asList(requested) : model.getTestcases()) {
+         if (filter == null || testcase.contains(filter)) {
+            testcases.add(testcase);
+         }
+      }
+      return testcases;
+   }
 
-      TestMeasurementValues testMeasurementValues = values.getValues().get(testcase);
-      for (Map.Entry<Integer, TestcaseStatistic> vals : testMeasurementValues.getStatistics().entrySet()) {
-         deviationMap.put(vals.getKey(), vals.getValue().getMeanCurrent() + vals.getValue().getDeviationCurrent());
+   static int getBuildParameter(final StaplerRequest request, final String name, final int defaultValue) {
+      String value = request != null ? request.getParameter(name) : null;
+      if (value == null || value.isEmpty()) {
+         return defaultValue;
+      }
+      try {
+         return Integer.parseInt(value);
+      } catch (NumberFormatException e) {
+         return defaultValue;
       }
+   }
 
-      return deviationMap;
+   public String getBuildnumbersReadable(final String testcase) throws IOException {
+      return getSeries(testcase).getBuildnumbersReadable();
    }
 
-   public Set<String> getTestcases() throws JsonParseException, JsonMappingException, InterruptedException, IOException {
-      BuildMeasurementValues values = readValues();
-      return values.getValues().keySet();
+   public String getMeansReadable(final String testcase) throws IOException {
+      return getSeries(testcase).getMeansReadable();
    }
 
-   public String getBuildnumbersReadable(final String testcase) throws InterruptedException, IOException {
-      return getMeanMap(testcase).keySet().toString();
+   public String getLowerBoundReadable(final String testcase) throws IOException {
+      return getSeries(testcase).getLowerBoundReadable();
    }
 
-   public String getMeansReadable(final String testcase) throws InterruptedException, IOException {
-      return getMeanMap(testcase).values().toString();
+   public String getUpperBoundReadable(final String testcase) throws IOException {
+      return getSeries(testcase).getUpperBoundReadable();
    }
 
-   public String getLowerBoundReadable(final String testcase) throws InterruptedException, IOException {
-      return getLowerBound(testcase).values().toString();
+   private synchronized TrendViewModel getViewModel() throws IOException {
+      if (viewModel == null && hasTrend()) {
+         viewModel = TrendViewModel.get(getLocalWorkspace());
+      }
+      return viewModel;
    }
 
-   public String getUpperBoundReadable(final String testcase) throws InterruptedException, IOException {
-      return getUpperBound(testcase).values().toString();
+   private boolean hasTrend() {
+      return project instanceof WorkflowJob || project instanceof Project;
    }
 
-   private BuildMeasurementValues readValues() throws InterruptedException, IOException, JsonParseException, JsonMappingException {
-      if (project instanceof WorkflowJob || project instanceof Project) {
-         File localWorkspace = new File(project.getRootDir(), "peass-data");
-         BuildMeasurementValues values = TrendFileUtil.readMeasurementValues(localWorkspace);
-         return values;
-      } else {
-         return null;
-      }
+   private File getLocalWorkspace() {
+      return new File(project.getRootDir(), "peass-data");
    }
 
    @Override
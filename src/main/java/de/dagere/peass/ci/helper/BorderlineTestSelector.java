@@ -0,0 +1,51 @@
+package de.dagere.peass.ci.helper;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.measurement.analysis.ProjectStatistics;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+import de.dagere.peass.statistics.StatisticUtil;
+
+/**
+ * Selects the testcases whose t value is close to the critical t value, i.e. whose change / no change decision is not clear after the measured VMs. These testcases
+ * get additional VMs in the adaptive VM mode.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class BorderlineTestSelector {
+
+   /**
+    * Relative distance to the critical t value which is considered borderline
+    */
+   public static final double BORDERLINE_RANGE = 0.25;
+
+   private final MeasurementConfig measurementConfig;
+
+   public BorderlineTestSelector(final MeasurementConfig measurementConfig) {
+      this.measurementConfig = measurementConfig;
+   }
+
+   public Set<TestCase> select(final ProjectStatistics statistics) {
+      Set<TestCase> borderlineTests = new LinkedHashSet<>();
+      Map<TestCase, TestcaseStatistic> versionStatistics = statistics.getStatistics().get(measurementConfig.getExecutionConfig().getVersion());
+      if (versionStatistics != null) {
+         for (Map.Entry<TestCase, TestcaseStatistic> entry : versionStatistics.entrySet()) {
+            if (isBorderline(entry.getValue())) {
+               borderlineTests.add(entry.getKey());
+            }
+         }
+      }
+      return borderlineTests;
+   }
+
+   public boolean isBorderline(final TestcaseStatistic statistic) {
+      int degreesOfFreedom = (int) Math.max(1, statistic.getVMs() * 2 - 2);
+      double criticalTValue = StatisticUtil.getCriticalValueTTest(measurementConfig.getStatisticsConfig().getType1error(), degreesOfFreedom);
+      return Math.abs(Math.abs(statistic.getTvalue()) - criticalTValue) <= BORDERLINE_RANGE * criticalTValue;
+   }
+}
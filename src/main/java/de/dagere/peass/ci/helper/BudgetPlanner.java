@@ -0,0 +1,157 @@
+package de.dagere.peass.ci.helper;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+
+/**
+ * Distributes a wall-clock budget to the VMs of the selected tests, based on the last statistic of every test in the trend. Every test with history gets the
+ * minimum VM count; afterwards, VMs are added greedily to the test where one more VM reduces the relative standard error most per millisecond, so noisy and
+ * borderline tests get more VMs than stable ones. Tests without history are measured with the configured VM count.
+ *
+ * @author DaGeRe
+ *
+ */
+public class BudgetPlanner {
+
+   private static final Logger LOG = LogManager.getLogger(BudgetPlanner.class);
+
+   /**
+    * Minimum VM count which allows to execute a t-test
+    */
+   public static final int MINIMUM_VMS = 2;
+
+   /**
+    * Assumed duration of starting the VMs of both versions in milliseconds, if no duration was observed before
+    */
+   public static final long DEFAULT_VM_OVERHEAD = 10000;
+
+   private static final double BORDERLINE_WEIGHT = 2.0;
+   private static final double MINIMUM_VARIATION = 0.001;
+   private static final double NANOSECONDS_PER_MILLISECOND = 1000000;
+
+   private final MeasurementConfig measurementConfig;
+   private final int maximumVMs;
+   private final long vmOverhead;
+   private final Map<TestCase, TestcaseStatistic> history;
+   private final BorderlineTestSelector borderlineSelector;
+   private final long unknownVMDuration;
+
+   public BudgetPlanner(final MeasurementConfig measurementConfig, final int maximumVMs, final long vmOverhead, final Map<TestCase, TestcaseStatistic> history) {
+      this.measurementConfig = measurementConfig;
+      this.maximumVMs = Math.max(MINIMUM_VMS, maximumVMs);
+      this.vmOverhead = vmOverhead;
+      this.history = history;
+      this.borderlineSelector = new BorderlineTestSelector(measurementConfig);
+      this.unknownVMDuration = getMedianVMDuration();
+   }
+
+   private long getMedianVMDuration() {
+      long[] durations = history.values().stream()
+            .filter(BudgetPlanner::isUsable)
+            .mapToLong(statistic -> getMeasurementDuration(statistic) + vmOverhead)
+            .sorted()
+            .toArray();
+      return durations.length > 0 ? durations[durations.length / 2] : vmOverhead;
+   }
+
+   private static boolean isUsable(final TestcaseStatistic statistic) {
+      return statistic != null && statistic.getMeanCurrent() > 0;
+   }
+
+   /**
+    * Returns the planned VM count of every test, ordered by the priority of the test, i.e. tests which need more VMs come first
+    */
+   public Map<TestCase, Integer> plan(final Set<TestCase> tests, final long budget) {
+      Map<TestCase, Integer> vms = new LinkedHashMap<>();
+      long remaining = budget;
+      for (TestCase test : tests) {
+         int testVMs = isUsable(history.get(test)) ? Math.min(MINIMUM_VMS, maximumVMs) : measurementConfig.getVms();
+         vms.put(test, testVMs);
+         remaining -= testVMs * estimateVMDuration(test);
+      }
+
+      PriorityQueue<TestCase> candidates = new PriorityQueue<>(Comparator.comparingDouble((TestCase test) -> getBenefit(test, vms.get(test))).reversed());
+      tests.stream().filter(test -> isUsable(history.get(test))).forEach(candidates::add);
+      while (!candidates.isEmpty()) {
+         TestCase test = candidates.poll();
+         long duration = estimateVMDuration(test);
+         if (duration <= remaining && vms.get(test) < maximumVMs) {
+            vms.put(test, vms.get(test) + 1);
+            remaining -= duration;
+            candidates.add(test);
+         }
+      }
+      if (remaining < 0) {
+         LOG.info("Budget is {} ms too small for the minimum VM count of all tests", -remaining);
+      }
+
+      List<TestCase> ordered = vms.keySet().stream()
+            .sorted(Comparator.comparingDouble((TestCase test) -> getWeight(history.get(test))).reversed())
+            .collect(Collectors.toList());
+      Map<TestCase, Integer> orderedVMs = new LinkedHashMap<>();
+      for (TestCase test : ordered) {
+         orderedVMs.put(test, vms.get(test));
+      }
+      return orderedVMs;
+   }
+
+   /**
+    * Returns the reduction of the weighted relative standard error per millisecond when adding one VM to the given VM count
+    */
+   private double getBenefit(final TestCase test, final int vms) {
+      double reduction = 1 / Math.sqrt(vms) - 1 / Math.sqrt(vms + 1);
+      return getWeight(history.get(test)) * reduction / estimateVMDuration(test);
+   }
+
+   /**
+    * Returns the weight of a test, which is its coefficient of variation, increased if the test was borderline; tests without history get the highest weight, since
+    * nothing is known about them.
+    */
+   public double getWeight(final TestcaseStatistic statistic) {
+      if (!isUsable(statistic)) {
+         return Double.MAX_VALUE;
+      }
+      double variation = Math.max(MINIMUM_VARIATION, statistic.getDeviationCurrent() / statistic.getMeanCurrent());
+      return borderlineSelector.isBorderline(statistic) ? variation * BORDERLINE_WEIGHT : variation;
+   }
+
+   /**
+    * Returns the estimated duration of one VM of both versions of the test in milliseconds
+    */
+   public long estimateVMDuration(final TestCase test) {
+      TestcaseStatistic statistic = history.get(test);
+      return isUsable(statistic) ? getMeasurementDuration(statistic) + vmOverhead : unknownVMDuration;
+   }
+
+   /**
+    * Returns the estimated duration of the iterations of both versions of the test in one VM in milliseconds, without the overhead of starting the VMs; 0 if the test
+    * has no history
+    */
+   public long estimateMeasurementDuration(final TestCase test) {
+      TestcaseStatistic statistic = history.get(test);
+      return isUsable(statistic) ? getMeasurementDuration(statistic) : 0;
+   }
+
+   /**
+    * Assumes the mean is the duration of one iteration in nanoseconds
+    */
+   private long getMeasurementDuration(final TestcaseStatistic statistic) {
+      return (long) (2 * statistic.getMeanCurrent() * measurementConfig.getAllIterations() / NANOSECONDS_PER_MILLISECOND);
+   }
+
+   public boolean hasHistory(final TestCase test) {
+      return isUsable(history.get(test));
+   }
+}
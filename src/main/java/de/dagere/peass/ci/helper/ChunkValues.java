@@ -0,0 +1,123 @@
+package de.dagere.peass.ci.helper;
+
+import java.util.Arrays;
+
+/**
+ * Values of the results of one KoPeMe chunk, stored as primitive arrays (one entry per result, i.e. per VM run).
+ * 
+ * @author DaGeRe
+ *
+ */
+public class ChunkValues {
+
+   private final String clazz;
+   private final String method;
+   private final double[] values;
+   private final long[] iterations;
+   private final long[] repetitions;
+   private final String[] versions;
+
+   public ChunkValues(final String clazz, final String method, final double[] values, final long[] iterations, final long[] repetitions, final String[] versions) {
+      this.clazz = clazz;
+      this.method = method;
+      this.values = values;
+      this.iterations = iterations;
+      this.repetitions = repetitions;
+      this.versions = versions;
+   }
+
+   public String getTestcaseKey() {
+      return clazz + "#" + method;
+   }
+
+   public String getClazz() {
+      return clazz;
+   }
+
+   public String getMethod() {
+      return method;
+   }
+
+   public int size() {
+      return values.length;
+   }
+
+   public double[] getValues() {
+      return values;
+   }
+
+   public long[] getIterations() {
+      return iterations;
+   }
+
+   public long[] getRepetitions() {
+      return repetitions;
+   }
+
+   public String[] getVersions() {
+      return versions;
+   }
+
+   public long getMinIterations() {
+      return Arrays.stream(iterations).min().orElse(0);
+   }
+
+   public long getMinRepetitions() {
+      return Arrays.stream(repetitions).min().orElse(0);
+   }
+
+   /**
+    * Returns the values of all results of the given version which were executed with the given repetition count
+    */
+   public double[] getValues(final String version, final long usedRepetitions) {
+      double[] selected = new double[values.length];
+      int count = 0;
+      for (int i = 0; i < values.length; i++) {
+         if (version.equals(versions[i]) && repetitions[i] == usedRepetitions && !Double.isNaN(values[i])) {
+            selected[count++] = values[i];
+         }
+      }
+      return Arrays.copyOf(selected, count);
+   }
+
+   static class Builder {
+      private double[] values = new double[16];
+      private long[] iterations = new long[16];
+      private long[] repetitions = new long[16];
+      private String[] versions = new String[16];
+      private int count = 0;
+
+      void startResult() {
+         if (count == values.length) {
+            int newLength = values.length * 2;
+            values = Arrays.copyOf(values, newLength);
+            iterations = Arrays.copyOf(iterations, newLength);
+            repetitions = Arrays.copyOf(repetitions, newLength);
+            versions = Arrays.copyOf(versions, newLength);
+         }
+         values[count] = Double.NaN;
+         count++;
+      }
+
+      void setValue(final double value) {
+         values[count - 1] = value;
+      }
+
+      void setIterations(final long value) {
+         iterations[count - 1] = value;
+      }
+
+      void setRepetitions(final long value) {
+         repetitions[count - 1] = value;
+      }
+
+      void setVersion(final String version) {
+         versions[count - 1] = version;
+      }
+
+      ChunkValues build(final String clazz, final String method) {
+         return new ChunkValues(clazz, method, Arrays.copyOf(values, count), Arrays.copyOf(iterations, count), Arrays.copyOf(repetitions, count),
+               Arrays.copyOf(versions, count));
+      }
+   }
+}
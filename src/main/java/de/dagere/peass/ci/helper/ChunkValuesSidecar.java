@@ -0,0 +1,200 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.ci.persistence.AtomicFileUtil;
+
+/**
+ * Binary cache of the {@link ChunkValues} of a KoPeMe result file, stored next to the result file as &lt;name&gt;.xml.values. The sidecar is written when the
+ * result file is read the first time and used instead of parsing the XML as long as length and modification time of the result file are unchanged.
+ * 
+ * The format is little endian: a header (magic, format version, source length and modification time, class, method, version table) padded to 8 bytes, followed
+ * by the columns values (double), iterations (long), repetitions (long) and version index (int), each containing one entry per result. This allows reading the
+ * columns directly from a memory mapped file.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class ChunkValuesSidecar {
+
+   private static final Logger LOG = LogManager.getLogger(ChunkValuesSidecar.class);
+
+   public static final String SUFFIX = ".values";
+
+   private static final int MAGIC = 0x504B4356;
+   private static final int FORMAT_VERSION = 1;
+
+   /**
+    * Reads the values of the first chunk of the given result file, using the sidecar if it is up to date and creating it otherwise.
+    */
+   public static ChunkValues read(final File xmlFile) throws IOException, XMLStreamException {
+      File sidecar = getSidecarFile(xmlFile);
+      if (sidecar.exists()) {
+         try {
+            ChunkValues cached = readSidecar(sidecar, xmlFile.length(), xmlFile.lastModified());
+            if (cached != null) {
+               return cached;
+            }
+         } catch (IOException | RuntimeException e) {
+            LOG.debug("Sidecar {} could not be read, reading {}", sidecar, xmlFile, e);
+         }
+      }
+      ChunkValues values = KoPeMeChunkReader.readFirstChunk(xmlFile);
+      try {
+         writeSidecar(sidecar, values, xmlFile.length(), xmlFile.lastModified());
+      } catch (IOException e) {
+         LOG.debug("Sidecar {} could not be written", sidecar, e);
+      }
+      return values;
+   }
+
+   public static File getSidecarFile(final File xmlFile) {
+      return new File(xmlFile.getParentFile(), xmlFile.getName() + SUFFIX);
+   }
+
+   /**
+    * Reads the sidecar, if it was created from a source file with the given length and modification time
+    * 
+    * @return The values or null, if the sidecar is outdated
+    */
+   static ChunkValues readSidecar(final File sidecar, final long sourceLength, final long sourceModified) throws IOException {
+      try (FileChannel channel = FileChannel.open(sidecar.toPath(), StandardOpenOption.READ)) {
+         MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+         ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+         if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return null;
+         }
+         if (buffer.getLong() != sourceLength || buffer.getLong() != sourceModified) {
+            return null;
+         }
+         String clazz = readString(buffer);
+         String method = readString(buffer);
+         String[] versionTable = new String[buffer.getInt()];
+         for (int i = 0; i < versionTable.length; i++) {
+            versionTable[i] = readString(buffer);
+         }
+         int count = buffer.getInt();
+         pad(buffer);
+
+         double[] values = new double[count];
+         buffer.asDoubleBuffer().get(values);
+         buffer.position(buffer.position() + count * Double.BYTES);
+         long[] iterations = new long[count];
+         buffer.asLongBuffer().get(iterations);
+         buffer.position(buffer.position() + count * Long.BYTES);
+         long[] repetitions = new long[count];
+         buffer.asLongBuffer().get(repetitions);
+         buffer.position(buffer.position() + count * Long.BYTES);
+         String[] versions = new String[count];
+         for (int i = 0; i < count; i++) {
+            int index = buffer.getInt();
+            versions[i] = index >= 0 ? versionTable[index] : null;
+         }
+         return new ChunkValues(clazz, method, values, iterations, repetitions, versions);
+      }
+   }
+
+   static void writeSidecar(final File sidecar, final ChunkValues values, final long sourceLength, final long sourceModified) throws IOException {
+      Map<String, Integer> versionTable = new LinkedHashMap<>();
+      int[] versionIndices = new int[values.size()];
+      for (int i = 0; i < values.size(); i++) {
+         String version = values.getVersions()[i];
+         if (version != null) {
+            Integer index = versionTable.get(version);
+            if (index == null) {
+               index = versionTable.size();
+               versionTable.put(version, index);
+            }
+            versionIndices[i] = index;
+         } else {
+            versionIndices[i] = -1;
+         }
+      }
+
+      byte[] clazz = getBytes(values.getClazz());
+      byte[] method = getBytes(values.getMethod());
+      int headerSize = 4 + 4 + 8 + 8 + 4 + clazz.length + 4 + method.length + 4 + 4;
+      for (String version : versionTable.keySet()) {
+         headerSize += 4 + getBytes(version).length;
+      }
+      headerSize = align(headerSize);
+      int size = headerSize + values.size() * (Double.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES);
+
+      ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(MAGIC);
+      buffer.putInt(FORMAT_VERSION);
+      buffer.putLong(sourceLength);
+      buffer.putLong(sourceModified);
+      putBytes(buffer, clazz);
+      putBytes(buffer, method);
+      buffer.putInt(versionTable.size());
+      for (String version : versionTable.keySet()) {
+         putBytes(buffer, getBytes(version));
+      }
+      buffer.putInt(values.size());
+      buffer.position(headerSize);
+      for (double value : values.getValues()) {
+         buffer.putDouble(value);
+      }
+      for (long value : values.getIterations()) {
+         buffer.putLong(value);
+      }
+      for (long value : values.getRepetitions()) {
+         buffer.putLong(value);
+      }
+      for (int index : versionIndices) {
+         buffer.putInt(index);
+      }
+      buffer.flip();
+
+      File temp = File.createTempFile(sidecar.getName(), ".tmp", sidecar.getParentFile());
+      try {
+         try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+               channel.write(buffer);
+            }
+         }
+         AtomicFileUtil.replace(temp, sidecar);
+      } finally {
+         Files.deleteIfExists(temp.toPath());
+      }
+   }
+
+   private static int align(final int position) {
+      return (position + 7) & ~7;
+   }
+
+   private static void pad(final ByteBuffer buffer) {
+      buffer.position(align(buffer.position()));
+   }
+
+   private static byte[] getBytes(final String value) {
+      return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+   }
+
+   private static void putBytes(final ByteBuffer buffer, final byte[] bytes) {
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+   }
+
+   private static String readString(final ByteBuffer buffer) {
+      byte[] bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+}
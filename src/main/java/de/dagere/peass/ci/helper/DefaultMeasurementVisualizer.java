@@ -1,24 +1,22 @@
 package de.dagere.peass.ci.helper;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
-import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.google.common.io.Files;
-
-import de.dagere.kopeme.datastorage.XMLDataLoader;
-import de.dagere.kopeme.generated.Kopemedata;
 import de.dagere.peass.ci.MeasurementVisualizationAction;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
@@ -47,10 +45,25 @@ public class DefaultMeasurementVisualizer {
       this.tests = tests;
    }
 
+   /**
+    * Creates a visualizer which only creates the visualization data, e.g. on the agent, without writing visualization files and adding actions
+    */
+   public DefaultMeasurementVisualizer(final File dataFolder, final String version) {
+      this(dataFolder, version, null, null, null);
+   }
+
    public void visualizeMeasurements() {
-      String longestPrefix = RCAVisualizer.getLongestPrefix(tests);
-      LOG.debug("Prefix: {} Keys: {}", longestPrefix, tests);
+      Map<String, String> visualizationContents = createVisualizationContents();
+      addVisualizationActions(run, visualizationContents, tests);
+   }
 
+   /**
+    * Reads the measurement results and creates the visualization data of each testcase
+    * 
+    * @return Map from testcase executable to the javascript visualization data
+    */
+   public Map<String, String> createVisualizationContents() {
+      Map<String, String> visualizationContents = new TreeMap<>();
       File detailResultsFolder = new File(dataFolder, "measurements");
 
       File[] files = dataFolder.listFiles((FileFilter) new WildcardFileFilter("*.xml"));
@@ -58,55 +71,62 @@ public class DefaultMeasurementVisualizer {
       if (files != null) {
          for (File testcaseFile : files) {
             try {
-               Kopemedata data = XMLDataLoader.loadData(testcaseFile);
+               ChunkValues chunk = ChunkValuesSidecar.read(testcaseFile);
 
-               TestCase testcase = new TestCase(data.getTestcases(), "");
+               TestCase testcase = new TestCase(chunk.getClazz(), chunk.getMethod());
 
                KoPeMeTreeConverter treeConverter = new KoPeMeTreeConverter(detailResultsFolder, version, testcase);
-               File testcaseVisualizationFile = generateJSFile(testcase, treeConverter);
-
-               LOG.debug("Adding action: " + testcase.getExecutable());
-
-               String name = testcase.getExecutable().replace("#", "_").substring(longestPrefix.length());
-
-               final String content = FileUtils.readFileToString(testcaseVisualizationFile, StandardCharsets.UTF_8);
-               run.addAction(new MeasurementVisualizationAction("measurement_" + name, content));
-            } catch (JAXBException e) {
+               final String content = createDataJS(testcase, treeConverter);
+               visualizationContents.put(testcase.getExecutable(), content);
+            } catch (XMLStreamException e) {
                e.printStackTrace();
             } catch (IOException e) {
                e.printStackTrace();
             }
          }
       }
+      return visualizationContents;
+   }
+
+   public static void addVisualizationActions(final Run<?, ?> run, final Map<String, String> visualizationContents, final Set<String> tests) {
+      String longestPrefix = RCAVisualizer.getLongestPrefix(tests);
+      LOG.debug("Prefix: {} Keys: {}", longestPrefix, tests);
+      for (Map.Entry<String, String> visualization : visualizationContents.entrySet()) {
+         LOG.debug("Adding action: " + visualization.getKey());
+
+         String name = visualization.getKey().replace("#", "_").substring(longestPrefix.length());
+         run.addAction(new MeasurementVisualizationAction("measurement_" + name, visualization.getValue()));
+      }
    }
 
    public Map<String, TestcaseStatistic> getNoWarmupStatistics() {
       return noWarmupStatistics;
    }
 
-   private File generateJSFile(final TestCase testcase, final KoPeMeTreeConverter treeConverter) throws IOException {
+   private String createDataJS(final TestCase testcase, final KoPeMeTreeConverter treeConverter) throws IOException {
       GraphNode kopemeDataNode = treeConverter.getData();
 
       LOG.info("Statistic: {}", kopemeDataNode.getStatistic());
       noWarmupStatistics.put(testcase.getExecutable(), kopemeDataNode.getStatistic());
 
-      File versionVisualizationFolder = new File(visualizationFolders.getVisualizationFolder(), version);
-      File kopemeVisualizationFolder = new File(versionVisualizationFolder, "pure_kopeme");
-      if (!kopemeVisualizationFolder.mkdirs()) {
-         LOG.error("Creating file {} was not possibley", kopemeVisualizationFolder);
+      StringWriter content = new StringWriter();
+      writeDataJS(content, kopemeDataNode);
+      if (visualizationFolders != null) {
+         File versionVisualizationFolder = new File(visualizationFolders.getVisualizationFolder(), version);
+         File kopemeVisualizationFolder = new File(versionVisualizationFolder, "pure_kopeme");
+         if (!kopemeVisualizationFolder.mkdirs()) {
+            LOG.error("Creating file {} was not possibley", kopemeVisualizationFolder);
+         }
+         File testcaseVisualizationFile = new File(kopemeVisualizationFolder, testcase.getClazz() + "_" + testcase.getMethod() + ".json");
+         FileUtils.writeStringToFile(testcaseVisualizationFile, content.toString(), StandardCharsets.UTF_8);
       }
-      File testcaseVisualizationFile = new File(kopemeVisualizationFolder, testcase.getClazz() + "_" + testcase.getMethod() + ".json");
-      writeDataJS(testcaseVisualizationFile, kopemeDataNode);
-      return testcaseVisualizationFile;
+      return content.toString();
    }
 
-   private void writeDataJS(final File destFile, final GraphNode kopemeDataNode) throws IOException {
-      try (final BufferedWriter fileWriter = Files.newWriter(destFile, StandardCharsets.UTF_8)) {
-         fileWriter.write("var treeData = {};\n\n");
-         fileWriter.write("var kopemeData = [\n");
-         fileWriter.write(Constants.OBJECTMAPPER.writeValueAsString(kopemeDataNode));
-         fileWriter.write("];\n");
-      }
-
+   private void writeDataJS(final Writer writer, final GraphNode kopemeDataNode) throws IOException {
+      writer.write("var treeData = {};\n\n");
+      writer.write("var kopemeData = [\n");
+      writer.write(Constants.OBJECTMAPPER.writeValueAsString(kopemeDataNode));
+      writer.write("];\n");
    }
 }
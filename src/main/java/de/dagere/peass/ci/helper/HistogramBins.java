@@ -0,0 +1,128 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+
+/**
+ * Histogram of the values of the current version and the predecessor, using the same bins for both so they can be displayed as overlay.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class HistogramBins implements Serializable {
+
+   private static final long serialVersionUID = 2286470716009488946L;
+
+   public static final int MAX_BINS = 100;
+
+   private final double start;
+   private final double width;
+   private final int[] countsCurrent;
+   private final int[] countsBefore;
+
+   public HistogramBins(final double start, final double width, final int[] countsCurrent, final int[] countsBefore) {
+      this.start = start;
+      this.width = width;
+      this.countsCurrent = countsCurrent;
+      this.countsBefore = countsBefore;
+   }
+
+   /**
+    * Creates bins with automatically chosen width (Freedman-Diaconis rule, falling back to Sturges' rule if the interquartile range is 0)
+    */
+   public static HistogramBins create(final double[] valuesCurrent, final double[] valuesBefore) {
+      return create(valuesCurrent, valuesBefore, 0);
+   }
+
+   /**
+    * Creates bins with the given width; if the width is not positive, it is chosen automatically. The number of bins is limited to {@link #MAX_BINS}.
+    */
+   public static HistogramBins create(final double[] valuesCurrent, final double[] valuesBefore, final double fixedWidth) {
+      double[] all = new double[valuesCurrent.length + valuesBefore.length];
+      System.arraycopy(valuesCurrent, 0, all, 0, valuesCurrent.length);
+      System.arraycopy(valuesBefore, 0, all, valuesCurrent.length, valuesBefore.length);
+      if (all.length == 0) {
+         return new HistogramBins(0, 1, new int[0], new int[0]);
+      }
+
+      DescriptiveStatistics statistics = new DescriptiveStatistics(all);
+      double min = statistics.getMin();
+      double range = statistics.getMax() - min;
+
+      double width = fixedWidth > 0 ? fixedWidth : getAutomaticWidth(statistics, range);
+      int binCount;
+      if (range == 0 || width <= 0) {
+         binCount = 1;
+         width = width > 0 ? width : Math.max(Math.abs(min) * 0.01, 1);
+      } else {
+         binCount = (int) Math.min(Math.ceil(range / width), MAX_BINS);
+         if (binCount == MAX_BINS) {
+            width = range / MAX_BINS;
+         }
+         binCount = Math.max(binCount, 1);
+      }
+
+      return new HistogramBins(min, width, count(valuesCurrent, min, width, binCount), count(valuesBefore, min, width, binCount));
+   }
+
+   private static double getAutomaticWidth(final DescriptiveStatistics statistics, final double range) {
+      long n = statistics.getN();
+      double interquartileRange = statistics.getPercentile(75) - statistics.getPercentile(25);
+      double width = 2 * interquartileRange / Math.cbrt(n);
+      if (!(width > 0)) {
+         int sturgesBins = (int) Math.ceil(Math.log(n) / Math.log(2)) + 1;
+         width = range / sturgesBins;
+      }
+      return width;
+   }
+
+   private static int[] count(final double[] values, final double start, final double width, final int binCount) {
+      int[] counts = new int[binCount];
+      for (double value : values) {
+         int bin = (int) ((value - start) / width);
+         counts[Math.max(0, Math.min(bin, binCount - 1))]++;
+      }
+      return counts;
+   }
+
+   public double getStart() {
+      return start;
+   }
+
+   public double getWidth() {
+      return width;
+   }
+
+   public int getBinCount() {
+      return countsCurrent.length;
+   }
+
+   public int[] getCountsCurrent() {
+      return countsCurrent;
+   }
+
+   public int[] getCountsBefore() {
+      return countsBefore;
+   }
+
+   /**
+    * Returns the centers of the bins as javascript array
+    */
+   public String getCentersReadable() {
+      double[] centers = new double[countsCurrent.length];
+      for (int i = 0; i < centers.length; i++) {
+         centers[i] = start + (i + 0.5) * width;
+      }
+      return Arrays.toString(centers);
+   }
+
+   public String getCountsCurrentReadable() {
+      return Arrays.toString(countsCurrent);
+   }
+
+   public String getCountsBeforeReadable() {
+      return Arrays.toString(countsBefore);
+   }
+}
@@ -2,23 +2,29 @@ package de.dagere.peass.ci.helper;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
-import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
 
-import de.dagere.kopeme.datastorage.XMLDataLoader;
-import de.dagere.kopeme.generated.Kopemedata;
-import de.dagere.kopeme.generated.TestcaseType;
-import de.dagere.kopeme.generated.TestcaseType.Datacollector.Chunk;
 import de.dagere.peass.config.MeasurementConfig;
-import de.dagere.peass.measurement.analysis.MultipleVMTestUtil;
-import de.dagere.peass.measurement.analysis.ResultLoader;
 import io.jenkins.cli.shaded.org.apache.commons.io.filefilter.WildcardFileFilter;
 
+/**
+ * Reads the histogram values of all result files of a measurement. The files are read by a streaming parser, which only keeps the values of the first
+ * chunk, and are processed in parallel on a bounded pool.
+ */
 public class HistogramReader {
 
+   private static final int MAX_PARALLELISM = 4;
+
    private final MeasurementConfig measurementConfig;
    private final File fullResultsFolder;
    private Map<String, MeasurementConfig> updatedConfigurations = new HashMap<>();
@@ -28,7 +34,7 @@ public class HistogramReader {
       this.fullResultsFolder = fullResultsFolder;
    }
 
-   public Map<String, HistogramValues> readMeasurements() throws JAXBException {
+   public Map<String, HistogramValues> readMeasurements() {
       final Map<String, HistogramValues> measurements = new TreeMap<>();
       if (fullResultsFolder.exists() && fullResultsFolder.isDirectory()) {
          File[] xmlFiles = fullResultsFolder.listFiles((FileFilter) new WildcardFileFilter("*.xml"));
@@ -37,57 +43,95 @@ public class HistogramReader {
             return measurements;
          }
 
-         for (File xmlResultFile : xmlFiles) {
-            readFile(measurements, xmlResultFile);
+         for (FileResult result : readFiles(xmlFiles)) {
+            measurements.put(result.testcaseKey, result.values);
+            if (result.updatedConfig != null) {
+               updatedConfigurations.put(result.testcaseKey, result.updatedConfig);
+            }
          }
       }
       return measurements;
    }
-   
+
+   private List<FileResult> readFiles(final File[] xmlFiles) {
+      int parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), Math.min(MAX_PARALLELISM, xmlFiles.length)));
+      ForkJoinPool pool = new ForkJoinPool(parallelism);
+      try {
+         return pool.submit(() -> Arrays.stream(xmlFiles)
+               .parallel()
+               .map(this::readFile)
+               .collect(Collectors.toList()))
+               .get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      } catch (ExecutionException e) {
+         throw new RuntimeException("Reading measurements from " + fullResultsFolder + " failed", e.getCause());
+      } finally {
+         pool.shutdown();
+      }
+   }
+
    public Map<String, MeasurementConfig> getUpdatedConfigurations() {
       return updatedConfigurations;
    }
 
-   private void readFile(final Map<String, HistogramValues> measurements, final File xmlResultFile) throws JAXBException {
-      Kopemedata data = XMLDataLoader.loadData(xmlResultFile);
-      // This assumes measurements are only executed once; if this is not the case, the matching result would need to be searched
-      final TestcaseType testcase = data.getTestcases().getTestcase().get(0);
-      Chunk chunk = testcase.getDatacollector().get(0).getChunk().get(0);
-      String testcaseKey = data.getTestcases().getClazz() + "#" + testcase.getName();
-      
-      MeasurementConfig currentConfig = getUpdatedConfiguration(testcaseKey, testcase, chunk);
-      
-      HistogramValues values = loadResults(chunk, currentConfig);
-        
-      measurements.put(testcaseKey, values);
+   private FileResult readFile(final File xmlResultFile) {
+      try {
+         // This assumes measurements are only executed once; if this is not the case, the matching result would need to be searched
+         ChunkValues chunk = ChunkValuesSidecar.read(xmlResultFile);
+         String testcaseKey = chunk.getTestcaseKey();
+
+         MeasurementConfig currentConfig = getCurrentConfiguration(chunk);
+
+         HistogramValues values = loadResults(chunk, currentConfig);
+
+         MeasurementConfig updatedConfig = isUpdated(currentConfig) ? currentConfig : null;
+         return new FileResult(testcaseKey, values, updatedConfig);
+      } catch (IOException | XMLStreamException e) {
+         throw new RuntimeException("Could not read " + xmlResultFile, e);
+      }
    }
 
-   private HistogramValues loadResults(final Chunk chunk, final MeasurementConfig currentConfig) {
-      ResultLoader loader = new ResultLoader(currentConfig, null, null, 0);
-      loader.loadChunk(chunk);
+   private HistogramValues loadResults(final ChunkValues chunk, final MeasurementConfig currentConfig) {
+      long repetitions = currentConfig.getRepetitions();
+      double[] valsAfter = chunk.getValues(currentConfig.getExecutionConfig().getVersion(), repetitions);
+      double[] valsBefore = chunk.getValues(currentConfig.getExecutionConfig().getVersionOld(), repetitions);
 
-      HistogramValues values = new HistogramValues(loader.getValsAfter(), loader.getValsBefore(), currentConfig);
+      HistogramValues values = new HistogramValues(valsAfter, valsBefore, currentConfig);
       return values;
    }
 
-   private MeasurementConfig getUpdatedConfiguration(final String testcaseKey, final TestcaseType testcase, final Chunk chunk) {
+   private MeasurementConfig getCurrentConfiguration(final ChunkValues chunk) {
       MeasurementConfig currentConfig = new MeasurementConfig(measurementConfig);
-      int iterations = (int) MultipleVMTestUtil.getMinIterationCount(chunk.getResult());
+      int iterations = (int) chunk.getMinIterations();
       if (iterations != currentConfig.getAllIterations()) {
-         currentConfig.setIterations((int) Math.ceil(iterations/2d));
-         currentConfig.setWarmup(iterations/2);
-      }
-      
-      currentConfig.setRepetitions((int) MultipleVMTestUtil.getMinRepetitionCount(chunk.getResult()));
-      
-      if (currentConfig.getAllIterations() != measurementConfig.getAllIterations() ||
-            currentConfig.getRepetitions() != measurementConfig.getRepetitions()) {
-         updatedConfigurations.put(testcaseKey, currentConfig);
+         currentConfig.setIterations((int) Math.ceil(iterations / 2d));
+         currentConfig.setWarmup(iterations / 2);
       }
+
+      currentConfig.setRepetitions((int) chunk.getMinRepetitions());
       return currentConfig;
    }
-   
+
+   private boolean isUpdated(final MeasurementConfig currentConfig) {
+      return currentConfig.getAllIterations() != measurementConfig.getAllIterations() ||
+            currentConfig.getRepetitions() != measurementConfig.getRepetitions();
+   }
+
    public boolean measurementConfigurationUpdated() {
       return !updatedConfigurations.isEmpty();
    }
-}
\ No newline at end of file
+
+   private static class FileResult {
+      private final String testcaseKey;
+      private final HistogramValues values;
+      private final MeasurementConfig updatedConfig;
+
+      FileResult(final String testcaseKey, final HistogramValues values, final MeasurementConfig updatedConfig) {
+         this.testcaseKey = testcaseKey;
+         this.values = values;
+         this.updatedConfig = updatedConfig;
+      }
+   }
+}
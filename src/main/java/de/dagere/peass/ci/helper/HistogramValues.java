@@ -1,5 +1,6 @@
 package de.dagere.peass.ci.helper;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
@@ -7,13 +8,31 @@ import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.visualization.KoPeMeTreeConverter;
 
-public class HistogramValues {
+/**
+ * Histogram data of one testcase. Bins, markers and a downsampled value series are computed once when the values are read, so the size of the displayed data
+ * does not depend on the number of VMs.
+ */
+public class HistogramValues implements Serializable {
+   
+   private static final long serialVersionUID = -3417093451563383165L;
    
    private static final String NANOSECONDS = "ns";
    private static final String MICROSECONDS = "\u00B5s";
+
+   public static final int MAX_RAW_VALUES = 200;
+
+   /**
+    * Percentiles of the marker values; 0 and 100 are min and max
+    */
+   private static final double[] MARKER_PERCENTILES = new double[] { 0, 25, 50, 75, 100 };
    
-   private final double[] valuesCurrent;
-   private final double[] valuesBefore;
+   // Downsampled values; builds created before binning was introduced contain all values
+   private double[] valuesCurrent;
+   private double[] valuesBefore;
+
+   private HistogramBins bins;
+   private double[] markersCurrent;
+   private double[] markersBefore;
 
    private String unit;
 
@@ -31,12 +50,67 @@ public class HistogramValues {
          factor = KoPeMeTreeConverter.NANO_TO_MICRO;
       }
       System.out.println("Unit: " + unit);
-      this.valuesCurrent = Arrays.stream(valuesCurrent).map(value -> value / currentConfig.getRepetitions() / factor).toArray();
-      this.valuesBefore = Arrays.stream(valuesBefore).map(value -> value / currentConfig.getRepetitions() / factor).toArray();
+      double[] current = Arrays.stream(valuesCurrent).map(value -> value / currentConfig.getRepetitions() / factor).toArray();
+      double[] before = Arrays.stream(valuesBefore).map(value -> value / currentConfig.getRepetitions() / factor).toArray();
+      summarize(current, before);
+   }
+
+   private void summarize(final double[] current, final double[] before) {
+      bins = HistogramBins.create(current, before);
+      markersCurrent = getMarkers(current);
+      markersBefore = getMarkers(before);
+      valuesCurrent = downsample(current);
+      valuesBefore = downsample(before);
    }
 
    /**
-    * Returns a javascript visualizable value array in the specified unit
+    * Summarizes values deserialized from builds which stored all values
+    */
+   protected Object readResolve() {
+      if (bins == null && valuesCurrent != null && valuesBefore != null) {
+         summarize(valuesCurrent, valuesBefore);
+      }
+      return this;
+   }
+
+   private static double[] getMarkers(final double[] values) {
+      if (values.length == 0) {
+         return new double[0];
+      }
+      DescriptiveStatistics statistics = new DescriptiveStatistics(values);
+      double[] markers = new double[MARKER_PERCENTILES.length];
+      for (int i = 0; i < markers.length; i++) {
+         double percentile = MARKER_PERCENTILES[i];
+         if (percentile == 0) {
+            markers[i] = statistics.getMin();
+         } else if (percentile == 100) {
+            markers[i] = statistics.getMax();
+         } else {
+            markers[i] = statistics.getPercentile(percentile);
+         }
+      }
+      return markers;
+   }
+
+   /**
+    * Reduces the values to at most {@link #MAX_RAW_VALUES} values, taken at evenly distributed ranks of the sorted values, so the distribution is preserved
+    */
+   static double[] downsample(final double[] values) {
+      if (values.length <= MAX_RAW_VALUES) {
+         return values;
+      }
+      double[] sorted = values.clone();
+      Arrays.sort(sorted);
+      double[] sample = new double[MAX_RAW_VALUES];
+      for (int i = 0; i < MAX_RAW_VALUES; i++) {
+         int index = (int) Math.round((double) i * (sorted.length - 1) / (MAX_RAW_VALUES - 1));
+         sample[i] = sorted[index];
+      }
+      return sample;
+   }
+
+   /**
+    * Returns a javascript visualizable value array in the specified unit; if there are more than {@link #MAX_RAW_VALUES} values, the values are downsampled
     * 
     * @return A javascript visualizable value array in the specified unit
     */
@@ -47,8 +121,23 @@ public class HistogramValues {
    public String getValuesBeforeReadable() {
       return Arrays.toString(valuesBefore);
    }
+
+   public HistogramBins getBins() {
+      return bins;
+   }
+
+   /**
+    * Returns min, 25% quantile, median, 75% quantile and max of the current version as javascript array
+    */
+   public String getMarkersCurrentReadable() {
+      return Arrays.toString(markersCurrent);
+   }
+
+   public String getMarkersBeforeReadable() {
+      return Arrays.toString(markersBefore);
+   }
    
    public String getUnit() {
       return unit;
    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the results of the first chunk of the first testcase of a KoPeMe result file with a streaming parser, without creating the JAXB object tree. Only value,
+ * iterations, repetitions and version of each result are read.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class KoPeMeChunkReader {
+
+   private static final XMLInputFactory FACTORY = createFactory();
+
+   private static final String[] RESULT_PATH = new String[] { "kopemedata", "testcases", "testcase", "datacollector", "chunk", "result" };
+
+   private static XMLInputFactory createFactory() {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      return factory;
+   }
+
+   private final Deque<String> path = new ArrayDeque<>();
+   private int testcaseCount = 0;
+   private int datacollectorCount = 0;
+   private int chunkCount = 0;
+
+   private String clazz;
+   private String method;
+   private ChunkValues.Builder values = new ChunkValues.Builder();
+
+   public static ChunkValues readFirstChunk(final File xmlFile) throws IOException, XMLStreamException {
+      try (InputStream stream = Files.newInputStream(xmlFile.toPath())) {
+         return new KoPeMeChunkReader().read(stream);
+      }
+   }
+
+   private ChunkValues read(final InputStream stream) throws XMLStreamException {
+      XMLStreamReader reader;
+      synchronized (FACTORY) {
+         reader = FACTORY.createXMLStreamReader(stream);
+      }
+      try {
+         boolean finished = false;
+         while (!finished && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+               finished = handleStart(reader);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+               finished = handleEnd(reader.getLocalName());
+            }
+         }
+      } finally {
+         reader.close();
+      }
+      return values.build(clazz, method);
+   }
+
+   /**
+    * Handles a start element; values are read directly, so the reader is afterwards at the end element of the value
+    */
+   private boolean handleStart(final XMLStreamReader reader) throws XMLStreamException {
+      String name = reader.getLocalName();
+      int depth = path.size();
+      if (depth == 1 && "testcases".equals(name)) {
+         clazz = reader.getAttributeValue(null, "class");
+      } else if (depth == 2 && "testcase".equals(name)) {
+         if (testcaseCount++ > 0) {
+            return true;
+         }
+         method = reader.getAttributeValue(null, "name");
+      } else if (depth == 3 && "datacollector".equals(name)) {
+         if (datacollectorCount++ > 0) {
+            return true;
+         }
+      } else if (depth == 4 && "chunk".equals(name)) {
+         if (chunkCount++ > 0) {
+            return true;
+         }
+      } else if (depth == 5 && "result".equals(name) && isInResultParent()) {
+         values.startResult();
+      } else if (depth == 6 && isInResult()) {
+         if ("value".equals(name)) {
+            values.setValue(Double.parseDouble(reader.getElementText().trim()));
+            return false;
+         } else if ("iterations".equals(name)) {
+            values.setIterations(Long.parseLong(reader.getElementText().trim()));
+            return false;
+         } else if ("repetitions".equals(name)) {
+            values.setRepetitions(Long.parseLong(reader.getElementText().trim()));
+            return false;
+         }
+      } else if (depth == 7 && "gitversion".equals(name) && isInResult() && "version".equals(path.peekLast())) {
+         values.setVersion(reader.getElementText().trim());
+         return false;
+      }
+      path.addLast(name);
+      return false;
+   }
+
+   private boolean handleEnd(final String name) {
+      path.pollLast();
+      return "chunk".equals(name) && path.size() == 4;
+   }
+
+   private boolean isInResultParent() {
+      return matchesPath(RESULT_PATH.length - 1);
+   }
+
+   private boolean isInResult() {
+      return matchesPath(RESULT_PATH.length);
+   }
+
+   private boolean matchesPath(final int length) {
+      int index = 0;
+      for (String element : path) {
+         if (index >= length) {
+            return true;
+         }
+         if (!RESULT_PATH[index].equals(element)) {
+            return false;
+         }
+         index++;
+      }
+      return index >= length;
+   }
+}
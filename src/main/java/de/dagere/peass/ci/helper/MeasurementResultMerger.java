@@ -0,0 +1,259 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import de.dagere.peass.analysis.changes.ProjectChanges;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.config.StatisticsConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.folders.PeassFolders;
+import de.dagere.peass.folders.ResultsFolders;
+import de.dagere.peass.measurement.analysis.AnalyseFullData;
+import de.dagere.peass.measurement.analysis.ProjectStatistics;
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Merges the results of measurements, which were executed on several agents with disjoint VM indices, into the results folder of the controller. The VMs of every
+ * agent are numbered from 0, so the merger renumbers the detail results and logs by the offset of the agent, appends the results of the aggregated result files and
+ * analyses the merged values again.
+ *
+ * @author DaGeRe
+ *
+ */
+public class MeasurementResultMerger {
+
+   private static final Logger LOG = LogManager.getLogger(MeasurementResultMerger.class);
+
+   private static final Pattern VM_FOLDER = Pattern.compile("vm_([0-9]+)_(.*)");
+
+   private final MeasurementConfig measurementConfig;
+   private final File localWorkspace;
+   private final ResultsFolders results;
+   private final String projectName;
+
+   public MeasurementResultMerger(final MeasurementConfig measurementConfig, final File localWorkspace, final String projectName) {
+      this.measurementConfig = measurementConfig;
+      this.localWorkspace = localWorkspace;
+      this.results = new ResultsFolders(localWorkspace, projectName);
+      this.projectName = projectName;
+   }
+
+   /**
+    * Merges the results of one agent, which executed the given number of VMs, into the results folder; the VMs of the agent get the indices starting at vmOffset.
+    */
+   public void merge(final File agentFolder, final Set<TestCase> tests, final int vmOffset, final int vms) throws IOException {
+      ResultsFolders agentResults = new ResultsFolders(agentFolder, projectName);
+      File agentDataFolder = agentResults.getVersionFullResultsFolder(measurementConfig);
+      File dataFolder = results.getVersionFullResultsFolder(measurementConfig);
+
+      mergeDetailResults(new File(agentDataFolder, "measurements"), new File(dataFolder, "measurements"), tests, vmOffset, vms);
+      mergeAggregatedResults(agentDataFolder, dataFolder, tests);
+      mergeLogs(new File(agentFolder, projectName + "_peass"), new File(localWorkspace, projectName + "_peass"), tests, vmOffset);
+   }
+
+   private void mergeDetailResults(final File agentDetailFolder, final File detailFolder, final Set<TestCase> tests, final int vmOffset, final int vms)
+         throws IOException {
+      String version = measurementConfig.getExecutionConfig().getVersion();
+      String versionOld = measurementConfig.getExecutionConfig().getVersionOld();
+      for (TestCase test : tests) {
+         for (int vmId = 0; vmId < vms; vmId++) {
+            for (String measuredVersion : new String[] { version, versionOld }) {
+               File source = new File(agentDetailFolder, PeassFolders.getRelativeFullResultPath(test, version, measuredVersion, vmId));
+               if (source.exists()) {
+                  File destination = new File(detailFolder, PeassFolders.getRelativeFullResultPath(test, version, measuredVersion, vmOffset + vmId));
+                  copy(source.toPath(), destination.toPath());
+               }
+            }
+         }
+      }
+   }
+
+   private void mergeAggregatedResults(final File agentDataFolder, final File dataFolder, final Set<TestCase> tests) throws IOException {
+      File[] agentFiles = agentDataFolder.listFiles((dir, name) -> name.endsWith(".xml"));
+      if (agentFiles != null) {
+         for (File agentFile : agentFiles) {
+            ChunkValues chunk = readChunk(agentFile);
+            if (!tests.contains(new TestCase(chunk.getClazz(), chunk.getMethod()))) {
+               LOG.debug("Skipping {}, since it was not measured", agentFile);
+               continue;
+            }
+            File destination = new File(dataFolder, agentFile.getName());
+            if (destination.exists()) {
+               mergeResultFile(destination, agentFile, measurementConfig.getExecutionConfig().getVersion(),
+                     measurementConfig.getExecutionConfig().getVersionOld());
+            } else {
+               copy(agentFile.toPath(), destination.toPath());
+            }
+         }
+      }
+   }
+
+   /**
+    * Copies the logs of the measured tests from the log folders of all VMs, i.e. vm_$id_$version, to the log folder of the controller, replacing the id by the global
+    * VM index
+    */
+   private void mergeLogs(final File agentPeassFolder, final File peassFolder, final Set<TestCase> tests, final int vmOffset) throws IOException {
+      if (!agentPeassFolder.exists()) {
+         return;
+      }
+      Path agentRoot = agentPeassFolder.toPath();
+      List<Path> files;
+      try (Stream<Path> stream = Files.walk(agentRoot)) {
+         files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+      }
+      for (Path file : files) {
+         Path relative = agentRoot.relativize(file);
+         Path renumbered = null;
+         for (Path segment : relative) {
+            String name = segment.toString();
+            Matcher matcher = VM_FOLDER.matcher(name);
+            if (matcher.matches()) {
+               name = "vm_" + (Integer.parseInt(matcher.group(1)) + vmOffset) + "_" + matcher.group(2);
+            }
+            renumbered = renumbered == null ? agentRoot.getFileSystem().getPath(name) : renumbered.resolve(name);
+         }
+         if (!renumbered.equals(relative) && isLogOfTest(relative, tests)) {
+            copy(file, peassFolder.toPath().resolve(renumbered.toString()));
+         }
+      }
+   }
+
+   private boolean isLogOfTest(final Path relative, final Set<TestCase> tests) {
+      String path = relative.toString().replace(File.separatorChar, '/');
+      for (TestCase test : tests) {
+         if (path.endsWith("log_" + test.getClazz() + "/" + test.getMethod() + ".txt")) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private void copy(final Path source, final Path destination) throws IOException {
+      Files.createDirectories(destination.getParent());
+      Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+   }
+
+   /**
+    * Appends the results of the chunk of the given version pair (or, if there are no chunks, of the first datacollector) of the source file to the chunk of the
+    * version pair of the target file
+    */
+   public static void mergeResultFile(final File target, final File source, final String version, final String versionOld) throws IOException {
+      try {
+         DocumentBuilder builder = createDocumentBuilder();
+         Document targetDocument = builder.parse(target);
+         Document sourceDocument = builder.parse(source);
+
+         Element targetParent = getResultParent(targetDocument, version, versionOld);
+         Element sourceParent = getResultParent(sourceDocument, version, versionOld);
+         if (targetParent == null || sourceParent == null) {
+            LOG.warn("No results found in {} or {}, not merging", target, source);
+            return;
+         }
+         NodeList sourceResults = sourceParent.getElementsByTagName("result");
+         for (int i = 0; i < sourceResults.getLength(); i++) {
+            Node result = sourceResults.item(i);
+            if (result.getParentNode() == sourceParent) {
+               targetParent.appendChild(targetDocument.importNode(result, true));
+            }
+         }
+
+         Transformer transformer = TransformerFactory.newInstance().newTransformer();
+         transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+         transformer.transform(new DOMSource(targetDocument), new StreamResult(target));
+      } catch (ParserConfigurationException | SAXException | TransformerException e) {
+         throw new IOException("Could not merge " + source + " into " + target, e);
+      }
+   }
+
+   /**
+    * Creates a builder which does not resolve doctypes and external entities, since the result files are written on the agents
+    */
+   private static DocumentBuilder createDocumentBuilder() throws ParserConfigurationException {
+      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+      factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+      factory.setXIncludeAware(false);
+      factory.setExpandEntityReferences(false);
+      return factory.newDocumentBuilder();
+   }
+
+   /**
+    * Returns the chunk containing results of the version pair; if no chunk contains them, the last chunk, since the measurement appends its chunk
+    */
+   private static Element getResultParent(final Document document, final String version, final String versionOld) {
+      NodeList chunks = document.getElementsByTagName("chunk");
+      if (chunks.getLength() > 0) {
+         for (int i = chunks.getLength() - 1; i >= 0; i--) {
+            NodeList gitversions = ((Element) chunks.item(i)).getElementsByTagName("gitversion");
+            for (int j = 0; j < gitversions.getLength(); j++) {
+               String measuredVersion = gitversions.item(j).getTextContent().trim();
+               if (measuredVersion.equals(version) || measuredVersion.equals(versionOld)) {
+                  return (Element) chunks.item(i);
+               }
+            }
+         }
+         return (Element) chunks.item(chunks.getLength() - 1);
+      }
+      NodeList datacollectors = document.getElementsByTagName("datacollector");
+      if (datacollectors.getLength() > 0) {
+         return (Element) datacollectors.item(0);
+      }
+      return null;
+   }
+
+   /**
+    * Analyses the merged result files with the analysis of Peass, i.e. with the statistic test and outlier removal of the {@link StatisticsConfig}, and writes
+    * the changes and statistics to the change file and the statistics file, like the analysis after a measurement on a single agent.
+    */
+   public void writeChangesAndStatistics() throws IOException, InterruptedException {
+      File dataFolder = results.getVersionFullResultsFolder(measurementConfig);
+      ProjectStatistics statistics = new ProjectStatistics();
+      AnalyseFullData analysis = new AnalyseFullData(results.getChangeFile(), statistics, null, measurementConfig.getStatisticsConfig());
+      analysis.analyseFolder(dataFolder);
+      ProjectChanges changes = analysis.getChanges();
+      LOG.info("Analysed merged results of {}", dataFolder);
+
+      Constants.OBJECTMAPPER.writeValue(results.getChangeFile(), changes);
+      Constants.OBJECTMAPPER.writeValue(results.getStatisticsFile(), statistics);
+   }
+
+   private ChunkValues readChunk(final File xmlFile) throws IOException {
+      try {
+         return ChunkValuesSidecar.read(xmlFile);
+      } catch (XMLStreamException e) {
+         throw new IOException("Could not read " + xmlFile, e);
+      }
+   }
+}
@@ -0,0 +1,116 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.bind.JAXBException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.analysis.changes.ProjectChanges;
+import de.dagere.peass.ci.logs.CorrectRunChecker;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.folders.ResultsFolders;
+import de.dagere.peass.measurement.analysis.ProjectStatistics;
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Creates the {@link MeasurementSummary} from the result folders; this is executed on the agent after the measurement.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class MeasurementSummarizer {
+
+   private static final Logger LOG = LogManager.getLogger(MeasurementSummarizer.class);
+
+   private final MeasurementConfig measurementConfig;
+   private final ResultsFolders results;
+   private boolean detectSteadyState = false;
+
+   public MeasurementSummarizer(final MeasurementConfig measurementConfig, final ResultsFolders results) {
+      this.measurementConfig = measurementConfig;
+      this.results = results;
+   }
+
+   public MeasurementSummary summarize(final Set<TestCase> tests) throws JAXBException, IOException {
+      MeasurementSummary summary = new MeasurementSummary(true);
+      File dataFolder = results.getVersionFullResultsFolder(measurementConfig);
+
+      HistogramReader histogramReader = new HistogramReader(measurementConfig, dataFolder);
+      summary.setMeasurements(histogramReader.readMeasurements());
+      summary.setUpdatedConfigurations(histogramReader.getUpdatedConfigurations());
+
+      summary.setChanges(readChanges(results));
+      summary.setStatistics(readStatistics(results));
+
+      DefaultMeasurementVisualizer visualizer = new DefaultMeasurementVisualizer(dataFolder, measurementConfig.getExecutionConfig().getVersion());
+      summary.setVisualizationContents(visualizer.createVisualizationContents());
+      summary.setNoWarmupStatistics(visualizer.getNoWarmupStatistics());
+
+      File detailResultsFolder = new File(dataFolder, "measurements");
+      for (TestCase test : tests) {
+         List<VMRunSuccess> vmSuccess = new LinkedList<>();
+         for (int vmId = 0; vmId < measurementConfig.getVms(); vmId++) {
+            CorrectRunChecker checker = new CorrectRunChecker(test, vmId, measurementConfig, detailResultsFolder);
+            vmSuccess.add(new VMRunSuccess(checker.isCurrentRunning(), checker.isPredecessorRunning()));
+         }
+         summary.getRunSuccess().put(test, vmSuccess);
+      }
+      if (detectSteadyState) {
+         SteadyStateDetector detector = new SteadyStateDetector(measurementConfig);
+         summary.setDetectedWarmups(detector.detect(detailResultsFolder, tests));
+         summary.setDetectedIterations(detector.getDetectedIterations());
+      }
+
+      summary.setSummarized(true);
+      LOG.info("Summarized {} measurements", summary.getMeasurements().size());
+      return summary;
+   }
+
+   /**
+    * Sets whether the warmup of the tests is detected from the detail results, which requires reading the iteration values of every VM
+    */
+   public void setDetectSteadyState(final boolean detectSteadyState) {
+      this.detectSteadyState = detectSteadyState;
+   }
+
+   public static ProjectChanges readChanges(final ResultsFolders results) throws IOException {
+      final File changeFile = results.getChangeFile();
+      final ProjectChanges changes;
+      if (changeFile.exists()) {
+         changes = Constants.OBJECTMAPPER.readValue(changeFile, ProjectChanges.class);
+      } else {
+         changes = new ProjectChanges();
+      }
+      return changes;
+   }
+
+   public static ProjectStatistics readStatistics(final ResultsFolders results) throws IOException {
+      final File statisticsFile = results.getStatisticsFile();
+      ProjectStatistics statistics;
+      if (statisticsFile.exists()) {
+         statistics = Constants.OBJECTMAPPER.readValue(statisticsFile, ProjectStatistics.class);
+      } else {
+         statistics = new ProjectStatistics();
+      }
+      return statistics;
+   }
+
+   /**
+    * Returns the success of the given VM run; null if the summary does not contain the test
+    */
+   public static VMRunSuccess getRunSuccess(final Map<TestCase, List<VMRunSuccess>> runSuccess, final TestCase test, final int vmId) {
+      List<VMRunSuccess> vmSuccess = runSuccess != null ? runSuccess.get(test) : null;
+      if (vmSuccess != null && vmId < vmSuccess.size()) {
+         return vmSuccess.get(vmId);
+      }
+      return null;
+   }
+}
@@ -0,0 +1,128 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.dagere.peass.analysis.changes.ProjectChanges;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.measurement.analysis.ProjectStatistics;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+
+/**
+ * Everything the controller needs for visualizing a measurement, computed on the agent where the measurement data are, so the raw KoPeMe results do not need to be
+ * copied and parsed on the controller.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class MeasurementSummary implements Serializable {
+   private static final long serialVersionUID = -1489011591961307306L;
+
+   private final boolean worked;
+   private boolean summarized = false;
+
+   private Map<String, HistogramValues> measurements = new TreeMap<>();
+   private Map<String, MeasurementConfig> updatedConfigurations = new HashMap<>();
+   private ProjectStatistics statistics = new ProjectStatistics();
+   private ProjectChanges changes = new ProjectChanges();
+   private Map<String, TestcaseStatistic> noWarmupStatistics = new HashMap<>();
+   private Map<String, String> visualizationContents = new TreeMap<>();
+   private Map<TestCase, List<VMRunSuccess>> runSuccess = new HashMap<>();
+   private Map<String, Integer> detectedWarmups = new TreeMap<>();
+   private Map<String, Integer> detectedIterations = new TreeMap<>();
+
+   public MeasurementSummary(final boolean worked) {
+      this.worked = worked;
+   }
+
+   public boolean isWorked() {
+      return worked;
+   }
+
+   /**
+    * Returns whether the summary contains the measurement data; if summarizing on the agent failed, the controller needs to read the raw results
+    */
+   public boolean isSummarized() {
+      return summarized;
+   }
+
+   public void setSummarized(final boolean summarized) {
+      this.summarized = summarized;
+   }
+
+   public Map<String, HistogramValues> getMeasurements() {
+      return measurements;
+   }
+
+   public void setMeasurements(final Map<String, HistogramValues> measurements) {
+      this.measurements = measurements;
+   }
+
+   public Map<String, MeasurementConfig> getUpdatedConfigurations() {
+      return updatedConfigurations;
+   }
+
+   public void setUpdatedConfigurations(final Map<String, MeasurementConfig> updatedConfigurations) {
+      this.updatedConfigurations = updatedConfigurations;
+   }
+
+   public ProjectStatistics getStatistics() {
+      return statistics;
+   }
+
+   public void setStatistics(final ProjectStatistics statistics) {
+      this.statistics = statistics;
+   }
+
+   public ProjectChanges getChanges() {
+      return changes;
+   }
+
+   public void setChanges(final ProjectChanges changes) {
+      this.changes = changes;
+   }
+
+   public Map<String, TestcaseStatistic> getNoWarmupStatistics() {
+      return noWarmupStatistics;
+   }
+
+   public void setNoWarmupStatistics(final Map<String, TestcaseStatistic> noWarmupStatistics) {
+      this.noWarmupStatistics = noWarmupStatistics;
+   }
+
+   public Map<String, String> getVisualizationContents() {
+      return visualizationContents;
+   }
+
+   public void setVisualizationContents(final Map<String, String> visualizationContents) {
+      this.visualizationContents = visualizationContents;
+   }
+
+   public Map<TestCase, List<VMRunSuccess>> getRunSuccess() {
+      return runSuccess;
+   }
+
+   public void setRunSuccess(final Map<TestCase, List<VMRunSuccess>> runSuccess) {
+      this.runSuccess = runSuccess;
+   }
+
+   public Map<String, Integer> getDetectedWarmups() {
+      return detectedWarmups;
+   }
+
+   public void setDetectedWarmups(final Map<String, Integer> detectedWarmups) {
+      this.detectedWarmups = detectedWarmups;
+   }
+
+   public Map<String, Integer> getDetectedIterations() {
+      return detectedIterations;
+   }
+
+   public void setDetectedIterations(final Map<String, Integer> detectedIterations) {
+      this.detectedIterations = detectedIterations;
+   }
+}
@@ -2,8 +2,14 @@ package de.dagere.peass.ci.helper;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.JAXBException;
 
@@ -20,6 +26,8 @@ import de.dagere.peass.analysis.changes.Change;
 import de.dagere.peass.analysis.changes.Changes;
 import de.dagere.peass.analysis.changes.ProjectChanges;
 import de.dagere.peass.ci.NonIncludedTestRemover;
+import de.dagere.peass.ci.persistence.RCAIndex;
+import de.dagere.peass.ci.persistence.RCAIndexEntry;
 import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import de.dagere.peass.dependency.execution.EnvironmentVariables;
@@ -42,14 +50,19 @@ public class RCAExecutor {
    private final ProjectChanges changes;
    private final CauseSearcherConfig causeConfig;
    private final EnvironmentVariables env;
+   private final File rcaFolder;
+   private final RCAIndex index;
+   private int parallelism = 1;
 
    public RCAExecutor(final MeasurementConfig config, final File workspaceFolder, final ProjectChanges changes, final CauseSearcherConfig causeConfig,
-         final EnvironmentVariables env) {
+         final EnvironmentVariables env) throws IOException {
       this.config = config;
       this.projectFolder = workspaceFolder;
       this.changes = changes;
       this.causeConfig = causeConfig;
       this.env = env;
+      this.rcaFolder = RCAIndex.getRCAFolder(new CauseSearchFolders(workspaceFolder));
+      this.index = RCAIndex.read(rcaFolder);
    }
 
    public void executeRCAs()
@@ -62,21 +75,17 @@ public class RCAExecutor {
          LOG.info("At least one testcase was not successfully executed in the last build for the current version - executing RCA");
 //         saveOldPeassFolder();
 
-         MeasurementConfig currentConfig = new MeasurementConfig(config);
-
-         for (Entry<String, List<Change>> testcases : versionChanges.getTestcaseChanges().entrySet()) {
-            for (Change change : testcases.getValue()) {
-               final TestCase testCase = new TestCase(testcases.getKey(), change.getMethod());
-               boolean match = NonIncludedTestRemover.isTestIncluded(testCase, config.getExecutionConfig());
-               if (match) {
-                  try {
-                     analyseChange(currentConfig, testCase);
-                  } catch (Exception e) {
-                     System.out.println("Was unable to analyze: " + change.getMethod());
-                     e.printStackTrace();
-                  }
-               } else {
-                  LOG.info("Skipping not included test: {}", testCase);
+         List<TestCase> testcases = getIncludedTestcases(versionChanges);
+         if (parallelism > 1 && testcases.size() > 1) {
+            executeParallel(testcases);
+         } else {
+            MeasurementConfig currentConfig = new MeasurementConfig(config);
+            for (TestCase testCase : testcases) {
+               try {
+                  analyseChange(currentConfig, testCase);
+               } catch (Exception e) {
+                  System.out.println("Was unable to analyze: " + testCase.getMethod());
+                  e.printStackTrace();
                }
             }
          }
@@ -84,40 +93,147 @@ public class RCAExecutor {
 
    }
 
+   private List<TestCase> getIncludedTestcases(final Changes versionChanges) {
+      List<TestCase> testcases = new LinkedList<>();
+      for (Entry<String, List<Change>> testcaseChanges : versionChanges.getTestcaseChanges().entrySet()) {
+         for (Change change : testcaseChanges.getValue()) {
+            final TestCase testCase = new TestCase(testcaseChanges.getKey(), change.getMethod());
+            if (NonIncludedTestRemover.isTestIncluded(testCase, config.getExecutionConfig())) {
+               testcases.add(testCase);
+            } else {
+               LOG.info("Skipping not included test: {}", testCase);
+            }
+         }
+      }
+      return testcases;
+   }
+
+   /**
+    * Analyses the testcases on a bounded pool; every testcase is analysed in its own copy of the project folder, so the searches do not share the temporary
+    * folders, and the rca results are copied back to the project folder afterwards. The copy keeps the name of the project folder in its own parent folder, since
+    * peass derives the project name and the result paths from it.
+    */
+   private void executeParallel(final List<TestCase> testcases) throws InterruptedException {
+      LOG.info("Executing RCA of {} testcases with parallelism {}", testcases.size(), parallelism);
+      ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, testcases.size()));
+      try {
+         List<Future<?>> futures = new LinkedList<>();
+         int index = 0;
+         for (TestCase testCase : testcases) {
+            final File isolatedFolder = new File(projectFolder.getParentFile(), projectFolder.getName() + "_rca" + index++ + File.separator + projectFolder.getName());
+            futures.add(pool.submit(() -> {
+               analyseIsolated(testCase, isolatedFolder);
+               return null;
+            }));
+         }
+         for (Future<?> future : futures) {
+            try {
+               future.get();
+            } catch (ExecutionException e) {
+               LOG.error("Was unable to analyze", e.getCause());
+            }
+         }
+      } finally {
+         pool.shutdown();
+      }
+   }
+
+   private void analyseIsolated(final TestCase testCase, final File isolatedFolder)
+         throws IOException, InterruptedException, XmlPullParserException, AnalysisConfigurationException, ViewNotFoundException, JAXBException {
+      LOG.info("Testing {} in {}", testCase, isolatedFolder);
+      if (!isAnalysed(testCase)) {
+         final File isolationFolder = isolatedFolder.getParentFile();
+         try {
+            FileUtils.deleteDirectory(isolationFolder);
+            FileUtils.copyDirectory(projectFolder, isolatedFolder);
+            executeRCA(new MeasurementConfig(config), testCase, isolatedFolder);
+            mergeRCAResults(isolatedFolder);
+            updateIndex(testCase, RCAIndexEntry.Status.FINISHED);
+         } catch (IOException | InterruptedException | XmlPullParserException | AnalysisConfigurationException | ViewNotFoundException | JAXBException
+               | RuntimeException e) {
+            updateIndex(testCase, RCAIndexEntry.Status.FAILED);
+            throw e;
+         } finally {
+            FileUtils.deleteDirectory(isolationFolder);
+         }
+      }
+   }
+
+   /**
+    * Copies the rca folder (containing the trees, measurements and logs) of the isolated search to the rca folder of the project; since every search writes to the
+    * folders of its testcase, the files do not overlap
+    */
+   private void mergeRCAResults(final File isolatedFolder) throws IOException {
+      File isolatedRCAFolder = RCAIndex.getRCAFolder(new CauseSearchFolders(isolatedFolder));
+      synchronized (this) {
+         FileUtils.copyDirectory(isolatedRCAFolder, rcaFolder);
+      }
+   }
+
    private boolean checkNeedsRCA(final Changes versionChanges) throws IOException, JsonParseException, JsonMappingException {
       boolean needsRCA = false;
-      for (Entry<String, List<Change>> testcases : versionChanges.getTestcaseChanges().entrySet()) {
-         for (Change change : testcases.getValue()) {
-            final TestCase testCase = new TestCase(testcases.getKey(), change.getMethod());
-            boolean match = NonIncludedTestRemover.isTestIncluded(testCase, config.getExecutionConfig());
-            if (match) {
-               final File expectedResultFile = getExpectedRCAFile(testCase);
-               if (!expectedResultFile.exists()) {
-                  needsRCA = true;
-               } else {
-                  CauseSearchData lastData = Constants.OBJECTMAPPER.readValue(expectedResultFile, CauseSearchData.class);
-                  if (lastData.getMeasurementConfig().getExecutionConfig().getVersion().equals(config.getExecutionConfig().getVersion())
-                        && lastData.getMeasurementConfig().getExecutionConfig().getVersionOld().equals(config.getExecutionConfig().getVersionOld())) {
-                     LOG.debug("Found version {} vs {} of testcase {}", config.getExecutionConfig().getVersion(), config.getExecutionConfig().getVersionOld(), testCase);
-                     LOG.debug("RCA-file: {}", expectedResultFile.getAbsolutePath());
-                  } else {
-                     LOG.debug("Did not find version {} vs {} of testcase {}", config.getExecutionConfig().getVersion(), config.getExecutionConfig().getVersionOld(), testCase);
-                     needsRCA = true;
-                  }
-               }
-            }
+      for (TestCase testCase : getIncludedTestcases(versionChanges)) {
+         if (!isAnalysed(testCase)) {
+            needsRCA = true;
          }
       }
       return needsRCA;
    }
 
-   private void analyseChange(final MeasurementConfig currentConfig, final TestCase testCase)
-         throws IOException, InterruptedException, XmlPullParserException, AnalysisConfigurationException, ViewNotFoundException, JAXBException {
+   /**
+    * Checks by the {@link RCAIndex} whether the testcase was analysed for the current version pair and configuration. Results from before the index existed are
+    * parsed once and added to the index.
+    */
+   private synchronized boolean isAnalysed(final TestCase testCase) throws IOException, JsonParseException, JsonMappingException {
       final File expectedResultFile = getExpectedRCAFile(testCase);
-      LOG.info("Testing {}", expectedResultFile);
       if (!expectedResultFile.exists()) {
+         return false;
+      }
+      RCAIndexEntry entry = index.findEntry(rcaFolder, expectedResultFile);
+      if (entry == null) {
+         CauseSearchData lastData = Constants.OBJECTMAPPER.readValue(expectedResultFile, CauseSearchData.class);
+         String lastVersion = lastData.getMeasurementConfig().getExecutionConfig().getVersion();
+         String lastVersionOld = lastData.getMeasurementConfig().getExecutionConfig().getVersionOld();
+         entry = new RCAIndexEntry(lastVersion, lastVersionOld, testCase.toString(), getConfigHash(lastData.getMeasurementConfig()),
+               RCAIndex.getRelativePath(rcaFolder, expectedResultFile), RCAIndexEntry.Status.FINISHED);
+         index.addEntry(entry);
+         index.write(rcaFolder);
+      }
+      boolean analysed = entry.getStatus() == RCAIndexEntry.Status.FINISHED
+            && config.getExecutionConfig().getVersion().equals(entry.getVersion())
+            && config.getExecutionConfig().getVersionOld().equals(entry.getVersionOld())
+            && getConfigHash(config) == entry.getConfigHash();
+      LOG.debug("RCA of {} for version {} vs {} analysed: {}", testCase, config.getExecutionConfig().getVersion(), config.getExecutionConfig().getVersionOld(), analysed);
+      return analysed;
+   }
+
+   private synchronized void updateIndex(final TestCase testCase, final RCAIndexEntry.Status status) throws IOException {
+      final File expectedResultFile = getExpectedRCAFile(testCase);
+      index.addEntry(new RCAIndexEntry(config.getExecutionConfig().getVersion(), config.getExecutionConfig().getVersionOld(), testCase.toString(),
+            getConfigHash(config), RCAIndex.getRelativePath(rcaFolder, expectedResultFile), status));
+      index.write(rcaFolder);
+   }
+
+   /**
+    * Hash of the parts of the measurement configuration which change the result of the analysis
+    */
+   static int getConfigHash(final MeasurementConfig measurementConfig) {
+      return Objects.hash(measurementConfig.getVms(), measurementConfig.getIterations(), measurementConfig.getWarmup(), measurementConfig.getRepetitions());
+   }
+
+   private void analyseChange(final MeasurementConfig currentConfig, final TestCase testCase)
+         throws IOException, InterruptedException, XmlPullParserException, AnalysisConfigurationException, ViewNotFoundException, JAXBException {
+      LOG.info("Testing {}", testCase);
+      if (!isAnalysed(testCase)) {
          LOG.debug("Needs execution");
-         executeRCA(currentConfig, testCase);
+         try {
+            executeRCA(currentConfig, testCase, projectFolder);
+            updateIndex(testCase, RCAIndexEntry.Status.FINISHED);
+         } catch (IOException | InterruptedException | XmlPullParserException | AnalysisConfigurationException | ViewNotFoundException | JAXBException
+               | RuntimeException e) {
+            updateIndex(testCase, RCAIndexEntry.Status.FAILED);
+            throw e;
+         }
       }
    }
 
@@ -128,18 +244,29 @@ public class RCAExecutor {
       return expectedResultFile;
    }
 
-   private void executeRCA(final MeasurementConfig config, final TestCase testCase)
+   /**
+    * Executes the root cause analysis of the testcase in the given project folder, which is the project folder of the executor or an isolated copy
+    */
+   protected void executeRCA(final MeasurementConfig config, final TestCase testCase, final File searchProjectFolder)
          throws IOException, InterruptedException, XmlPullParserException, AnalysisConfigurationException, ViewNotFoundException, JAXBException {
       final CauseSearcherConfig causeSearcherConfig = new CauseSearcherConfig(testCase, causeConfig);
       config.setUseKieker(true);
 
-      final CauseSearchFolders alternateFolders = new CauseSearchFolders(projectFolder);
+      final CauseSearchFolders alternateFolders = new CauseSearchFolders(searchProjectFolder);
       final BothTreeReader reader = new BothTreeReader(causeSearcherConfig, config, alternateFolders, env);
 
       CauseSearcher tester = RootCauseAnalysis.getCauseSeacher(config, causeSearcherConfig, alternateFolders, reader);
       tester.search();
    }
 
+   /**
+    * Sets the count of testcases which are analysed at the same time; with 1 (the default), testcases are analysed one after another, which avoids measurement noise
+    * from parallel searches
+    */
+   public void setParallelism(final int parallelism) {
+      this.parallelism = Math.max(1, parallelism);
+   }
+
    private void saveOldPeassFolder() {
       final File oldPeassFolder = PeassFolders.getPeassFolder(projectFolder);
       if (oldPeassFolder.exists()) {
@@ -0,0 +1,86 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.commons.math3.stat.StatUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.dependency.analysis.data.TestCase;
+
+/**
+ * Calibrates the repetitions of every testcase from the iteration durations of its last measurement, so one iteration of the next measurement takes about the target
+ * duration. Very fast testcases need many repetitions to get iteration durations clearly above the timer resolution, while slow testcases do not need more than
+ * one repetition.
+ *
+ * @author DaGeRe
+ *
+ */
+public class RepetitionCalibrator {
+
+   private static final Logger LOG = LogManager.getLogger(RepetitionCalibrator.class);
+
+   public static final int MAXIMUM_REPETITIONS = 1000000;
+
+   private static final long NANOSECONDS_PER_MILLISECOND = 1000000;
+
+   private final String version;
+   private final double targetIterationDuration;
+
+   /**
+    * Creates a calibrator for the given version, which aims at the given iteration duration in milliseconds
+    */
+   public RepetitionCalibrator(final String version, final int targetIterationDurationMillis) {
+      this.version = version;
+      this.targetIterationDuration = (double) targetIterationDurationMillis * NANOSECONDS_PER_MILLISECOND;
+   }
+
+   /**
+    * Returns the calibrated repetitions of every given testcase which has results in the data folder, with the testcase executable as key
+    */
+   public Map<String, Integer> calibrate(final File dataFolder, final Set<TestCase> tests) {
+      Map<String, Integer> calibrated = new TreeMap<>();
+      File[] xmlFiles = dataFolder.listFiles((dir, name) -> name.endsWith(".xml"));
+      if (xmlFiles == null) {
+         return calibrated;
+      }
+      for (File xmlFile : xmlFiles) {
+         try {
+            ChunkValues chunk = ChunkValuesSidecar.read(xmlFile);
+            TestCase testcase = new TestCase(chunk.getClazz(), chunk.getMethod());
+            if (!tests.contains(testcase)) {
+               continue;
+            }
+            long usedRepetitions = chunk.getMinRepetitions();
+            double[] iterationDurations = chunk.getValues(version, usedRepetitions);
+            if (iterationDurations.length > 0 && usedRepetitions > 0) {
+               int repetitions = getRepetitions(StatUtils.mean(iterationDurations), usedRepetitions);
+               LOG.debug("Calibrated {}: {} repetitions (previously {})", testcase, repetitions, usedRepetitions);
+               calibrated.put(testcase.getExecutable(), repetitions);
+            }
+         } catch (IOException | XMLStreamException e) {
+            LOG.error("Could not read {}", xmlFile);
+            e.printStackTrace();
+         }
+      }
+      return calibrated;
+   }
+
+   /**
+    * Returns the repetitions, which make an iteration take the target duration, given the duration (in nanoseconds) of an iteration with the used repetitions
+    */
+   public int getRepetitions(final double iterationDuration, final long usedRepetitions) {
+      double repetitionDuration = iterationDuration / usedRepetitions;
+      if (repetitionDuration <= 0 || Double.isNaN(repetitionDuration)) {
+         return (int) Math.min(MAXIMUM_REPETITIONS, usedRepetitions);
+      }
+      double repetitions = Math.ceil(targetIterationDuration / repetitionDuration);
+      return (int) Math.max(1, Math.min(MAXIMUM_REPETITIONS, repetitions));
+   }
+}
@@ -0,0 +1,243 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.folders.PeassFolders;
+
+/**
+ * Detects the warmup of every testcase from the iteration series of the detail results by MSER-5: the series is divided into batches of 5 iterations, and the
+ * truncation point which minimizes the standard error of the remaining batch means is the end of the warmup. Since the series only contains the iterations after
+ * the warmup which was applied in the measurement, the recommended warmup of a testcase is the applied warmup plus the median truncation point of all VMs of both
+ * versions. From the steady-state remainder of the series, the iterations which are needed to estimate the mean with a
+ * relative standard error of {@link #TARGET_RELATIVE_ERROR} are recommended, again as median of all VMs of both versions.
+ *
+ * @author DaGeRe
+ *
+ */
+public class SteadyStateDetector {
+
+   private static final Logger LOG = LogManager.getLogger(SteadyStateDetector.class);
+
+   public static final int BATCH_SIZE = 5;
+
+   /**
+    * Relative standard error of the steady-state mean of one VM which the recommended iterations should achieve
+    */
+   public static final double TARGET_RELATIVE_ERROR = 0.01;
+
+   /**
+    * Minimum count of recommended iterations, so the next measurement still contains enough batches for the detection
+    */
+   public static final int MINIMUM_ITERATIONS = 2 * BATCH_SIZE;
+
+   /**
+    * Factor of the minimal MSER statistic up to which a truncation point is considered as good as the minimum
+    */
+   private static final double MINIMUM_TOLERANCE = 2.0;
+
+   private static final XMLInputFactory FACTORY = createFactory();
+
+   private static XMLInputFactory createFactory() {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      return factory;
+   }
+
+   private final MeasurementConfig measurementConfig;
+   private final Map<String, Integer> detectedIterations = new TreeMap<>();
+
+   public SteadyStateDetector(final MeasurementConfig measurementConfig) {
+      this.measurementConfig = measurementConfig;
+   }
+
+   /**
+    * Returns the recommended warmup of every testcase which has detail results, with the testcase executable as key; all testcases are expected to be measured
+    * with the warmup of the measurement configuration
+    */
+   public Map<String, Integer> detect(final File detailResultsFolder, final Set<TestCase> tests) {
+      return detect(detailResultsFolder, tests, Collections.emptyMap());
+   }
+
+   /**
+    * Returns the recommended warmup of every testcase which has detail results, with the testcase executable as key
+    * 
+    * @param appliedWarmups Warmup which was applied in the measurement of the testcases; testcases which are not contained were measured with the warmup of the
+    *           measurement configuration
+    */
+   public Map<String, Integer> detect(final File detailResultsFolder, final Set<TestCase> tests, final Map<String, Integer> appliedWarmups) {
+      Map<String, Integer> warmups = new TreeMap<>();
+      String version = measurementConfig.getExecutionConfig().getVersion();
+      String versionOld = measurementConfig.getExecutionConfig().getVersionOld();
+      for (TestCase test : tests) {
+         List<Integer> truncationPoints = new LinkedList<>();
+         List<Integer> requiredIterations = new LinkedList<>();
+         for (int vmId = 0; vmId < measurementConfig.getVms(); vmId++) {
+            for (String measuredVersion : new String[] { version, versionOld }) {
+               File detailFile = new File(detailResultsFolder, PeassFolders.getRelativeFullResultPath(test, version, measuredVersion, vmId));
+               if (detailFile.exists()) {
+                  try {
+                     double[] series = readSeries(detailFile);
+                     int truncationPoint = getTruncationPoint(series);
+                     truncationPoints.add(truncationPoint);
+                     requiredIterations.add(getRequiredIterations(series, truncationPoint));
+                  } catch (IOException | XMLStreamException e) {
+                     LOG.error("Could not read {}", detailFile);
+                     e.printStackTrace();
+                  }
+               }
+            }
+         }
+         if (!truncationPoints.isEmpty()) {
+            int[] sorted = truncationPoints.stream().mapToInt(Integer::intValue).sorted().toArray();
+            int median = sorted[sorted.length / 2];
+            int appliedWarmup = appliedWarmups.getOrDefault(test.getExecutable(), measurementConfig.getWarmup());
+            LOG.debug("Truncation points of {}: {} Median: {} Applied warmup: {}", test, Arrays.toString(sorted), median, appliedWarmup);
+            warmups.put(test.getExecutable(), appliedWarmup + median);
+
+            int[] sortedIterations = requiredIterations.stream().mapToInt(Integer::intValue).sorted().toArray();
+            detectedIterations.put(test.getExecutable(), sortedIterations[sortedIterations.length / 2]);
+         }
+      }
+      return warmups;
+   }
+
+   /**
+    * Returns the recommended iterations of every testcase which was detected by the last call of {@link #detect(File, Set)}, with the testcase executable as key
+    */
+   public Map<String, Integer> getDetectedIterations() {
+      return detectedIterations;
+   }
+
+   /**
+    * Returns the MSER-5 truncation point of the series in iterations; only the first half of the series is considered as warmup, since the standard error of very
+    * short remainders is not meaningful.
+    */
+   public static int getTruncationPoint(final double[] series) {
+      double[] batchMeans = getBatchMeans(series, 0);
+      int batches = batchMeans.length;
+      if (batches < 2) {
+         return 0;
+      }
+
+      double[] statistics = new double[batches / 2 + 1];
+      double minimum = Double.MAX_VALUE;
+      for (int truncation = 0; truncation < statistics.length; truncation++) {
+         int remaining = batches - truncation;
+         double mean = 0;
+         for (int batch = truncation; batch < batches; batch++) {
+            mean += batchMeans[batch];
+         }
+         mean /= remaining;
+         double squaredDeviations = 0;
+         for (int batch = truncation; batch < batches; batch++) {
+            squaredDeviations += (batchMeans[batch] - mean) * (batchMeans[batch] - mean);
+         }
+         statistics[truncation] = squaredDeviations / ((double) remaining * remaining);
+         minimum = Math.min(minimum, statistics[truncation]);
+      }
+
+      // The statistic of short remainders may randomly be small, so the first truncation point close to the minimum is used
+      int bestTruncation = 0;
+      while (statistics[bestTruncation] > MINIMUM_TOLERANCE * minimum) {
+         bestTruncation++;
+      }
+      return bestTruncation * BATCH_SIZE;
+   }
+
+   /**
+    * Returns the count of iterations which is needed to estimate the mean of the series after the truncation point with the {@link #TARGET_RELATIVE_ERROR}.
+    * The variance is estimated from the batch means, so the autocorrelation of consecutive iterations is taken into account. If the remainder is too short for
+    * an estimation, its length is returned.
+    */
+   public static int getRequiredIterations(final double[] series, final int truncationPoint) {
+      int remainder = series.length - truncationPoint;
+      double[] batchMeans = getBatchMeans(series, truncationPoint);
+      if (batchMeans.length < 2) {
+         return remainder;
+      }
+      double mean = 0;
+      for (double batchMean : batchMeans) {
+         mean += batchMean;
+      }
+      mean /= batchMeans.length;
+      if (mean <= 0) {
+         return remainder;
+      }
+      double variance = 0;
+      for (double batchMean : batchMeans) {
+         variance += (batchMean - mean) * (batchMean - mean);
+      }
+      variance /= batchMeans.length - 1;
+      double requiredBatches = Math.ceil(variance / (mean * mean * TARGET_RELATIVE_ERROR * TARGET_RELATIVE_ERROR));
+      return (int) Math.min(Integer.MAX_VALUE, Math.max(MINIMUM_ITERATIONS, requiredBatches * BATCH_SIZE));
+   }
+
+   private static double[] getBatchMeans(final double[] series, final int start) {
+      int batches = (series.length - start) / BATCH_SIZE;
+      double[] batchMeans = new double[Math.max(0, batches)];
+      for (int batch = 0; batch < batchMeans.length; batch++) {
+         double sum = 0;
+         for (int i = start + batch * BATCH_SIZE; i < start + (batch + 1) * BATCH_SIZE; i++) {
+            sum += series[i];
+         }
+         batchMeans[batch] = sum / BATCH_SIZE;
+      }
+      return batchMeans;
+   }
+
+   /**
+    * Reads the iteration values (fulldata) of the first result of a detail result file
+    */
+   public static double[] readSeries(final File detailFile) throws IOException, XMLStreamException {
+      try (InputStream stream = Files.newInputStream(detailFile.toPath())) {
+         XMLStreamReader reader;
+         synchronized (FACTORY) {
+            reader = FACTORY.createXMLStreamReader(stream);
+         }
+         try {
+            double[] values = new double[64];
+            int count = 0;
+            boolean inFulldata = false;
+            while (reader.hasNext()) {
+               int event = reader.next();
+               if (event == XMLStreamConstants.START_ELEMENT) {
+                  if ("fulldata".equals(reader.getLocalName())) {
+                     inFulldata = true;
+                  } else if (inFulldata && "value".equals(reader.getLocalName())) {
+                     if (count == values.length) {
+                        values = Arrays.copyOf(values, values.length * 2);
+                     }
+                     values[count++] = Double.parseDouble(reader.getElementText().trim());
+                  }
+               } else if (event == XMLStreamConstants.END_ELEMENT && "fulldata".equals(reader.getLocalName())) {
+                  break;
+               }
+            }
+            return Arrays.copyOf(values, count);
+         } finally {
+            reader.close();
+         }
+      }
+   }
+}
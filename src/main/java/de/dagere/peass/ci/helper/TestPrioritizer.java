@@ -0,0 +1,124 @@
+package de.dagere.peass.ci.helper;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+
+import de.dagere.peass.ci.persistence.ChangeHistory;
+import de.dagere.peass.ci.persistence.TestMeasurementValues;
+import de.dagere.peass.dependency.analysis.data.ChangedEntity;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.dependency.analysis.data.TestSet;
+import de.dagere.peass.dependency.persistence.Version;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+
+/**
+ * Orders the tests for measurement, so the tests which most likely show a regression are measured first. The score of a test is the sum of its count of past
+ * changes, the volatility of its recent trend and its proximity to the changed code, each normalized by the maximum of all tests.
+ *
+ * @author DaGeRe
+ *
+ */
+public class TestPrioritizer {
+
+   /**
+    * Count of the most recent builds of the trend which are used for the volatility
+    */
+   public static final int TREND_BUILDS = 10;
+
+   private final ChangeHistory changeHistory;
+   private final Map<TestCase, TestMeasurementValues> trend;
+   private final Map<TestCase, Integer> proximity;
+
+   public TestPrioritizer(final ChangeHistory changeHistory, final Map<TestCase, TestMeasurementValues> trend, final Map<TestCase, Integer> proximity) {
+      this.changeHistory = changeHistory;
+      this.trend = trend;
+      this.proximity = proximity;
+   }
+
+   /**
+    * Returns the tests ordered by descending score; tests with equal score keep their order
+    */
+   public Set<TestCase> prioritize(final Set<TestCase> tests) {
+      Map<TestCase, Double> scores = getScores(tests);
+      List<TestCase> ordered = tests.stream()
+            .sorted(Comparator.comparingDouble((TestCase test) -> scores.get(test)).reversed())
+            .collect(Collectors.toList());
+      return new LinkedHashSet<>(ordered);
+   }
+
+   public Map<TestCase, Double> getScores(final Set<TestCase> tests) {
+      Map<TestCase, Double> changes = new HashMap<>();
+      Map<TestCase, Double> volatilities = new HashMap<>();
+      Map<TestCase, Double> proximities = new HashMap<>();
+      for (TestCase test : tests) {
+         changes.put(test, (double) changeHistory.getChangeCount(test));
+         volatilities.put(test, getVolatility(trend.get(test)));
+         proximities.put(test, (double) proximity.getOrDefault(test, 0));
+      }
+      normalize(changes);
+      normalize(volatilities);
+      normalize(proximities);
+
+      Map<TestCase, Double> scores = new HashMap<>();
+      for (TestCase test : tests) {
+         scores.put(test, changes.get(test) + volatilities.get(test) + proximities.get(test));
+      }
+      return scores;
+   }
+
+   /**
+    * Returns the coefficient of variation of the means of the most recent builds of the trend
+    */
+   public static double getVolatility(final TestMeasurementValues values) {
+      if (values == null) {
+         return 0;
+      }
+      DescriptiveStatistics means = new DescriptiveStatistics();
+      Map<Integer, TestcaseStatistic> builds = new TreeMap<>(values.getStatistics());
+      builds.values().stream()
+            .skip(Math.max(0, builds.size() - TREND_BUILDS))
+            .mapToDouble(TestcaseStatistic::getMeanCurrent)
+            .filter(mean -> mean > 0)
+            .forEach(means::addValue);
+      if (means.getN() < 2) {
+         return 0;
+      }
+      return means.getStandardDeviation() / means.getMean();
+   }
+
+   private static void normalize(final Map<TestCase, Double> values) {
+      double maximum = values.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+      if (maximum > 0) {
+         values.replaceAll((test, value) -> value / maximum);
+      }
+   }
+
+   /**
+    * Returns the proximity of every test to the changed code, i.e. the count of changed entities which select the test statically, increased by one if the test
+    * was also selected by its traces
+    */
+   public static Map<TestCase, Integer> getProximity(final Version version, final TestSet traceSelectedTests) {
+      Map<TestCase, Integer> proximity = new HashMap<>();
+      if (version != null) {
+         for (Map.Entry<ChangedEntity, TestSet> entry : version.getChangedClazzes().entrySet()) {
+            for (TestCase test : entry.getValue().getTests()) {
+               proximity.merge(test, 1, Integer::sum);
+            }
+         }
+      }
+      if (traceSelectedTests != null) {
+         for (TestCase test : traceSelectedTests.getTests()) {
+            proximity.merge(test, 1, Integer::sum);
+         }
+      }
+      return proximity;
+   }
+}
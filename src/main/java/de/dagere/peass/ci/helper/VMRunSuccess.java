@@ -0,0 +1,29 @@
+package de.dagere.peass.ci.helper;
+
+import java.io.Serializable;
+
+/**
+ * Whether one VM run of the current version and of the predecessor produced measurement results.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class VMRunSuccess implements Serializable {
+   private static final long serialVersionUID = 1779633367519286047L;
+
+   private final boolean currentSuccess;
+   private final boolean predecessorSuccess;
+
+   public VMRunSuccess(final boolean currentSuccess, final boolean predecessorSuccess) {
+      this.currentSuccess = currentSuccess;
+      this.predecessorSuccess = predecessorSuccess;
+   }
+
+   public boolean isCurrentSuccess() {
+      return currentSuccess;
+   }
+
+   public boolean isPredecessorSuccess() {
+      return predecessorSuccess;
+   }
+}
@@ -28,9 +28,10 @@ public class CorrectRunChecker {
    boolean predecessorRunning = false;
 
    public CorrectRunChecker(final TestCase testcase, final int vmId, final MeasurementConfig measurementConfig, final VisualizationFolderManager visualizationFolders) {
-      File basicResultFolder = visualizationFolders.getResultsFolders().getVersionFullResultsFolder(measurementConfig);
-      File detailResultsFolder = new File(basicResultFolder, "measurements");
-      
+      this(testcase, vmId, measurementConfig, new File(visualizationFolders.getResultsFolders().getVersionFullResultsFolder(measurementConfig), "measurements"));
+   }
+
+   public CorrectRunChecker(final TestCase testcase, final int vmId, final MeasurementConfig measurementConfig, final File detailResultsFolder) {
       String pathCurrent = PeassFolders.getRelativeFullResultPath(testcase, measurementConfig.getExecutionConfig().getVersion(), measurementConfig.getExecutionConfig().getVersion(), vmId);
       File resultFileCurrent = new File(detailResultsFolder, pathCurrent); 
       currentRunning = checkIsRunning(vmId, resultFileCurrent);
@@ -1,6 +1,12 @@
 package de.dagere.peass.ci.logs;
 
+import java.io.IOException;
+
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
 import de.dagere.peass.ci.VisibleAction;
+import hudson.model.Run;
 
 /**
  * Presents logs of Peass processes, i.e. regression test selection, measurement and root cause analysis
@@ -12,12 +18,29 @@ public class InternalLogAction extends VisibleAction {
    
    private final String displayName;
    private final String title;
-   private final String text;
+   private StoredLogFile logFile;
+
+   /**
+    * Log text of builds created before logs were stored in the run folder; it is moved to the run folder on load and not written again
+    */
+   private String text;
 
-   public InternalLogAction(final String displayName, final String title, final String text) {
+   public InternalLogAction(final String displayName, final String title, final StoredLogFile logFile) {
       this.displayName = displayName;
       this.title = title;
-      this.text = text;
+      this.logFile = logFile;
+   }
+
+   @Override
+   public void onLoad(final Run<?, ?> run) {
+      super.onLoad(run);
+      if (text != null) {
+         StoredLogFile migrated = LegacyLogMigration.migrate(run, displayName, text);
+         if (migrated != null) {
+            logFile = migrated;
+            text = null;
+         }
+      }
    }
 
    @Override
@@ -29,8 +52,26 @@ public class InternalLogAction extends VisibleAction {
       return title;
    }
 
-   public String getText() {
-      return text;
+   public StoredLogFile getLogFile() {
+      return logFile;
+   }
+
+   public String getText() throws IOException {
+      if (logFile == null) {
+         return text != null ? text : title + " not readable";
+      }
+      return logFile.read(getRun());
+   }
+
+   public LogPage getPage(final StaplerRequest request) throws IOException {
+      if (logFile == null) {
+         return text != null ? LegacyLogMigration.getLegacyPage(text, "") : null;
+      }
+      return logFile.getPage(getRun(), request, "");
+   }
+
+   public void doRaw(final StaplerRequest request, final StaplerResponse response) throws IOException {
+      LogFileStreamer.serveRaw(logFile, getRun(), request, response);
    }
 
    @Override
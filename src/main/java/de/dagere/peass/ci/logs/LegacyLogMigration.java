@@ -0,0 +1,71 @@
+package de.dagere.peass.ci.logs;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import hudson.model.Run;
+import jenkins.util.Timer;
+
+/**
+ * Moves log texts of builds which were created before logs were stored in the run folder out of the build.xml. The actions keep the text in a legacy field, which is
+ * only read from old build.xml files; after migration, the field is set to null, so it is not written again. Since every log action of a run is migrated separately,
+ * the run is saved once after all actions have been loaded.
+ *
+ * @author DaGeRe
+ *
+ */
+public class LegacyLogMigration {
+
+   private static final Logger LOG = LogManager.getLogger(LegacyLogMigration.class);
+
+   private static final Set<Run<?, ?>> PENDING_SAVES = ConcurrentHashMap.newKeySet();
+
+   private LegacyLogMigration() {
+
+   }
+
+   /**
+    * Writes the legacy log text to the log folder of the run
+    *
+    * @return Reference to the stored log file, or null if the text could not be written; in this case, the legacy text needs to be kept
+    */
+   public static StoredLogFile migrate(final Run<?, ?> run, final String name, final String text) {
+      try {
+         StoredLogFile logFile = new LogFileStorage(run).storeContent(name, text);
+         scheduleSave(run);
+         return logFile;
+      } catch (IOException e) {
+         LOG.error("Log {} of {} could not be moved to the run folder, keeping it in the build", name, run);
+         e.printStackTrace();
+         return null;
+      }
+   }
+
+   /**
+    * Returns a single page containing the legacy text, for logs which could not be migrated
+    */
+   public static LogPage getLegacyPage(final String text, final String parameterPrefix) {
+      return new LogPage(text, 0, text.length(), text.length(), parameterPrefix);
+   }
+
+   /**
+    * Saves the run asynchronously, so migrations in onLoad do not write the build.xml on the loading thread; several migrations of one run are saved once
+    */
+   public static void scheduleSave(final Run<?, ?> run) {
+      if (PENDING_SAVES.add(run)) {
+         Timer.get().submit(() -> {
+            PENDING_SAVES.remove(run);
+            try {
+               run.save();
+            } catch (IOException e) {
+               LOG.error("Migrated run {} could not be saved", run);
+               e.printStackTrace();
+            }
+         });
+      }
+   }
+}
@@ -1,14 +1,18 @@
 package de.dagere.peass.ci.logs;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import de.dagere.peass.ci.PeassProcessConfiguration;
+import de.dagere.peass.ci.helper.VMRunSuccess;
 import de.dagere.peass.ci.helper.VisualizationFolderManager;
 import de.dagere.peass.ci.logs.measurement.MeasurementActionCreator;
 import de.dagere.peass.ci.logs.rca.RCAActionCreator;
 import de.dagere.peass.ci.logs.rts.RTSActionCreator;
 import de.dagere.peass.ci.process.RTSInfos;
+import de.dagere.peass.ci.rts.RTSDataContext;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import hudson.model.Run;
 
@@ -18,27 +22,36 @@ public class LogActionCreator {
    private final Run<?, ?> run;
    private final LogFileReader reader;
    private final VisualizationFolderManager visualizationFolders;
+   private final LogFileStorage storage;
    
    public LogActionCreator(final PeassProcessConfiguration peassConfig, final Run<?, ?> run, final VisualizationFolderManager visualizationFolders) {
       this.peassConfig = peassConfig;
       this.run = run;
       this.visualizationFolders = visualizationFolders;
       reader = new LogFileReader(visualizationFolders, peassConfig.getMeasurementConfig());
+      storage = new LogFileStorage(run, peassConfig.isArchiveLogs());
    }
    
-   public void createRTSActions(final RTSInfos staticChanges) throws IOException {
-      RTSLogFileReader rtsReader = new RTSLogFileReader(visualizationFolders, peassConfig.getMeasurementConfig());
-      RTSActionCreator rtsActionCreator = new RTSActionCreator(rtsReader, run, peassConfig.getMeasurementConfig());
+   public void createRTSActions(final RTSInfos staticChanges, final RTSDataContext rtsData) throws IOException {
+      RTSLogFileReader rtsReader = new RTSLogFileReader(visualizationFolders, peassConfig.getMeasurementConfig(), rtsData);
+      RTSActionCreator rtsActionCreator = new RTSActionCreator(rtsReader, run, peassConfig.getMeasurementConfig(), storage);
       rtsActionCreator.createRTSActions(staticChanges);
+      storage.finish();
+   }
+
+   public void setRunSuccess(final Map<TestCase, List<VMRunSuccess>> runSuccess) {
+      reader.setRunSuccess(runSuccess);
    }
 
    public void createMeasurementActions(final Set<TestCase> tests) throws IOException {
-      MeasurementActionCreator measurementActionCreator = new MeasurementActionCreator(reader, run, peassConfig.getMeasurementConfig());
+      MeasurementActionCreator measurementActionCreator = new MeasurementActionCreator(reader, run, peassConfig.getMeasurementConfig(), storage);
       measurementActionCreator.createMeasurementActions(tests);
+      storage.finish();
    }
    
    public void createRCAActions() throws IOException {
-      RCAActionCreator rcaActionCreator = new RCAActionCreator(reader, run, peassConfig.getMeasurementConfig());
+      RCAActionCreator rcaActionCreator = new RCAActionCreator(reader, run, peassConfig.getMeasurementConfig(), storage);
       rcaActionCreator.createRCAActions();
+      storage.finish();
    }
 }
@@ -0,0 +1,100 @@
+package de.dagere.peass.ci.logs;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import de.dagere.peass.utils.Constants;
+import hudson.Util;
+
+/**
+ * Packs all logs of a run into one file (peass-logs.pack) instead of thousands of small files. Every log is appended as independent gzip member; the offsets are saved in
+ * peass-logs.index.json, so every log can be read directly.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class LogArchive {
+
+   private static final Logger LOG = LogManager.getLogger(LogArchive.class);
+
+   public static final String PACK_FILE_NAME = "peass-logs.pack";
+   public static final String INDEX_FILE_NAME = "peass-logs.index.json";
+
+   private final File packFile;
+   private final File indexFile;
+   private final Map<String, LogArchiveEntry> index;
+
+   public LogArchive(final File runRootDir) throws IOException {
+      this.packFile = new File(runRootDir, PACK_FILE_NAME);
+      this.indexFile = new File(runRootDir, INDEX_FILE_NAME);
+      index = readIndex(indexFile);
+   }
+
+   public static Map<String, LogArchiveEntry> readIndex(final File indexFile) throws IOException {
+      if (indexFile.exists()) {
+         return Constants.OBJECTMAPPER.readValue(indexFile, new TypeReference<LinkedHashMap<String, LogArchiveEntry>>() {
+         });
+      } else {
+         return new LinkedHashMap<>();
+      }
+   }
+
+   public synchronized StoredLogFile add(final String name, final File source) throws IOException {
+      long offset = packFile.length();
+      try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(packFile, true)))) {
+         Files.copy(source.toPath(), out);
+      }
+      long compressedLength = packFile.length() - offset;
+      LogArchiveEntry entry = new LogArchiveEntry(offset, compressedLength, source.length(), Util.getDigestOf(source));
+      index.put(name, entry);
+      LOG.debug("Added {} to archive, offset: {} compressed: {} size: {}", name, offset, compressedLength, entry.getSize());
+      return new StoredLogFile(PACK_FILE_NAME, entry);
+   }
+
+   /**
+    * Writes the index; it is first written to a temporary file and moved afterwards, so an interrupted write does not destroy the index of the logs added before
+    */
+   public synchronized void writeIndex() throws IOException {
+      File tempFile = new File(indexFile.getParentFile(), INDEX_FILE_NAME + ".tmp");
+      Constants.OBJECTMAPPER.writeValue(tempFile, index);
+      Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+   }
+
+   public synchronized LogArchiveEntry getEntry(final String name) {
+      return index.get(name);
+   }
+
+   /**
+    * Opens the uncompressed content of one entry; only the compressed bytes of the entry are read
+    */
+   public static InputStream openEntry(final File packFile, final long offset, final long compressedLength) throws IOException {
+      FileChannel channel = FileChannel.open(packFile.toPath(), StandardOpenOption.READ);
+      try {
+         channel.position(offset);
+         InputStream compressed = new BoundedInputStream(Channels.newInputStream(channel), compressedLength);
+         return new GZIPInputStream(compressed, LogFileStreamer.BUFFER_SIZE);
+      } catch (IOException e) {
+         channel.close();
+         throw e;
+      }
+   }
+}
@@ -0,0 +1,56 @@
+package de.dagere.peass.ci.logs;
+
+/**
+ * Position of one log in the log archive of a run; the log is stored as an independent gzip member, so it can be read without unpacking the other logs.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class LogArchiveEntry {
+   private long offset;
+   private long compressedLength;
+   private long size;
+   private String hash;
+
+   public LogArchiveEntry() {
+   }
+
+   public LogArchiveEntry(final long offset, final long compressedLength, final long size, final String hash) {
+      this.offset = offset;
+      this.compressedLength = compressedLength;
+      this.size = size;
+      this.hash = hash;
+   }
+
+   public long getOffset() {
+      return offset;
+   }
+
+   public void setOffset(final long offset) {
+      this.offset = offset;
+   }
+
+   public long getCompressedLength() {
+      return compressedLength;
+   }
+
+   public void setCompressedLength(final long compressedLength) {
+      this.compressedLength = compressedLength;
+   }
+
+   public long getSize() {
+      return size;
+   }
+
+   public void setSize(final long size) {
+      this.size = size;
+   }
+
+   public String getHash() {
+      return hash;
+   }
+
+   public void setHash(final String hash) {
+      this.hash = hash;
+   }
+}
@@ -0,0 +1,80 @@
+package de.dagere.peass.ci.logs;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import hudson.model.Run;
+
+/**
+ * Keeps recently displayed log pages in memory. The cache is bounded by the total count of cached characters; if it is full, the least recently used pages are evicted.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class LogContentCache {
+
+   private static final Logger LOG = LogManager.getLogger(LogContentCache.class);
+
+   public static final long DEFAULT_MAX_CHARACTERS = 8 * 1024 * 1024;
+
+   private static final LogContentCache INSTANCE = new LogContentCache(DEFAULT_MAX_CHARACTERS);
+
+   private final LinkedHashMap<String, LogPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+   private final long maxCharacters;
+   private long cachedCharacters = 0;
+
+   public LogContentCache(final long maxCharacters) {
+      this.maxCharacters = maxCharacters;
+   }
+
+   public static LogContentCache getInstance() {
+      return INSTANCE;
+   }
+
+   public LogPage getPage(final StoredLogFile logFile, final Run<?, ?> run, final long start) throws IOException {
+      final String key = logFile.getFile(run).getAbsolutePath() + "@" + logFile.getOffset() + "@" + logFile.getHash() + "@" + start;
+      synchronized (this) {
+         LogPage cached = pages.get(key);
+         if (cached != null) {
+            return cached;
+         }
+      }
+
+      LOG.debug("Reading {} from {}", logFile.getPath(), start);
+      LogPage page = logFile.readPage(run, start);
+      synchronized (this) {
+         put(key, page);
+      }
+      return page;
+   }
+
+   private void put(final String key, final LogPage page) {
+      int length = page.getText().length();
+      if (length > maxCharacters || pages.containsKey(key)) {
+         return;
+      }
+      pages.put(key, page);
+      cachedCharacters += length;
+
+      Iterator<Map.Entry<String, LogPage>> iterator = pages.entrySet().iterator();
+      while (cachedCharacters > maxCharacters && iterator.hasNext()) {
+         Map.Entry<String, LogPage> eldest = iterator.next();
+         cachedCharacters -= eldest.getValue().getText().length();
+         iterator.remove();
+      }
+   }
+
+   public synchronized int size() {
+      return pages.size();
+   }
+
+   public synchronized void clear() {
+      pages.clear();
+      cachedCharacters = 0;
+   }
+}
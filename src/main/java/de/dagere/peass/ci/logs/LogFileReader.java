@@ -17,8 +17,12 @@ import org.apache.logging.log4j.Logger;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 
+import de.dagere.peass.ci.helper.MeasurementSummarizer;
+import de.dagere.peass.ci.helper.VMRunSuccess;
 import de.dagere.peass.ci.helper.VisualizationFolderManager;
 import de.dagere.peass.ci.logs.rca.RCALevel;
+import de.dagere.peass.ci.persistence.RCAIndex;
+import de.dagere.peass.ci.persistence.RCAIndexEntry;
 import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import de.dagere.peass.folders.CauseSearchFolders;
@@ -32,6 +36,7 @@ public class LogFileReader {
 
    private final VisualizationFolderManager visualizationFolders;
    private final MeasurementConfig measurementConfig;
+   private Map<TestCase, List<VMRunSuccess>> runSuccess;
 
    public LogFileReader(final VisualizationFolderManager visualizationFolders, final MeasurementConfig measurementConfig) {
       this.visualizationFolders = visualizationFolders;
@@ -39,6 +44,13 @@ public class LogFileReader {
 
    }
 
+   /**
+    * Sets the success of the VM runs, which was determined on the agent; if it is not set, the success is determined from the result files
+    */
+   public void setRunSuccess(final Map<TestCase, List<VMRunSuccess>> runSuccess) {
+      this.runSuccess = runSuccess;
+   }
+
    public Map<TestCase, List<LogFiles>> readAllTestcases(final Set<TestCase> tests) {
       Map<TestCase, List<LogFiles>> logFiles = new HashMap<>();
       for (TestCase testcase : tests) {
@@ -68,10 +80,14 @@ public class LogFileReader {
          File predecessorFile = new File(logFolder, "vm_" + tryIndex + "_" + measurementConfig.getExecutionConfig().getVersionOld() + File.separator + filenameSuffix);
          LOG.debug("Trying whether {} exists", predecessorFile, predecessorFile.exists());
          while (predecessorFile.exists()) {
-            CorrectRunChecker checker = new CorrectRunChecker(testcase, tryIndex, measurementConfig, visualizationFolders);
+            VMRunSuccess success = MeasurementSummarizer.getRunSuccess(runSuccess, testcase, tryIndex);
+            if (success == null) {
+               CorrectRunChecker checker = new CorrectRunChecker(testcase, tryIndex, measurementConfig, visualizationFolders);
+               success = new VMRunSuccess(checker.isCurrentRunning(), checker.isPredecessorRunning());
+            }
 
             File currentFile = new File(logFolder, "vm_" + tryIndex + "_" + measurementConfig.getExecutionConfig().getVersion() + File.separator + filenameSuffix);
-            LogFiles vmidLogFile = new LogFiles(predecessorFile, currentFile, checker.isPredecessorRunning(), checker.isCurrentRunning());
+            LogFiles vmidLogFile = new LogFiles(predecessorFile, currentFile, success.isPredecessorSuccess(), success.isCurrentSuccess());
             currentFiles.add(vmidLogFile);
 
             tryIndex++;
@@ -84,8 +100,16 @@ public class LogFileReader {
 
    }
 
+   public File getMeasureLogFile() {
+      return visualizationFolders.getResultsFolders().getMeasurementLogFile(measurementConfig.getExecutionConfig().getVersion(), measurementConfig.getExecutionConfig().getVersionOld());
+   }
+
+   public File getRCALogFile() {
+      return visualizationFolders.getResultsFolders().getRCALogFile(measurementConfig.getExecutionConfig().getVersion(), measurementConfig.getExecutionConfig().getVersionOld());
+   }
+
    public String getMeasureLog() {
-      File measureLogFile = visualizationFolders.getResultsFolders().getMeasurementLogFile(measurementConfig.getExecutionConfig().getVersion(), measurementConfig.getExecutionConfig().getVersionOld());
+      File measureLogFile = getMeasureLogFile();
       try {
          if (measureLogFile.exists()) {
             LOG.debug("Reading {}", measureLogFile.getAbsolutePath());
@@ -101,7 +125,7 @@ public class LogFileReader {
    }
 
    public String getRCALog() {
-      File rcaLogFile = visualizationFolders.getResultsFolders().getRCALogFile(measurementConfig.getExecutionConfig().getVersion(), measurementConfig.getExecutionConfig().getVersionOld());
+      File rcaLogFile = getRCALogFile();
       try {
          LOG.debug("Reading {}", rcaLogFile.getAbsolutePath());
          String rcaLog = FileUtils.readFileToString(rcaLogFile, StandardCharsets.UTF_8);
@@ -112,10 +136,12 @@ public class LogFileReader {
       }
    }
 
-   public Map<TestCase, List<RCALevel>> getRCATestcases() {
+   public Map<TestCase, List<RCALevel>> getRCATestcases() throws IOException {
       CauseSearchFolders causeFolders = visualizationFolders.getPeassRCAFolders();
       File versionTreeFolder = new File(causeFolders.getRcaTreeFolder(), measurementConfig.getExecutionConfig().getVersion());
       Map<TestCase, List<RCALevel>> testcases = new HashMap<>();
+      File rcaFolder = RCAIndex.getRCAFolder(causeFolders);
+      RCAIndex index = RCAIndex.read(rcaFolder);
       File[] versionFiles = versionTreeFolder.listFiles();
       if (versionFiles != null) {
          for (File testcaseName : versionFiles) {
@@ -124,7 +150,7 @@ public class LogFileReader {
                for (File jsonFileName : testcaseFiles) {
                   try {
                      LOG.debug("Loading: {}", jsonFileName.getAbsolutePath());
-                     readRCATestcase(causeFolders, testcases, jsonFileName);
+                     readRCATestcase(causeFolders, testcases, getTestcase(rcaFolder, index, jsonFileName));
                   } catch (IOException e) {
                      e.printStackTrace();
                   }
@@ -135,10 +161,20 @@ public class LogFileReader {
       return testcases;
    }
 
-   private void readRCATestcase(final CauseSearchFolders causeFolders, final Map<TestCase, List<RCALevel>> testcases, final File jsonFileName)
-         throws IOException, JsonParseException, JsonMappingException {
-      CauseSearchData data = Constants.OBJECTMAPPER.readValue(jsonFileName, CauseSearchData.class);
-      TestCase test = new TestCase(data.getTestcase());
+   /**
+    * Returns the testcase of the result file from the {@link RCAIndex}; only if the file is not indexed, the complete file is parsed
+    */
+   private TestCase getTestcase(final File rcaFolder, final RCAIndex index, final File jsonFileName) throws IOException, JsonParseException, JsonMappingException {
+      RCAIndexEntry entry = index.findEntry(rcaFolder, jsonFileName);
+      if (entry != null && entry.getTestcase() != null) {
+         return new TestCase(entry.getTestcase());
+      } else {
+         CauseSearchData data = Constants.OBJECTMAPPER.readValue(jsonFileName, CauseSearchData.class);
+         return new TestCase(data.getTestcase());
+      }
+   }
+
+   private void readRCATestcase(final CauseSearchFolders causeFolders, final Map<TestCase, List<RCALevel>> testcases, final TestCase test) {
 
       boolean lastHadLogs = true;
       int levelId = 0;
@@ -0,0 +1,85 @@
+package de.dagere.peass.ci.logs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import hudson.Util;
+import hudson.model.Run;
+
+/**
+ * Copies logs into the folder of the run, so they stay available after the peass-data folder of the job has been overwritten by the next build, and creates the
+ * {@link StoredLogFile} references which are saved by the actions. If archiving is enabled, all logs are packed into one {@link LogArchive} instead of single files.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class LogFileStorage {
+
+   private static final Logger LOG = LogManager.getLogger(LogFileStorage.class);
+
+   public static final String LOG_FOLDER_NAME = "peass-logs";
+
+   private final Run<?, ?> run;
+   private final boolean archive;
+   private LogArchive logArchive;
+
+   public LogFileStorage(final Run<?, ?> run) {
+      this(run, false);
+   }
+
+   public LogFileStorage(final Run<?, ?> run, final boolean archive) {
+      this.run = run;
+      this.archive = archive;
+   }
+
+   /**
+    * Stores the given log file under the given name
+    * 
+    * @return Reference to the stored log file, or null if the source file does not exist
+    */
+   public StoredLogFile store(final String name, final File source) throws IOException {
+      if (source == null || !source.exists()) {
+         LOG.debug("Log file {} does not exist, not storing {}", source, name);
+         return null;
+      }
+      if (archive) {
+         return getArchive().add(name, source);
+      } else {
+         final String path = LOG_FOLDER_NAME + "/" + name + ".txt";
+         final File destination = new File(run.getRootDir(), path);
+         FileUtils.copyFile(source, destination);
+         return new StoredLogFile(path, destination.length(), Util.getDigestOf(destination));
+      }
+   }
+
+   /**
+    * Stores the given log text as single file under the given name; this is used for logs which are not available as file anymore
+    */
+   public StoredLogFile storeContent(final String name, final String content) throws IOException {
+      final String path = LOG_FOLDER_NAME + "/" + name + ".txt";
+      final File destination = new File(run.getRootDir(), path);
+      FileUtils.write(destination, content, StandardCharsets.UTF_8);
+      return new StoredLogFile(path, destination.length(), Util.getDigestOf(destination));
+   }
+
+   private synchronized LogArchive getArchive() throws IOException {
+      if (logArchive == null) {
+         logArchive = new LogArchive(run.getRootDir());
+      }
+      return logArchive;
+   }
+
+   /**
+    * Writes the archive index; needs to be called after all logs of one process have been stored
+    */
+   public synchronized void finish() throws IOException {
+      if (logArchive != null) {
+         logArchive.writeIndex();
+      }
+   }
+}
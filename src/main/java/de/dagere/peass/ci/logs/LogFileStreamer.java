@@ -0,0 +1,221 @@
+package de.dagere.peass.ci.logs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.IOUtils;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import hudson.model.Run;
+
+/**
+ * Reads log files in chunks, so the memory used per request does not depend on the size of the log. Supports pages for the html view and byte ranges (HTTP Range header)
+ * for the raw download.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class LogFileStreamer {
+
+   public static final int PAGE_SIZE = 256 * 1024;
+   public static final int BUFFER_SIZE = 64 * 1024;
+
+   private LogFileStreamer() {
+
+   }
+
+   /**
+    * Reads the page starting at the given byte offset; the last bytes of the page may contain a partial multi-byte character, which is replaced
+    */
+   public static LogPage readPage(final File file, final long requestedStart) throws IOException {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+         long total = channel.size();
+         long start = Math.max(0, Math.min(requestedStart, total));
+         int length = (int) Math.min(PAGE_SIZE, total - start);
+         ByteBuffer buffer = ByteBuffer.allocate(length);
+         while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, start + buffer.position());
+            if (read < 0) {
+               break;
+            }
+         }
+         buffer.flip();
+         String text = decode(buffer);
+         return new LogPage(text, start, start + buffer.limit(), total, "");
+      }
+   }
+
+   private static String decode(final ByteBuffer buffer) throws IOException {
+      CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      return decoder.decode(buffer).toString();
+   }
+
+   /**
+    * Returns the start offset requested by the parameters <prefix>start or <prefix>tail; without parameters, the first page is requested
+    */
+   public static long getRequestedStart(final StaplerRequest request, final String parameterPrefix, final long total) {
+      if (request == null) {
+         return 0;
+      }
+      if (request.getParameter(parameterPrefix + "tail") != null) {
+         return getTailStart(total);
+      }
+      String start = request.getParameter(parameterPrefix + "start");
+      if (start != null) {
+         try {
+            return Math.max(0, Long.parseLong(start));
+         } catch (NumberFormatException e) {
+            return 0;
+         }
+      }
+      return 0;
+   }
+
+   public static long getTailStart(final long total) {
+      return Math.max(0, total - PAGE_SIZE);
+   }
+
+   /**
+    * Reads the page starting at the given byte offset from a stream, e.g. an archived log; the bytes before the page are skipped
+    */
+   public static LogPage readPage(final InputStream stream, final long total, final long requestedStart) throws IOException {
+      long start = Math.max(0, Math.min(requestedStart, total));
+      IOUtils.skipFully(stream, start);
+      byte[] buffer = new byte[(int) Math.min(PAGE_SIZE, total - start)];
+      int read = IOUtils.read(stream, buffer);
+      String text = decode(ByteBuffer.wrap(buffer, 0, read));
+      return new LogPage(text, start, start + read, total, "");
+   }
+
+   /**
+    * Sends the stored log or 404 if no log has been stored
+    */
+   public static void serveRaw(final StoredLogFile logFile, final Run<?, ?> run, final StaplerRequest request, final StaplerResponse response) throws IOException {
+      if (logFile == null) {
+         response.sendError(HttpServletResponse.SC_NOT_FOUND, "Log file could not be found");
+      } else {
+         logFile.serveRaw(run, request, response);
+      }
+   }
+
+   /**
+    * Sends the file as text/plain; if the request contains a single byte range, only this range is sent.
+    */
+   public static void serveRaw(final File file, final StaplerRequest request, final StaplerResponse response) throws IOException {
+      if (file == null || !file.exists()) {
+         response.sendError(HttpServletResponse.SC_NOT_FOUND, "Log file could not be found");
+         return;
+      }
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+         long[] range = prepareResponse(channel.size(), request, response);
+         if (range != null) {
+            copy(channel, range[0], range[1] - range[0] + 1, response.getOutputStream());
+         }
+      }
+   }
+
+   /**
+    * Sends the content of the stream as text/plain; for a byte range, the bytes before the range are skipped.
+    */
+   public static void serveRaw(final InputStream stream, final long total, final StaplerRequest request, final StaplerResponse response) throws IOException {
+      long[] range = prepareResponse(total, request, response);
+      if (range != null) {
+         OutputStream out = response.getOutputStream();
+         IOUtils.copyLarge(stream, out, range[0], range[1] - range[0] + 1, new byte[BUFFER_SIZE]);
+         out.flush();
+      }
+   }
+
+   /**
+    * Sets the headers for sending the given count of bytes and returns the first and last byte which should be sent, or null if the range was not satisfiable
+    */
+   private static long[] prepareResponse(final long total, final StaplerRequest request, final StaplerResponse response) throws IOException {
+      long start = 0;
+      long end = total - 1;
+
+      response.setHeader("Accept-Ranges", "bytes");
+      response.setContentType("text/plain;charset=UTF-8");
+
+      String range = request.getHeader("Range");
+      if (range != null && range.startsWith("bytes=") && !range.contains(",")) {
+         long[] parsed = parseRange(range.substring("bytes=".length()).trim(), total);
+         if (parsed == null) {
+            response.setHeader("Content-Range", "bytes */" + total);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return null;
+         }
+         start = parsed[0];
+         end = parsed[1];
+         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+         response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + total);
+      }
+
+      response.setHeader("Content-Length", Long.toString(Math.max(end - start + 1, 0)));
+      return new long[] { start, end };
+   }
+
+   /**
+    * Parses a range in the formats a-b, a- and -n (suffix); returns null if the range is not satisfiable
+    */
+   public static long[] parseRange(final String range, final long total) {
+      int separator = range.indexOf('-');
+      if (separator < 0 || total == 0) {
+         return null;
+      }
+      try {
+         String first = range.substring(0, separator).trim();
+         String last = range.substring(separator + 1).trim();
+         long start, end;
+         if (first.isEmpty()) {
+            long suffixLength = Long.parseLong(last);
+            if (suffixLength <= 0) {
+               return null;
+            }
+            start = Math.max(0, total - suffixLength);
+            end = total - 1;
+         } else {
+            start = Long.parseLong(first);
+            end = last.isEmpty() ? total - 1 : Math.min(Long.parseLong(last), total - 1);
+         }
+         if (start >= total || start > end) {
+            return null;
+         }
+         return new long[] { start, end };
+      } catch (NumberFormatException e) {
+         return null;
+      }
+   }
+
+   private static void copy(final FileChannel channel, final long start, final long length, final OutputStream out) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      long position = start;
+      long remaining = length;
+      while (remaining > 0) {
+         buffer.clear();
+         if (remaining < BUFFER_SIZE) {
+            buffer.limit((int) remaining);
+         }
+         int read = channel.read(buffer, position);
+         if (read < 0) {
+            break;
+         }
+         out.write(buffer.array(), 0, read);
+         position += read;
+         remaining -= read;
+      }
+      out.flush();
+   }
+}
@@ -6,10 +6,14 @@ import java.util.Date;
 public class LogFiles {
 
    /**
-    * Attention! This class is used by the frontend, but file data are not accessible after a restart of Jenkins
+    * Attention! This class is used by the frontend, but file data are not accessible after a restart of Jenkins; afterwards, the content is accessible through the stored
+    * logs
     */
-   private final File predecessor;
-   private final File current;
+   private final transient File predecessor;
+   private final transient File current;
+
+   private StoredLogFile predecessorLog;
+   private StoredLogFile currentLog;
 
    private final Date endDatePredecessor;
    private final Date endDateCurrent;
@@ -44,6 +48,22 @@ public class LogFiles {
       return (Date) endDatePredecessor.clone();
    }
 
+   public StoredLogFile getPredecessorLog() {
+      return predecessorLog;
+   }
+
+   public void setPredecessorLog(final StoredLogFile predecessorLog) {
+      this.predecessorLog = predecessorLog;
+   }
+
+   public StoredLogFile getCurrentLog() {
+      return currentLog;
+   }
+
+   public void setCurrentLog(final StoredLogFile currentLog) {
+      this.currentLog = currentLog;
+   }
+
    public boolean isPredecessorSuccess() {
       return predecessorSuccess;
    }
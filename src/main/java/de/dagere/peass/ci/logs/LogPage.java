@@ -0,0 +1,67 @@
+package de.dagere.peass.ci.logs;
+
+/**
+ * One page of a log file, i.e. the text between the byte offsets start (inclusive) and end (exclusive) of a log file with the given total size.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class LogPage {
+
+   private final String text;
+   private final long start;
+   private final long end;
+   private final long total;
+   private final String parameterPrefix;
+
+   public LogPage(final String text, final long start, final long end, final long total, final String parameterPrefix) {
+      this.text = text;
+      this.start = start;
+      this.end = end;
+      this.total = total;
+      this.parameterPrefix = parameterPrefix;
+   }
+
+   public String getText() {
+      return text;
+   }
+
+   public long getStart() {
+      return start;
+   }
+
+   public long getEnd() {
+      return end;
+   }
+
+   public long getTotal() {
+      return total;
+   }
+
+   /**
+    * Prefix of the request parameters (start and tail), which is required if one page displays more than one log
+    */
+   public String getParameterPrefix() {
+      return parameterPrefix;
+   }
+
+   public boolean isFirst() {
+      return start == 0;
+   }
+
+   public boolean isLast() {
+      return end >= total;
+   }
+
+   public long getPreviousStart() {
+      return Math.max(0, start - LogFileStreamer.PAGE_SIZE);
+   }
+
+   public long getNextStart() {
+      return end;
+   }
+
+   LogPage withParameterPrefix(final String prefix) {
+      return new LogPage(text, start, end, total, prefix);
+   }
+}
@@ -13,11 +13,10 @@ import org.apache.logging.log4j.Logger;
 
 import de.dagere.peass.ci.helper.VisualizationFolderManager;
 import de.dagere.peass.ci.logs.rts.RTSLogData;
+import de.dagere.peass.ci.rts.RTSDataContext;
 import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.dependency.analysis.data.TestCase;
-import de.dagere.peass.dependency.persistence.Dependencies;
 import de.dagere.peass.dependency.persistence.Version;
-import de.dagere.peass.utils.Constants;
 import io.jenkins.cli.shaded.org.apache.commons.io.filefilter.WildcardFileFilter;
 
 public class RTSLogFileReader {
@@ -29,6 +28,11 @@ public class RTSLogFileReader {
    private final boolean versionRunWasSuccess;
 
    public RTSLogFileReader(final VisualizationFolderManager visualizationFolders, final MeasurementConfig measurementConfig) {
+      this(visualizationFolders, measurementConfig,
+            new RTSDataContext(visualizationFolders.getResultsFolders(), measurementConfig.getExecutionConfig().getVersion()));
+   }
+
+   public RTSLogFileReader(final VisualizationFolderManager visualizationFolders, final MeasurementConfig measurementConfig, final RTSDataContext rtsData) {
       this.visualizationFolders = visualizationFolders;
       this.measurementConfig = measurementConfig;
 
@@ -36,16 +40,14 @@ public class RTSLogFileReader {
       LOG.info("RTS log overview file: {} Exists: {}", rtsLogOverviewFile, rtsLogOverviewFile.exists());
       logsExisting = rtsLogOverviewFile.exists();
 
-      versionRunWasSuccess = isVersionRunSuccess(visualizationFolders, measurementConfig);
+      versionRunWasSuccess = isVersionRunSuccess(rtsData);
    }
 
-   private boolean isVersionRunSuccess(final VisualizationFolderManager visualizationFolders, final MeasurementConfig measurementConfig) {
+   private boolean isVersionRunSuccess(final RTSDataContext rtsData) {
       boolean success;
-      File dependencyFile = visualizationFolders.getResultsFolders().getDependencyFile();
-      if (dependencyFile.exists()) {
+      if (rtsData.hasDependencyFile()) {
          try {
-            Dependencies dependencies = Constants.OBJECTMAPPER.readValue(dependencyFile, Dependencies.class);
-            Version version = dependencies.getVersions().get(measurementConfig.getExecutionConfig().getVersion());
+            Version version = rtsData.getVersionDependencies();
             if (version != null) {
                LOG.debug("Version run success: {}", version.isRunning());
                success = version.isRunning();
@@ -58,7 +60,7 @@ public class RTSLogFileReader {
          }
 
       } else {
-         LOG.debug("Dependencyfile {} not found, so run was n o success", dependencyFile);
+         LOG.debug("Dependencyfile {} not found, so run was n o success", visualizationFolders.getResultsFolders().getDependencyFile());
          success = false;
       }
       return success;
@@ -105,8 +107,12 @@ public class RTSLogFileReader {
       LOG.debug("Adding log: {}", test);
    }
 
+   public File getRTSLogFile() {
+      return visualizationFolders.getResultsFolders().getDependencyLogFile(measurementConfig.getExecutionConfig().getVersion(), measurementConfig.getExecutionConfig().getVersionOld());
+   }
+
    public String getRTSLog() {
-      File rtsLogFile = visualizationFolders.getResultsFolders().getDependencyLogFile(measurementConfig.getExecutionConfig().getVersion(), measurementConfig.getExecutionConfig().getVersionOld());
+      File rtsLogFile = getRTSLogFile();
       try {
          LOG.debug("Reading {}", rtsLogFile.getAbsolutePath());
          String rtsLog = FileUtils.readFileToString(rtsLogFile, StandardCharsets.UTF_8);
@@ -0,0 +1,118 @@
+package de.dagere.peass.ci.logs;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import hudson.model.Run;
+
+/**
+ * Reference to a log file which has been stored in the folder of a run. Only the path (relative to the run root dir), the size and the hash are persisted in the build.xml;
+ * the content itself is read from disk when it is displayed. If the log is part of a {@link LogArchive}, the path references the archive and offset and compressed length
+ * reference the entry.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class StoredLogFile {
+
+   private final String path;
+   private final long size;
+   private final String hash;
+   private final long offset;
+   private final long compressedLength;
+
+   public StoredLogFile(final String path, final long size, final String hash) {
+      this.path = path;
+      this.size = size;
+      this.hash = hash;
+      this.offset = 0;
+      this.compressedLength = -1;
+   }
+
+   public StoredLogFile(final String archivePath, final LogArchiveEntry entry) {
+      this.path = archivePath;
+      this.size = entry.getSize();
+      this.hash = entry.getHash();
+      this.offset = entry.getOffset();
+      this.compressedLength = entry.getCompressedLength();
+   }
+
+   public String getPath() {
+      return path;
+   }
+
+   public long getSize() {
+      return size;
+   }
+
+   public String getHash() {
+      return hash;
+   }
+
+   public long getOffset() {
+      return offset;
+   }
+
+   public long getCompressedLength() {
+      return compressedLength;
+   }
+
+   public boolean isArchived() {
+      return compressedLength >= 0;
+   }
+
+   public File getFile(final Run<?, ?> run) {
+      return new File(run.getRootDir(), path);
+   }
+
+   public InputStream openStream(final Run<?, ?> run) throws IOException {
+      if (isArchived()) {
+         return LogArchive.openEntry(getFile(run), offset, compressedLength);
+      } else {
+         return new FileInputStream(getFile(run));
+      }
+   }
+
+   /**
+    * Reads the complete log; for displaying, {@link #getPage(Run, StaplerRequest, String)} should be used, since logs may be very big.
+    */
+   public String read(final Run<?, ?> run) throws IOException {
+      try (InputStream stream = openStream(run)) {
+         return IOUtils.toString(stream, StandardCharsets.UTF_8);
+      }
+   }
+
+   LogPage readPage(final Run<?, ?> run, final long start) throws IOException {
+      if (isArchived()) {
+         try (InputStream stream = openStream(run)) {
+            return LogFileStreamer.readPage(stream, size, start);
+         }
+      } else {
+         return LogFileStreamer.readPage(getFile(run), start);
+      }
+   }
+
+   public LogPage getPage(final Run<?, ?> run, final StaplerRequest request, final String parameterPrefix) throws IOException {
+      long total = isArchived() ? size : getFile(run).length();
+      long start = LogFileStreamer.getRequestedStart(request, parameterPrefix, total);
+      LogPage page = LogContentCache.getInstance().getPage(this, run, start);
+      return page.withParameterPrefix(parameterPrefix);
+   }
+
+   public void serveRaw(final Run<?, ?> run, final StaplerRequest request, final StaplerResponse response) throws IOException {
+      if (isArchived()) {
+         try (InputStream stream = openStream(run)) {
+            LogFileStreamer.serveRaw(stream, size, request, response);
+         }
+      } else {
+         LogFileStreamer.serveRaw(getFile(run), request, response);
+      }
+   }
+}
@@ -2,8 +2,16 @@ package de.dagere.peass.ci.logs.measurement;
 
 import java.io.IOException;
 
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
 import de.dagere.peass.ci.VisibleAction;
+import de.dagere.peass.ci.logs.LegacyLogMigration;
+import de.dagere.peass.ci.logs.LogFileStreamer;
+import de.dagere.peass.ci.logs.LogPage;
+import de.dagere.peass.ci.logs.StoredLogFile;
 import de.dagere.peass.dependency.analysis.data.TestCase;
+import hudson.model.Run;
 
 public class LogAction extends VisibleAction {
    
@@ -11,18 +19,39 @@ public class LogAction extends VisibleAction {
    private final TestCase test;
    private final int vmId;
    private final String version;
-   private final String logData;
+   private StoredLogFile logFile;
+
+   /**
+    * Log text of builds created before logs were stored in the run folder; it is moved to the run folder on load and not written again
+    */
+   private String logData;
 
-   public LogAction(final TestCase test, final int vmId, final String version, final String logData) {
-      this("measurelog_" + test.toString().replace("#", "_") + "_" + vmId + "_" + version.substring(0, 6), test, vmId, version, logData);
+   public LogAction(final TestCase test, final int vmId, final String version, final StoredLogFile logFile) {
+      this(getLogName(test, vmId, version), test, vmId, version, logFile);
    }
 
-   protected LogAction(final String displayName, final TestCase test, final int vmId, final String version, final String logData) {
+   protected LogAction(final String displayName, final TestCase test, final int vmId, final String version, final StoredLogFile logFile) {
       this.displayName = displayName;
       this.test = test;
       this.vmId = vmId;
       this.version = version;
-      this.logData = logData;
+      this.logFile = logFile;
+   }
+
+   @Override
+   public void onLoad(final Run<?, ?> run) {
+      super.onLoad(run);
+      if (logData != null) {
+         StoredLogFile migrated = LegacyLogMigration.migrate(run, displayName, logData);
+         if (migrated != null) {
+            logFile = migrated;
+            logData = null;
+         }
+      }
+   }
+
+   public static String getLogName(final TestCase test, final int vmId, final String version) {
+      return "measurelog_" + test.toString().replace("#", "_") + "_" + vmId + "_" + version.substring(0, 6);
    }
 
    @Override
@@ -42,12 +71,32 @@ public class LogAction extends VisibleAction {
       return version;
    }
 
-   public String getLogData() {
-      return logData;
+   public StoredLogFile getLogFile() {
+      return logFile;
    }
 
+   /**
+    * Reads the log lazily from the run folder, so the log content is not held in memory as long as the run is loaded.
+    */
    public String getLog() throws IOException {
-      return logData;
+      if (logFile == null) {
+         return logData != null ? logData : "Log file could not be found";
+      }
+      return logFile.read(getRun());
+   }
+
+   /**
+    * Returns the page of the log requested by the start or tail parameter; null if there is no log
+    */
+   public LogPage getPage(final StaplerRequest request) throws IOException {
+      if (logFile == null) {
+         return logData != null ? LegacyLogMigration.getLegacyPage(logData, "") : null;
+      }
+      return logFile.getPage(getRun(), request, "");
+   }
+
+   public void doRaw(final StaplerRequest request, final StaplerResponse response) throws IOException {
+      LogFileStreamer.serveRaw(logFile, getRun(), request, response);
    }
 
    @Override
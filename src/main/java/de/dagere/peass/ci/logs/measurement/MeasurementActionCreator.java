@@ -1,18 +1,18 @@
 package de.dagere.peass.ci.logs.measurement;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import de.dagere.peass.ci.logs.InternalLogAction;
 import de.dagere.peass.ci.logs.LogFileReader;
+import de.dagere.peass.ci.logs.LogFileStorage;
 import de.dagere.peass.ci.logs.LogFiles;
+import de.dagere.peass.ci.logs.StoredLogFile;
 import de.dagere.peass.config.ExecutionConfig;
 import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.dependency.analysis.data.TestCase;
@@ -25,11 +25,13 @@ public class MeasurementActionCreator {
    private final LogFileReader reader;
    private final Run<?, ?> run;
    private final MeasurementConfig measurementConfig;
+   private final LogFileStorage storage;
 
-   public MeasurementActionCreator(final LogFileReader reader, final Run<?, ?> run, final MeasurementConfig measurementConfig) {
+   public MeasurementActionCreator(final LogFileReader reader, final Run<?, ?> run, final MeasurementConfig measurementConfig, final LogFileStorage storage) {
       this.reader = reader;
       this.run = run;
       this.measurementConfig = measurementConfig;
+      this.storage = storage;
    }
 
    public void createMeasurementActions(final Set<TestCase> tests ) throws IOException {
@@ -43,10 +45,10 @@ public class MeasurementActionCreator {
       run.addAction(logOverviewAction);
    }
 
-   private void createOverallLogAction() {
+   private void createOverallLogAction() throws IOException {
       if (measurementConfig.getExecutionConfig().isRedirectSubprocessOutputToFile()) {
-         String measureLog = reader.getMeasureLog();
-         run.addAction(new InternalLogAction("measurementLog", "Measurement Log", measureLog));
+         StoredLogFile logFile = storage.store("measurementLog", reader.getMeasureLogFile());
+         run.addAction(new InternalLogAction("measurementLog", "Measurement Log", logFile));
       }
    }
 
@@ -56,10 +58,14 @@ public class MeasurementActionCreator {
          TestCase testcase = entry.getKey();
          int vmId = 0;
          for (LogFiles files : entry.getValue()) {
-            String logData = FileUtils.readFileToString(files.getCurrent(), StandardCharsets.UTF_8);
-            run.addAction(new LogAction(testcase, vmId, measurementConfig.getExecutionConfig().getVersion(), logData));
-            String logDataOld = FileUtils.readFileToString(files.getPredecessor(), StandardCharsets.UTF_8);
-            run.addAction(new LogAction(testcase, vmId, measurementConfig.getExecutionConfig().getVersionOld(), logDataOld));
+            String version = measurementConfig.getExecutionConfig().getVersion();
+            StoredLogFile logFile = storage.store(LogAction.getLogName(testcase, vmId, version), files.getCurrent());
+            files.setCurrentLog(logFile);
+            run.addAction(new LogAction(testcase, vmId, version, logFile));
+            String versionOld = measurementConfig.getExecutionConfig().getVersionOld();
+            StoredLogFile logFileOld = storage.store(LogAction.getLogName(testcase, vmId, versionOld), files.getPredecessor());
+            files.setPredecessorLog(logFileOld);
+            run.addAction(new LogAction(testcase, vmId, versionOld, logFileOld));
             vmId++;
          }
       }
@@ -2,15 +2,14 @@ package de.dagere.peass.ci.logs.rca;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.io.FileUtils;
-
 import de.dagere.peass.ci.logs.InternalLogAction;
 import de.dagere.peass.ci.logs.LogFileReader;
+import de.dagere.peass.ci.logs.LogFileStorage;
 import de.dagere.peass.ci.logs.LogFiles;
+import de.dagere.peass.ci.logs.StoredLogFile;
 import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import hudson.model.Run;
@@ -19,11 +18,13 @@ public class RCAActionCreator {
    private final LogFileReader reader;
    private final Run<?, ?> run;
    private final MeasurementConfig measurementConfig;
+   private final LogFileStorage storage;
 
-   public RCAActionCreator(final LogFileReader reader, final Run<?, ?> run, final MeasurementConfig measurementConfig) {
+   public RCAActionCreator(final LogFileReader reader, final Run<?, ?> run, final MeasurementConfig measurementConfig, final LogFileStorage storage) {
       this.reader = reader;
       this.run = run;
       this.measurementConfig = measurementConfig;
+      this.storage = storage;
    }
 
    public void createRCAActions() throws IOException {
@@ -36,10 +37,10 @@ public class RCAActionCreator {
       run.addAction(rcaOverviewAction);
    }
 
-   private void createOverallActionLog() {
+   private void createOverallActionLog() throws IOException {
       if (measurementConfig.getExecutionConfig().isRedirectSubprocessOutputToFile()) {
-         String rcaLog = reader.getRCALog();
-         run.addAction(new InternalLogAction("rcaLog", "RCA Log", rcaLog));
+         StoredLogFile logFile = storage.store("rcaLog", reader.getRCALogFile());
+         run.addAction(new InternalLogAction("rcaLog", "RCA Log", logFile));
       }
    }
 
@@ -64,18 +65,13 @@ public class RCAActionCreator {
    }
 
    private void createVMLogActions(final Map.Entry<TestCase, List<RCALevel>> testcase, final int levelId, final int vmId, final LogFiles files) throws IOException {
-      addLog(testcase, levelId, vmId, files.getCurrent(), measurementConfig.getExecutionConfig().getVersion());
-      addLog(testcase, levelId, vmId, files.getPredecessor(), measurementConfig.getExecutionConfig().getVersionOld());
+      files.setCurrentLog(addLog(testcase, levelId, vmId, files.getCurrent(), measurementConfig.getExecutionConfig().getVersion()));
+      files.setPredecessorLog(addLog(testcase, levelId, vmId, files.getPredecessor(), measurementConfig.getExecutionConfig().getVersionOld()));
    }
 
-   private void addLog(final Map.Entry<TestCase, List<RCALevel>> testcase, final int levelId, final int vmId, final File logFile, final String version) throws IOException {
-      String logData;
-      if (logFile.exists()) {
-         logData = FileUtils.readFileToString(logFile, StandardCharsets.UTF_8);
-      } else {
-         logData = "Log file could not be found";
-      }
-      
-      run.addAction(new RCALogAction(testcase.getKey(), vmId, levelId, version, logData));
+   private StoredLogFile addLog(final Map.Entry<TestCase, List<RCALevel>> testcase, final int levelId, final int vmId, final File logFile, final String version) throws IOException {
+      StoredLogFile storedFile = storage.store(RCALogAction.getLogName(testcase.getKey(), vmId, levelId, version), logFile);
+      run.addAction(new RCALogAction(testcase.getKey(), vmId, levelId, version, storedFile));
+      return storedFile;
    }
 }
@@ -1,5 +1,6 @@
 package de.dagere.peass.ci.logs.rca;
 
+import de.dagere.peass.ci.logs.StoredLogFile;
 import de.dagere.peass.ci.logs.measurement.LogAction;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 
@@ -7,10 +8,14 @@ public class RCALogAction extends LogAction {
 
    private int level;
 
-   public RCALogAction(final TestCase test, final int vmId, final int level, final String version, final String logData) {
-      super("rcalog_" + test.toString().replace("#", "_") + "_" + vmId + "_" + version.substring(0, 6) + "_" + level, test, vmId, version, logData);
+   public RCALogAction(final TestCase test, final int vmId, final int level, final String version, final StoredLogFile logFile) {
+      super(getLogName(test, vmId, level, version), test, vmId, version, logFile);
       this.level = level;
    }
+
+   public static String getLogName(final TestCase test, final int vmId, final int level, final String version) {
+      return "rcalog_" + test.toString().replace("#", "_") + "_" + vmId + "_" + version.substring(0, 6) + "_" + level;
+   }
    
    public int getLevel() {
       return level;
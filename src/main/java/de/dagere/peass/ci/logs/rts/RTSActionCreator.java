@@ -11,7 +11,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import de.dagere.peass.ci.logs.InternalLogAction;
+import de.dagere.peass.ci.logs.LogFileStorage;
 import de.dagere.peass.ci.logs.RTSLogFileReader;
+import de.dagere.peass.ci.logs.StoredLogFile;
 import de.dagere.peass.ci.process.RTSInfos;
 import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.dependency.analysis.data.TestCase;
@@ -24,12 +26,14 @@ public class RTSActionCreator {
    private final RTSLogFileReader reader;
    private final Run<?, ?> run;
    private final MeasurementConfig measurementConfig;
+   private final LogFileStorage storage;
    private Map<String, Boolean> processSuccessRunSucceeded = new HashMap<>();
 
-   public RTSActionCreator(final RTSLogFileReader reader, final Run<?, ?> run, final MeasurementConfig measurementConfig) {
+   public RTSActionCreator(final RTSLogFileReader reader, final Run<?, ?> run, final MeasurementConfig measurementConfig, final LogFileStorage storage) {
       this.reader = reader;
       this.run = run;
       this.measurementConfig = measurementConfig;
+      this.storage = storage;
    }
 
    public void createRTSActions(final RTSInfos staticChanges) throws IOException {
@@ -56,10 +60,10 @@ public class RTSActionCreator {
       run.addAction(overviewAction);
    }
 
-   private void createOverallLogAction() {
+   private void createOverallLogAction() throws IOException {
       if (measurementConfig.getExecutionConfig().isRedirectSubprocessOutputToFile()) {
-         String rtsLog = reader.getRTSLog();
-         run.addAction(new InternalLogAction("rtsLog", "Regression Test Selection Log", rtsLog));
+         StoredLogFile logFile = storage.store("rtsLog", reader.getRTSLogFile());
+         run.addAction(new InternalLogAction("rtsLog", "Regression Test Selection Log", logFile));
       }
    }
 
@@ -82,21 +86,14 @@ public class RTSActionCreator {
       Map<TestCase, RTSLogData> rtsVmRuns = reader.getRtsVmRuns(version);
       LOG.info("RTS Runs: {}", rtsVmRuns.size());
       for (Map.Entry<TestCase, RTSLogData> rtsLogData : rtsVmRuns.entrySet()) {
-         String methodLogData = getLogData(rtsLogData.getValue().getMethodFile());
-         String cleanLogData = getLogData(rtsLogData.getValue().getCleanFile());
-         RTSLogAction logAction = new RTSLogAction(rtsLogData.getValue().getVersion(), rtsLogData.getKey(), cleanLogData, methodLogData);
+         String logName = RTSLogAction.getLogName(rtsLogData.getValue().getVersion(), rtsLogData.getKey());
+         StoredLogFile methodLogFile = storage.store(logName, rtsLogData.getValue().getMethodFile());
+         StoredLogFile cleanLogFile = storage.store(logName + "_clean", rtsLogData.getValue().getCleanFile());
+         rtsLogData.getValue().setMethodLog(methodLogFile);
+         rtsLogData.getValue().setCleanLog(cleanLogFile);
+         RTSLogAction logAction = new RTSLogAction(rtsLogData.getValue().getVersion(), rtsLogData.getKey(), cleanLogFile, methodLogFile);
          run.addAction(logAction);
       }
       return rtsVmRuns;
    }
-
-   private String getLogData(final File methodFile) throws IOException {
-      String methodLogData;
-      if (methodFile.exists()) {
-         methodLogData = FileUtils.readFileToString(methodFile, StandardCharsets.UTF_8);
-      } else {
-         methodLogData = "Log could not be loaded";
-      }
-      return methodLogData;
-   }
 }
@@ -1,25 +1,67 @@
 package de.dagere.peass.ci.logs.rts;
 
+import java.io.IOException;
+
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
 import de.dagere.peass.ci.VisibleAction;
+import de.dagere.peass.ci.logs.LegacyLogMigration;
+import de.dagere.peass.ci.logs.LogFileStreamer;
+import de.dagere.peass.ci.logs.LogPage;
+import de.dagere.peass.ci.logs.StoredLogFile;
 import de.dagere.peass.dependency.analysis.data.TestCase;
+import hudson.model.Run;
 
 public class RTSLogAction extends VisibleAction {
+   
+   private static final String NOT_LOADED = "Log could not be loaded";
+   
    private final String version;
    private final TestCase testcase;
-   private final String cleanLog;
-   private final String log;
+   private StoredLogFile cleanLogFile;
+   private StoredLogFile logFile;
+
+   /**
+    * Log texts of builds created before logs were stored in the run folder; they are moved to the run folder on load and not written again
+    */
+   private String cleanLog;
+   private String log;
 
-   public RTSLogAction(final String version, final TestCase testcase, final String cleanLog, final String log) {
+   public RTSLogAction(final String version, final TestCase testcase, final StoredLogFile cleanLogFile, final StoredLogFile logFile) {
       this.version = version;
       this.testcase = testcase;
-      this.cleanLog = cleanLog;
-      this.log = log;
+      this.cleanLogFile = cleanLogFile;
+      this.logFile = logFile;
    }
    
    @Override
-   public String getUrlName() {
+   public void onLoad(final Run<?, ?> run) {
+      super.onLoad(run);
+      if (cleanLog != null) {
+         StoredLogFile migrated = LegacyLogMigration.migrate(run, getLogName(version, testcase) + "_clean", cleanLog);
+         if (migrated != null) {
+            cleanLogFile = migrated;
+            cleanLog = null;
+         }
+      }
+      if (log != null) {
+         StoredLogFile migrated = LegacyLogMigration.migrate(run, getLogName(version, testcase), log);
+         if (migrated != null) {
+            logFile = migrated;
+            log = null;
+         }
+      }
+   }
+
+   public static String getLogName(final String version, final TestCase testcase) {
       return "rtsLog_" + testcase.getLinkUsable() + "_" + version;
    }
+   
+   @Override
+   public String getUrlName() {
+      return getLogName(version, testcase);
+   }
 
    public String getVersion() {
       return version;
@@ -29,12 +71,49 @@ public class RTSLogAction extends VisibleAction {
       return testcase;
    }
 
-   public String getCleanLog() {
-      return cleanLog;
+   public StoredLogFile getCleanLogFile() {
+      return cleanLogFile;
+   }
+
+   public StoredLogFile getLogFile() {
+      return logFile;
+   }
+
+   public String getCleanLog() throws IOException {
+      return read(cleanLogFile, cleanLog);
+   }
+
+   public String getLog() throws IOException {
+      return read(logFile, log);
+   }
+
+   private String read(final StoredLogFile file, final String legacyText) throws IOException {
+      if (file == null) {
+         return legacyText != null ? legacyText : NOT_LOADED;
+      }
+      return file.read(getRun());
+   }
+
+   public LogPage getPage(final StaplerRequest request) throws IOException {
+      if (logFile == null) {
+         return log != null ? LegacyLogMigration.getLegacyPage(log, "") : null;
+      }
+      return logFile.getPage(getRun(), request, "");
+   }
+
+   /**
+    * Returns the page of the clean log; the clean log uses the parameters cleanstart and cleantail, so both logs can be paged independently
+    */
+   public LogPage getCleanPage(final StaplerRequest request) throws IOException {
+      if (cleanLogFile == null) {
+         return cleanLog != null ? LegacyLogMigration.getLegacyPage(cleanLog, "clean") : null;
+      }
+      return cleanLogFile.getPage(getRun(), request, "clean");
    }
 
-   public String getLog() {
-      return log;
+   public void doRaw(final StaplerRequest request, final StaplerResponse response) throws IOException {
+      StoredLogFile file = "clean".equals(request.getParameter("log")) ? cleanLogFile : logFile;
+      LogFileStreamer.serveRaw(file, getRun(), request, response);
    }
 
    @Override
@@ -2,10 +2,15 @@ package de.dagere.peass.ci.logs.rts;
 
 import java.io.File;
 
+import de.dagere.peass.ci.logs.StoredLogFile;
+
 public class RTSLogData {
    private final String version;
-   private final File methodFile;
-   private final File cleanFile;
+   private final transient File methodFile;
+   private final transient File cleanFile;
+
+   private StoredLogFile methodLog;
+   private StoredLogFile cleanLog;
 
    public RTSLogData(final String version, final File methodFile, final File cleanFile) {
       this.version = version;
@@ -25,4 +30,19 @@ public class RTSLogData {
       return cleanFile;
    }
 
+   public StoredLogFile getMethodLog() {
+      return methodLog;
+   }
+
+   public void setMethodLog(final StoredLogFile methodLog) {
+      this.methodLog = methodLog;
+   }
+
+   public StoredLogFile getCleanLog() {
+      return cleanLog;
+   }
+
+   public void setCleanLog(final StoredLogFile cleanLog) {
+      this.cleanLog = cleanLog;
+   }
 }
@@ -0,0 +1,63 @@
+package de.dagere.peass.ci.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Writes files which are read by concurrent builds or the UI, so readers always see either the old or the new content: the content is written to a temporary file
+ * in the same folder, which afterwards replaces the target file.
+ *
+ * @author DaGeRe
+ *
+ */
+public class AtomicFileUtil {
+
+   private static final Logger LOG = LogManager.getLogger(AtomicFileUtil.class);
+
+   private static final String TEMP_SUFFIX = ".tmp";
+   private static final String UNREADABLE_SUFFIX = ".unreadable-";
+
+   /**
+    * Writes the value as JSON to the file
+    */
+   public static void writeJson(final File file, final Object value) throws IOException {
+      File tempFile = new File(file.getParentFile(), file.getName() + TEMP_SUFFIX);
+      try {
+         Constants.OBJECTMAPPER.writeValue(tempFile, value);
+         replace(tempFile, file);
+      } finally {
+         Files.deleteIfExists(tempFile.toPath());
+      }
+   }
+
+   /**
+    * Replaces the target by the completely written temporary file; if the file system does not support atomic moves, the target is replaced non-atomically
+    */
+   public static void replace(final File tempFile, final File target) throws IOException {
+      try {
+         Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+         Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+   }
+
+   /**
+    * Moves a file which could not be parsed next to its old location, so it is kept for inspection and not overwritten by the next write
+    *
+    * @return The new location of the file
+    */
+   public static File moveAside(final File file) throws IOException {
+      File unreadableFile = new File(file.getParentFile(), file.getName() + UNREADABLE_SUFFIX + System.currentTimeMillis());
+      Files.move(file.toPath(), unreadableFile.toPath());
+      LOG.error("Moved unreadable file {} to {}", file, unreadableFile);
+      return unreadableFile;
+   }
+}
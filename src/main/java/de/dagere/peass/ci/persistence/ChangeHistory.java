@@ -0,0 +1,130 @@
+package de.dagere.peass.ci.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.analysis.changes.Change;
+import de.dagere.peass.analysis.changes.Changes;
+import de.dagere.peass.analysis.changes.ProjectChanges;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Builds in which a performance change was detected for every testcase of a job, stored in peass-data; only the most recent builds of every testcase are kept.
+ * Changes which Peass detected before the history was kept are taken over from its {@link ProjectChanges} once.
+ *
+ * @author DaGeRe
+ *
+ */
+public class ChangeHistory {
+
+   private static final Logger LOG = LogManager.getLogger(ChangeHistory.class);
+
+   public static final String FILE_NAME = "change-history.json";
+
+   public static final int MAXIMUM_BUILDS = 20;
+
+   private Map<String, List<Integer>> changedBuilds = new TreeMap<>();
+   private boolean seeded;
+
+   public Map<String, List<Integer>> getChangedBuilds() {
+      return changedBuilds;
+   }
+
+   public void setChangedBuilds(final Map<String, List<Integer>> changedBuilds) {
+      this.changedBuilds = changedBuilds;
+   }
+
+   public boolean isSeeded() {
+      return seeded;
+   }
+
+   public void setSeeded(final boolean seeded) {
+      this.seeded = seeded;
+   }
+
+   public int getChangeCount(final TestCase testcase) {
+      List<Integer> builds = changedBuilds.get(testcase.getExecutable());
+      return builds != null ? builds.size() : 0;
+   }
+
+   /**
+    * Adds the build to the history of every changed testcase
+    */
+   public void addChanges(final Changes versionChanges, final int build) {
+      addChanges(versionChanges, build, false);
+   }
+
+   /**
+    * Takes over the changes of all versions except the current version from the changes Peass already stored, if this was not done before. The build numbers of
+    * these versions are unknown, so they are stored as negative placeholders in front of the recorded builds and are dropped first.
+    */
+   public void seed(final ProjectChanges projectChanges, final String currentVersion) {
+      if (seeded) {
+         return;
+      }
+      int placeholder = -1;
+      for (Map.Entry<String, Changes> version : projectChanges.getVersionChanges().entrySet()) {
+         if (!version.getKey().equals(currentVersion)) {
+            addChanges(version.getValue(), placeholder--, true);
+         }
+      }
+      seeded = true;
+   }
+
+   private void addChanges(final Changes versionChanges, final int build, final boolean older) {
+      for (Map.Entry<String, List<Change>> testcaseChanges : versionChanges.getTestcaseChanges().entrySet()) {
+         for (Change change : testcaseChanges.getValue()) {
+            String testcase = new TestCase(testcaseChanges.getKey(), change.getMethod()).getExecutable();
+            List<Integer> builds = changedBuilds.computeIfAbsent(testcase, key -> new LinkedList<>());
+            if (!builds.contains(build)) {
+               if (older) {
+                  builds.add(0, build);
+               } else {
+                  builds.add(build);
+               }
+            }
+            while (builds.size() > MAXIMUM_BUILDS) {
+               builds.remove(0);
+            }
+         }
+      }
+   }
+
+   /**
+    * Reads the change history and seeds it from the changes Peass already stored, so existing jobs have a history from their first prioritized build on
+    */
+   public static ChangeHistory read(final File peassData, final ProjectChanges projectChanges, final String currentVersion) throws IOException {
+      ChangeHistory history = read(peassData);
+      history.seed(projectChanges, currentVersion);
+      return history;
+   }
+
+   /**
+    * Reads the change history; if the file is not readable, it is moved aside, so the history of the job is not overwritten by the next write
+    */
+   public static ChangeHistory read(final File peassData) throws IOException {
+      File file = new File(peassData, FILE_NAME);
+      if (file.exists()) {
+         try {
+            return Constants.OBJECTMAPPER.readValue(file, ChangeHistory.class);
+         } catch (IOException e) {
+            LOG.error("Could not read change history {}", file);
+            e.printStackTrace();
+            AtomicFileUtil.moveAside(file);
+         }
+      }
+      return new ChangeHistory();
+   }
+
+   public void write(final File peassData) throws IOException {
+      AtomicFileUtil.writeJson(new File(peassData, FILE_NAME), this);
+   }
+}
@@ -0,0 +1,59 @@
+package de.dagere.peass.ci.persistence;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock for data which are shared by all builds of a job, e.g. the trend or the shared RTS results. The lock is held in this JVM by a reentrant lock and across
+ * processes by a file lock on the given lock file.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class JobDataLock {
+
+   private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+   /**
+    * Acquires the lock; the lock is reentrant for the current thread and released by closing the returned object.
+    */
+   public static Closeable acquire(final File lockFile) throws IOException {
+      ReentrantLock lock = LOCKS.computeIfAbsent(lockFile.getAbsolutePath(), path -> new ReentrantLock());
+      lock.lock();
+      if (lock.getHoldCount() > 1) {
+         return lock::unlock;
+      }
+      try {
+         File folder = lockFile.getParentFile();
+         if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+         }
+         FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+         FileLock fileLock;
+         try {
+            fileLock = channel.lock();
+         } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+         }
+         return () -> {
+            try {
+               fileLock.release();
+               channel.close();
+            } finally {
+               lock.unlock();
+            }
+         };
+      } catch (IOException | RuntimeException e) {
+         lock.unlock();
+         throw e;
+      }
+   }
+}
@@ -0,0 +1,81 @@
+package de.dagere.peass.ci.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.dagere.peass.analysis.changes.Changes;
+import de.dagere.peass.ci.helper.HistogramValues;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.measurement.analysis.ProjectStatistics;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+import hudson.XmlFile;
+import hudson.model.Run;
+
+/**
+ * Measurement data of one build, which is stored in a separate file in the run directory instead of the build.xml, so it is only loaded when the measurement
+ * page is displayed.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class MeasureVersionData {
+
+   public static final String FILE_NAME = "peass-measurement.xml";
+
+   private Changes changes;
+   private ProjectStatistics statistics;
+   private Map<String, TestcaseStatistic> noWarmupStatistics;
+   private Map<String, HistogramValues> measurements;
+   private Map<String, MeasurementConfig> updatedConfigurations;
+
+   public MeasureVersionData(final Changes changes, final ProjectStatistics statistics, final Map<String, TestcaseStatistic> noWarmupStatistics,
+         final Map<String, HistogramValues> measurements, final Map<String, MeasurementConfig> updatedConfigurations) {
+      this.changes = changes;
+      this.statistics = statistics;
+      this.noWarmupStatistics = noWarmupStatistics;
+      this.measurements = measurements;
+      this.updatedConfigurations = updatedConfigurations;
+   }
+
+   /**
+    * Creates empty data, e.g. if the data file of a build was deleted
+    */
+   public static MeasureVersionData empty() {
+      return new MeasureVersionData(new Changes(), new ProjectStatistics(), new HashMap<>(), new TreeMap<>(), new HashMap<>());
+   }
+
+   public static XmlFile getDataFile(final Run<?, ?> run) {
+      return new XmlFile(Run.XSTREAM2, new File(run.getRootDir(), FILE_NAME));
+   }
+
+   public void write(final Run<?, ?> run) throws IOException {
+      getDataFile(run).write(this);
+   }
+
+   public static MeasureVersionData read(final Run<?, ?> run) throws IOException {
+      return (MeasureVersionData) getDataFile(run).read();
+   }
+
+   public Changes getChanges() {
+      return changes;
+   }
+
+   public ProjectStatistics getStatistics() {
+      return statistics;
+   }
+
+   public Map<String, TestcaseStatistic> getNoWarmupStatistics() {
+      return noWarmupStatistics;
+   }
+
+   public Map<String, HistogramValues> getMeasurements() {
+      return measurements;
+   }
+
+   public Map<String, MeasurementConfig> getUpdatedConfigurations() {
+      return updatedConfigurations;
+   }
+}
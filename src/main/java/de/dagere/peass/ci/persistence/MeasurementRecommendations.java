@@ -0,0 +1,137 @@
+package de.dagere.peass.ci.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Recommended warmup, iterations and repetitions of every testcase of a job, derived from the last measurement and stored in peass-data, so the next build measures every
+ * testcase with its own configuration.
+ *
+ * @author DaGeRe
+ *
+ */
+public class MeasurementRecommendations {
+
+   private static final Logger LOG = LogManager.getLogger(MeasurementRecommendations.class);
+
+   public static final String FILE_NAME = "measurement-recommendations.json";
+
+   private Map<String, Integer> warmups = new TreeMap<>();
+   private Map<String, Integer> iterations = new TreeMap<>();
+   private Map<String, Integer> repetitions = new TreeMap<>();
+   private long vmOverhead = 0;
+
+   public Map<String, Integer> getWarmups() {
+      return warmups;
+   }
+
+   public void setWarmups(final Map<String, Integer> warmups) {
+      this.warmups = warmups;
+   }
+
+   public Map<String, Integer> getIterations() {
+      return iterations;
+   }
+
+   public void setIterations(final Map<String, Integer> iterations) {
+      this.iterations = iterations;
+   }
+
+   public Map<String, Integer> getRepetitions() {
+      return repetitions;
+   }
+
+   public void setRepetitions(final Map<String, Integer> repetitions) {
+      this.repetitions = repetitions;
+   }
+
+   /**
+    * Observed duration of starting the VMs of both versions in milliseconds; 0 if nothing was observed yet
+    */
+   public long getVmOverhead() {
+      return vmOverhead;
+   }
+
+   public void setVmOverhead(final long vmOverhead) {
+      this.vmOverhead = vmOverhead;
+   }
+
+   /**
+    * Returns the recommended warmup of the testcase or the default warmup, if there is no recommendation
+    */
+   public int findWarmup(final TestCase testcase, final int defaultWarmup) {
+      Integer warmup = warmups.get(testcase.getExecutable());
+      return warmup != null ? warmup : defaultWarmup;
+   }
+
+   /**
+    * Returns the recommended iterations of the testcase or the default iterations, if there is no recommendation
+    */
+   public int findIterations(final TestCase testcase, final int defaultIterations) {
+      Integer testIterations = iterations.get(testcase.getExecutable());
+      return testIterations != null ? testIterations : defaultIterations;
+   }
+
+   /**
+    * Returns the recommended repetitions of the testcase or the default repetitions, if there is no recommendation
+    */
+   public int findRepetitions(final TestCase testcase, final int defaultRepetitions) {
+      Integer testRepetitions = repetitions.get(testcase.getExecutable());
+      return testRepetitions != null ? testRepetitions : defaultRepetitions;
+   }
+
+   /**
+    * Adds the detected warmups, limited to the given bounds
+    */
+   public void updateWarmups(final Map<String, Integer> detectedWarmups, final int minimumWarmup, final int maximumWarmup) {
+      for (Map.Entry<String, Integer> detected : detectedWarmups.entrySet()) {
+         int warmup = Math.max(minimumWarmup, Math.min(maximumWarmup, detected.getValue()));
+         warmups.put(detected.getKey(), warmup);
+      }
+   }
+
+   /**
+    * Adds the detected iterations, limited to the given bounds; the maximum is the configured iterations, so a recommendation never measures longer than configured
+    */
+   public void updateIterations(final Map<String, Integer> detectedIterations, final int minimumIterations, final int maximumIterations) {
+      for (Map.Entry<String, Integer> detected : detectedIterations.entrySet()) {
+         iterations.put(detected.getKey(), Math.min(maximumIterations, Math.max(minimumIterations, detected.getValue())));
+      }
+   }
+
+   /**
+    * Adds the calibrated repetitions; these are already limited by the calibration
+    */
+   public void updateRepetitions(final Map<String, Integer> calibratedRepetitions) {
+      repetitions.putAll(calibratedRepetitions);
+   }
+
+   /**
+    * Reads the recommendations; if the file is not readable, it is moved aside and the configured measurement is used
+    */
+   public static MeasurementRecommendations read(final File peassData) throws IOException {
+      File file = new File(peassData, FILE_NAME);
+      if (file.exists()) {
+         try {
+            return Constants.OBJECTMAPPER.readValue(file, MeasurementRecommendations.class);
+         } catch (IOException e) {
+            LOG.error("Could not read measurement recommendations {}, using configured measurement", file);
+            e.printStackTrace();
+            AtomicFileUtil.moveAside(file);
+         }
+      }
+      return new MeasurementRecommendations();
+   }
+
+   public void write(final File peassData) throws IOException {
+      AtomicFileUtil.writeJson(new File(peassData, FILE_NAME), this);
+   }
+}
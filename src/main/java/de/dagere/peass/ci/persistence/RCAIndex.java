@@ -0,0 +1,87 @@
+package de.dagere.peass.ci.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.dagere.peass.folders.CauseSearchFolders;
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Index of the root cause analysis results in an rca folder. Every result file (relative to the rca folder) is mapped to an {@link RCAIndexEntry}, so checking
+ * whether an analysis is needed and finding the testcase of a result file do not require parsing the (possibly large) CauseSearchData files.
+ * 
+ * The index which decides whether an analysis is needed is the one in the peass folder of the agent, next to the results it describes; this folder is kept
+ * between builds, also with isolated workspaces. The copy in the workspace on the controller is only read for displaying the results of the build.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class RCAIndex {
+
+   private static final Logger LOG = LogManager.getLogger(RCAIndex.class);
+
+   public static final String INDEX_FILE_NAME = "rca-index.json";
+
+   private Map<String, RCAIndexEntry> entries = new LinkedHashMap<>();
+
+   public Map<String, RCAIndexEntry> getEntries() {
+      return entries;
+   }
+
+   public void setEntries(final Map<String, RCAIndexEntry> entries) {
+      this.entries = entries;
+   }
+
+   public RCAIndexEntry findEntry(final File rcaFolder, final File resultFile) {
+      return entries.get(getRelativePath(rcaFolder, resultFile));
+   }
+
+   public void addEntry(final RCAIndexEntry entry) {
+      entries.put(entry.getResultFile(), entry);
+   }
+
+   public static String getRelativePath(final File rcaFolder, final File resultFile) {
+      return rcaFolder.toPath().toAbsolutePath().normalize().relativize(resultFile.toPath().toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/');
+   }
+
+   /**
+    * Returns the folder containing the rca tree folder, the rca measurements and the index
+    */
+   public static File getRCAFolder(final CauseSearchFolders folders) {
+      return folders.getRcaTreeFolder().getParentFile();
+   }
+
+   public static File getIndexFile(final File rcaFolder) {
+      return new File(rcaFolder, INDEX_FILE_NAME);
+   }
+
+   /**
+    * Reads the index of the rca folder; if it does not exist or is not readable, an empty index is returned, so the results are checked by parsing them once. An
+    * unreadable index is moved aside before, so it is not overwritten.
+    */
+   public static RCAIndex read(final File rcaFolder) throws IOException {
+      File indexFile = getIndexFile(rcaFolder);
+      if (indexFile.exists()) {
+         try {
+            return Constants.OBJECTMAPPER.readValue(indexFile, RCAIndex.class);
+         } catch (IOException e) {
+            LOG.error("Could not read RCA index {}, rebuilding it", indexFile);
+            e.printStackTrace();
+            AtomicFileUtil.moveAside(indexFile);
+         }
+      }
+      return new RCAIndex();
+   }
+
+   public void write(final File rcaFolder) throws IOException {
+      if (!rcaFolder.exists() && !rcaFolder.mkdirs()) {
+         throw new IOException("Could not create " + rcaFolder.getAbsolutePath());
+      }
+      AtomicFileUtil.writeJson(getIndexFile(rcaFolder), this);
+   }
+}
@@ -0,0 +1,82 @@
+package de.dagere.peass.ci.persistence;
+
+/**
+ * Entry of the {@link RCAIndex}: the version pair and configuration for which the root cause analysis of a testcase was executed, its result file (relative to the
+ * rca folder) and whether the analysis finished.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class RCAIndexEntry {
+
+   public enum Status {
+      FINISHED, FAILED
+   }
+
+   private String version;
+   private String versionOld;
+   private String testcase;
+   private int configHash;
+   private String resultFile;
+   private Status status;
+
+   public RCAIndexEntry() {
+   }
+
+   public RCAIndexEntry(final String version, final String versionOld, final String testcase, final int configHash, final String resultFile, final Status status) {
+      this.version = version;
+      this.versionOld = versionOld;
+      this.testcase = testcase;
+      this.configHash = configHash;
+      this.resultFile = resultFile;
+      this.status = status;
+   }
+
+   public String getVersion() {
+      return version;
+   }
+
+   public void setVersion(final String version) {
+      this.version = version;
+   }
+
+   public String getVersionOld() {
+      return versionOld;
+   }
+
+   public void setVersionOld(final String versionOld) {
+      this.versionOld = versionOld;
+   }
+
+   public String getTestcase() {
+      return testcase;
+   }
+
+   public void setTestcase(final String testcase) {
+      this.testcase = testcase;
+   }
+
+   public int getConfigHash() {
+      return configHash;
+   }
+
+   public void setConfigHash(final int configHash) {
+      this.configHash = configHash;
+   }
+
+   public String getResultFile() {
+      return resultFile;
+   }
+
+   public void setResultFile(final String resultFile) {
+      this.resultFile = resultFile;
+   }
+
+   public Status getStatus() {
+      return status;
+   }
+
+   public void setStatus(final Status status) {
+      this.status = status;
+   }
+}
@@ -0,0 +1,38 @@
+package de.dagere.peass.ci.persistence;
+
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+
+/**
+ * One line of a trend segment: the statistic of one testcase in one build.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class TrendEntry {
+   private int build;
+   private TestcaseStatistic statistic;
+
+   public TrendEntry() {
+   }
+
+   public TrendEntry(final int build, final TestcaseStatistic statistic) {
+      this.build = build;
+      this.statistic = statistic;
+   }
+
+   public int getBuild() {
+      return build;
+   }
+
+   public void setBuild(final int build) {
+      this.build = build;
+   }
+
+   public TestcaseStatistic getStatistic() {
+      return statistic;
+   }
+
+   public void setStatistic(final TestcaseStatistic statistic) {
+      this.statistic = statistic;
+   }
+}
@@ -1,7 +1,9 @@
 package de.dagere.peass.ci.persistence;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -12,55 +14,57 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import de.dagere.peass.measurement.analysis.ProjectStatistics;
 import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
-import de.dagere.peass.utils.Constants;
 import hudson.model.Run;
 
 public class TrendFileUtil {
 
+   /**
+    * Name of the monolithic trend file of former versions, which is migrated to the {@link TrendStore} on first access
+    */
    public static final String TREND_FILE_NAME = "trend.json";
 
    public static void persistTrend(final Run<?, ?> run, final File localWorkspace, final ProjectStatistics statistics)
          throws IOException, JsonParseException, JsonMappingException, JsonGenerationException {
-      File trendFile = new File(localWorkspace, TREND_FILE_NAME);
-      BuildMeasurementValues values = getValues(trendFile);
+      TrendStore store = new TrendStore(localWorkspace);
       if (statistics.getStatistics().size() > 0) {
-         if (values.getValues().size() == 0) {
-            addFakePredecessorStatistics(run, statistics, values);
+         // Concurrent builds of the job may persist their trend at the same time, so checking for the first addition and appending needs to be atomic
+         try (Closeable lock = store.lock()) {
+            if (store.readIndex().getSegments().isEmpty()) {
+               addFakePredecessorStatistics(run, statistics, store);
+            }
+            store.append(getTestcaseStatistics(statistics), run.getNumber());
          }
-         values.addMeasurement(statistics, run.getNumber());
-         Constants.OBJECTMAPPER.writeValue(trendFile, values);
       }
    }
 
-   private static void addFakePredecessorStatistics(final Run<?, ?> run, final ProjectStatistics statistics, final BuildMeasurementValues values) {
-      final ProjectStatistics fakePredecessorStatistics = new ProjectStatistics();
+   private static void addFakePredecessorStatistics(final Run<?, ?> run, final ProjectStatistics statistics, final TrendStore store) throws IOException {
+      final Map<String, TestcaseStatistic> fakePredecessorStatistics = new LinkedHashMap<>();
       final Entry<String, Map<TestCase, TestcaseStatistic>> currentEntry = statistics.getStatistics().entrySet().iterator().next();
-      final String version = currentEntry.getKey();
       for (Entry<TestCase, TestcaseStatistic> entry : currentEntry.getValue().entrySet()) {
          TestcaseStatistic predecessor = new TestcaseStatistic();
          predecessor.setCalls(entry.getValue().getCallsOld());
          predecessor.setMeanCurrent(entry.getValue().getMeanOld());
          predecessor.setDeviationCurrent(entry.getValue().getDeviationOld());
          predecessor.setVMs(entry.getValue().getVMs());
-         fakePredecessorStatistics.addMeasurement(version + "~1", entry.getKey(), predecessor);
+         fakePredecessorStatistics.put(entry.getKey().toString(), predecessor);
       }
-      values.addMeasurement(fakePredecessorStatistics, run.getNumber() - 1);
+      store.append(fakePredecessorStatistics, run.getNumber() - 1);
    }
 
-   public static BuildMeasurementValues readMeasurementValues(final File localWorkspace) throws JsonParseException, JsonMappingException, IOException, InterruptedException {
-      final File trendFile = new File(localWorkspace, TREND_FILE_NAME);
-      System.out.println(trendFile.getAbsolutePath() + " " + trendFile.exists());
-      final BuildMeasurementValues values = getValues(trendFile);
-      return values;
+   private static Map<String, TestcaseStatistic> getTestcaseStatistics(final ProjectStatistics statistics) {
+      Map<String, TestcaseStatistic> testcaseStatistics = new LinkedHashMap<>();
+      for (Entry<String, Map<TestCase, TestcaseStatistic>> version : statistics.getStatistics().entrySet()) {
+         for (Map.Entry<TestCase, TestcaseStatistic> testcase : version.getValue().entrySet()) {
+            testcaseStatistics.put(testcase.getKey().toString(), testcase.getValue());
+         }
+      }
+      return testcaseStatistics;
    }
 
-   private static BuildMeasurementValues getValues(final File trendFile) throws IOException, JsonParseException, JsonMappingException {
-      BuildMeasurementValues values;
-      if (trendFile.exists()) {
-         values = Constants.OBJECTMAPPER.readValue(trendFile, BuildMeasurementValues.class);
-      } else {
-         values = new BuildMeasurementValues();
-      }
-      return values;
+   /**
+    * Reads the values of all testcases; for displaying single testcases, {@link TrendStore#readTestcase(String)} should be used
+    */
+   public static BuildMeasurementValues readMeasurementValues(final File localWorkspace) throws JsonParseException, JsonMappingException, IOException {
+      return new TrendStore(localWorkspace).readAll();
    }
 }
@@ -0,0 +1,70 @@
+package de.dagere.peass.ci.persistence;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Index of the {@link TrendStore}. The revision is increased by every append, so caches can detect changes without reading the segments. The mapping of each
+ * testcase to its segment file is not part of the index file, but read from the segment journal, to which only new testcases are appended; the index only
+ * contains the committed length of the journal. Therefore, the size of the index file does not grow with the count of testcases.
+ *
+ * @author DaGeRe
+ *
+ */
+public class TrendIndex {
+   private long revision = 0;
+   private int firstBuild = Integer.MAX_VALUE;
+   private int lastBuild = Integer.MIN_VALUE;
+   private long journalLength = 0;
+   private Map<String, String> segments = new LinkedHashMap<>();
+
+   public long getRevision() {
+      return revision;
+   }
+
+   public void setRevision(final long revision) {
+      this.revision = revision;
+   }
+
+   /**
+    * Returns the segments by testcase, as read from the segment journal
+    */
+   @JsonIgnore
+   public Map<String, String> getSegments() {
+      return segments;
+   }
+
+   @JsonIgnore
+   public void setSegments(final Map<String, String> segments) {
+      this.segments = segments;
+   }
+
+   public int getFirstBuild() {
+      return firstBuild;
+   }
+
+   public void setFirstBuild(final int firstBuild) {
+      this.firstBuild = firstBuild;
+   }
+
+   public int getLastBuild() {
+      return lastBuild;
+   }
+
+   public void setLastBuild(final int lastBuild) {
+      this.lastBuild = lastBuild;
+   }
+
+   /**
+    * Returns the committed length of the segment journal
+    */
+   public long getJournalLength() {
+      return journalLength;
+   }
+
+   public void setJournalLength(final long journalLength) {
+      this.journalLength = journalLength;
+   }
+}
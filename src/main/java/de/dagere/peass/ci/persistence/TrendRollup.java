@@ -0,0 +1,142 @@
+package de.dagere.peass.ci.persistence;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+
+/**
+ * Aggregate of the statistics of one testcase in a block of builds, i.e. all builds whose number divided by the block size equals the block index. Mean and
+ * deviation are the mean and standard deviation of the combined measurements, assuming the builds have equal weight.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class TrendRollup {
+   private int block;
+   private int firstBuild = Integer.MAX_VALUE;
+   private int lastBuild = Integer.MIN_VALUE;
+   private int count;
+   private double min = Double.MAX_VALUE;
+   private double max = -Double.MAX_VALUE;
+   private double sum;
+   private double sumSquares;
+   private double sumDeviationSquares;
+
+   public TrendRollup() {
+   }
+
+   public TrendRollup(final int block) {
+      this.block = block;
+   }
+
+   public void add(final int build, final TestcaseStatistic statistic) {
+      double mean = statistic.getMeanCurrent();
+      double deviation = statistic.getDeviationCurrent();
+      firstBuild = Math.min(firstBuild, build);
+      lastBuild = Math.max(lastBuild, build);
+      count++;
+      min = Math.min(min, mean);
+      max = Math.max(max, mean);
+      sum += mean;
+      sumSquares += mean * mean;
+      sumDeviationSquares += deviation * deviation;
+   }
+
+   public void merge(final TrendRollup other) {
+      firstBuild = Math.min(firstBuild, other.firstBuild);
+      lastBuild = Math.max(lastBuild, other.lastBuild);
+      count += other.count;
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+      sum += other.sum;
+      sumSquares += other.sumSquares;
+      sumDeviationSquares += other.sumDeviationSquares;
+   }
+
+   @JsonIgnore
+   public double getMean() {
+      return count > 0 ? sum / count : Double.NaN;
+   }
+
+   @JsonIgnore
+   public double getDeviation() {
+      if (count == 0) {
+         return Double.NaN;
+      }
+      double mean = getMean();
+      double varianceOfMeans = Math.max(0, sumSquares / count - mean * mean);
+      return Math.sqrt(sumDeviationSquares / count + varianceOfMeans);
+   }
+
+   public int getBlock() {
+      return block;
+   }
+
+   public void setBlock(final int block) {
+      this.block = block;
+   }
+
+   public int getFirstBuild() {
+      return firstBuild;
+   }
+
+   public void setFirstBuild(final int firstBuild) {
+      this.firstBuild = firstBuild;
+   }
+
+   public int getLastBuild() {
+      return lastBuild;
+   }
+
+   public void setLastBuild(final int lastBuild) {
+      this.lastBuild = lastBuild;
+   }
+
+   public int getCount() {
+      return count;
+   }
+
+   public void setCount(final int count) {
+      this.count = count;
+   }
+
+   public double getMin() {
+      return min;
+   }
+
+   public void setMin(final double min) {
+      this.min = min;
+   }
+
+   public double getMax() {
+      return max;
+   }
+
+   public void setMax(final double max) {
+      this.max = max;
+   }
+
+   public double getSum() {
+      return sum;
+   }
+
+   public void setSum(final double sum) {
+      this.sum = sum;
+   }
+
+   public double getSumSquares() {
+      return sumSquares;
+   }
+
+   public void setSumSquares(final double sumSquares) {
+      this.sumSquares = sumSquares;
+   }
+
+   public double getSumDeviationSquares() {
+      return sumDeviationSquares;
+   }
+
+   public void setSumDeviationSquares(final double sumDeviationSquares) {
+      this.sumDeviationSquares = sumDeviationSquares;
+   }
+}
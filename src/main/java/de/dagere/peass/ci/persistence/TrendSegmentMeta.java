@@ -0,0 +1,39 @@
+package de.dagere.peass.ci.persistence;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Metadata of one segment of the {@link TrendStore}, stored next to the segment: the committed length of the segment and its rollup files and the rollups of
+ * the blocks which may still get builds. Since every segment has its own metadata, appending a build only rewrites the metadata of the measured testcases.
+ *
+ * @author DaGeRe
+ *
+ */
+public class TrendSegmentMeta {
+   private Map<String, Long> lengths = new LinkedHashMap<>();
+   private Map<Integer, TrendRollup> openRollups = new TreeMap<>();
+
+   /**
+    * Returns the committed length of the segment and rollup files, by file name
+    */
+   public Map<String, Long> getLengths() {
+      return lengths;
+   }
+
+   public void setLengths(final Map<String, Long> lengths) {
+      this.lengths = lengths;
+   }
+
+   /**
+    * Returns the open rollups, by block size
+    */
+   public Map<Integer, TrendRollup> getOpenRollups() {
+      return openRollups;
+   }
+
+   public void setOpenRollups(final Map<Integer, TrendRollup> openRollups) {
+      this.openRollups = openRollups;
+   }
+}
@@ -0,0 +1,94 @@
+package de.dagere.peass.ci.persistence;
+
+import java.util.Collection;
+
+/**
+ * Trend of one testcase as javascript arrays, created in one pass over the persisted statistics. Every point is either one build (block size 1) or a rollup of
+ * a block of builds, which is displayed at its first build.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class TrendSeries {
+   private final int blockSize;
+   private final int pointCount;
+   private final String buildnumbersReadable;
+   private final String meansReadable;
+   private final String lowerBoundReadable;
+   private final String upperBoundReadable;
+   private final String minReadable;
+   private final String maxReadable;
+
+   public TrendSeries(final int blockSize, final Collection<TrendRollup> points) {
+      this.blockSize = blockSize;
+      this.pointCount = points.size();
+      StringBuilder buildnumbers = new StringBuilder("[");
+      StringBuilder means = new StringBuilder("[");
+      StringBuilder lowerBounds = new StringBuilder("[");
+      StringBuilder upperBounds = new StringBuilder("[");
+      StringBuilder mins = new StringBuilder("[");
+      StringBuilder maxs = new StringBuilder("[");
+      boolean first = true;
+      for (TrendRollup point : points) {
+         if (!first) {
+            buildnumbers.append(", ");
+            means.append(", ");
+            lowerBounds.append(", ");
+            upperBounds.append(", ");
+            mins.append(", ");
+            maxs.append(", ");
+         }
+         first = false;
+         double mean = point.getMean();
+         double deviation = point.getDeviation();
+         buildnumbers.append(point.getFirstBuild());
+         means.append(mean);
+         lowerBounds.append(mean - deviation);
+         upperBounds.append(mean + deviation);
+         mins.append(point.getMin());
+         maxs.append(point.getMax());
+      }
+      buildnumbersReadable = buildnumbers.append("]").toString();
+      meansReadable = means.append("]").toString();
+      lowerBoundReadable = lowerBounds.append("]").toString();
+      upperBoundReadable = upperBounds.append("]").toString();
+      minReadable = mins.append("]").toString();
+      maxReadable = maxs.append("]").toString();
+   }
+
+   public int getBlockSize() {
+      return blockSize;
+   }
+
+   public boolean isRollup() {
+      return blockSize > 1;
+   }
+
+   public int getPointCount() {
+      return pointCount;
+   }
+
+   public String getBuildnumbersReadable() {
+      return buildnumbersReadable;
+   }
+
+   public String getMeansReadable() {
+      return meansReadable;
+   }
+
+   public String getLowerBoundReadable() {
+      return lowerBoundReadable;
+   }
+
+   public String getUpperBoundReadable() {
+      return upperBoundReadable;
+   }
+
+   public String getMinReadable() {
+      return minReadable;
+   }
+
+   public String getMaxReadable() {
+      return maxReadable;
+   }
+}
@@ -0,0 +1,445 @@
+package de.dagere.peass.ci.persistence;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Append-only storage of the measurement trend of a job. Every testcase has its own segment file in peass-data/trend, containing one {@link TrendEntry} per
+ * line; the journal segments.jsonl maps testcases to segments and only gets a line when a testcase is measured for the first time. Adding a build therefore
+ * only appends to the segments of the measured testcases, and reading a testcase only reads its segment. A trend.json of former versions is migrated on first
+ * access.
+ * 
+ * For long histories, every segment has rollups for each of the {@link #ROLLUP_BLOCK_SIZES}: completed blocks are appended to &lt;segment&gt;.r&lt;size&gt;,
+ * the open block is kept in the {@link TrendSegmentMeta} of the segment. {@link #readSeries(TrendIndex, String, int, int, int)} selects the finest resolution
+ * which keeps the number of points below the requested maximum.
+ * 
+ * Writers are serialized by a per-job lock (in this JVM and by a file lock on peass-data/trend.lock). The metadata &lt;segment&gt;.meta records the committed
+ * length of the segment and its rollups and is replaced atomically after the segment has been appended, so consistency is given per segment; index.json only
+ * contains the revision, the build range and the committed length of the journal and is replaced after all segments of a build have been written. Readers
+ * only read the committed part of the files, so they never see partially written lines without locking. Data appended by an interrupted writer after the
+ * committed length are truncated by the next writer.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class TrendStore {
+
+   private static final Logger LOG = LogManager.getLogger(TrendStore.class);
+
+   public static final String TREND_FOLDER_NAME = "trend";
+   public static final String INDEX_FILE_NAME = "index.json";
+   public static final String JOURNAL_FILE_NAME = "segments.jsonl";
+   private static final String META_SUFFIX = ".meta";
+   private static final String SEGMENT_SUFFIX = ".jsonl";
+   private static final String MIGRATED_SUFFIX = ".migrated";
+   private static final String ROLLUP_SUFFIX = ".r";
+   private static final String LOCK_FILE_NAME = "trend.lock";
+
+   public static final int[] ROLLUP_BLOCK_SIZES = new int[] { 16, 256 };
+   public static final int DEFAULT_MAX_POINTS = 500;
+
+   private static final ObjectWriter LINE_WRITER = Constants.OBJECTMAPPER.writer().without(SerializationFeature.INDENT_OUTPUT);
+   private static final TypeReference<Map<String, String>> JOURNAL_LINE = new TypeReference<Map<String, String>>() {
+   };
+
+   private final File localWorkspace;
+   private final File trendFolder;
+   private final File indexFile;
+
+   public TrendStore(final File localWorkspace) {
+      this.localWorkspace = localWorkspace;
+      this.trendFolder = new File(localWorkspace, TREND_FOLDER_NAME);
+      this.indexFile = new File(trendFolder, INDEX_FILE_NAME);
+   }
+
+   public File getIndexFile() {
+      return indexFile;
+   }
+
+   public TrendIndex readIndex() throws IOException {
+      if (needsMigration()) {
+         try (Closeable lock = lock()) {
+            migrate();
+         }
+      }
+      if (indexFile.exists()) {
+         TrendIndex index = Constants.OBJECTMAPPER.readValue(indexFile, TrendIndex.class);
+         readJournal(index);
+         return index;
+      } else {
+         return new TrendIndex();
+      }
+   }
+
+   private void readJournal(final TrendIndex index) throws IOException {
+      File journal = new File(trendFolder, JOURNAL_FILE_NAME);
+      if (!journal.exists()) {
+         return;
+      }
+      try (BufferedReader reader = openCommitted(JOURNAL_FILE_NAME, index.getJournalLength())) {
+         String line;
+         while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty()) {
+               index.getSegments().putAll(Constants.OBJECTMAPPER.readValue(line, JOURNAL_LINE));
+            }
+         }
+      }
+   }
+
+   /**
+    * Reads the metadata of the segment; if the segment has no metadata yet, empty metadata are returned
+    */
+   private TrendSegmentMeta readMeta(final String segment) throws IOException {
+      File metaFile = new File(trendFolder, segment + META_SUFFIX);
+      if (metaFile.exists()) {
+         return Constants.OBJECTMAPPER.readValue(metaFile, TrendSegmentMeta.class);
+      } else {
+         return new TrendSegmentMeta();
+      }
+   }
+
+   /**
+    * Appends the statistics of one build, given as mapping from testcase name to statistic
+    */
+   public void append(final Map<String, TestcaseStatistic> statistics, final int buildNumber) throws IOException {
+      try (Closeable lock = lock()) {
+         TrendIndex index = readIndex();
+         appendAll(index, statistics, buildNumber);
+         writeIndex(index);
+      }
+   }
+
+   /**
+    * Acquires the lock of this store, which is required for every modification; the lock is reentrant for the current thread.
+    */
+   public Closeable lock() throws IOException {
+      return JobDataLock.acquire(new File(localWorkspace, LOCK_FILE_NAME));
+   }
+
+   private void appendAll(final TrendIndex index, final Map<String, TestcaseStatistic> statistics, final int buildNumber) throws IOException {
+      if (!trendFolder.exists() && !trendFolder.mkdirs()) {
+         throw new IOException("Could not create " + trendFolder);
+      }
+      for (Entry<String, TestcaseStatistic> testcase : statistics.entrySet()) {
+         String segment = getOrCreateSegment(index, testcase.getKey());
+         TrendSegmentMeta meta = readMeta(segment);
+         appendLine(meta, segment, new TrendEntry(buildNumber, testcase.getValue()));
+         addToRollups(index, meta, segment, buildNumber, testcase.getValue());
+         AtomicFileUtil.writeJson(new File(trendFolder, segment + META_SUFFIX), meta);
+      }
+      index.setRevision(index.getRevision() + 1);
+   }
+
+   /**
+    * Returns the segment of the testcase; if the testcase has no segment yet, a new segment is appended to the journal. Files of the new segment left over by an
+    * interrupted writer are removed, since their data were never committed.
+    */
+   private String getOrCreateSegment(final TrendIndex index, final String testcase) throws IOException {
+      String segment = index.getSegments().get(testcase);
+      if (segment == null) {
+         segment = createSegmentName(index, testcase);
+         Files.deleteIfExists(new File(trendFolder, segment).toPath());
+         Files.deleteIfExists(new File(trendFolder, segment + META_SUFFIX).toPath());
+         for (int blockSize : ROLLUP_BLOCK_SIZES) {
+            Files.deleteIfExists(new File(trendFolder, segment + ROLLUP_SUFFIX + blockSize).toPath());
+         }
+         index.setJournalLength(appendLine(JOURNAL_FILE_NAME, index.getJournalLength(), Collections.singletonMap(testcase, segment)));
+         index.getSegments().put(testcase, segment);
+      }
+      return segment;
+   }
+
+   /**
+    * Adds the statistic to the open rollup of each block size; if the build belongs to a later block, the open rollup is complete and appended to the rollup
+    * file
+    */
+   private void addToRollups(final TrendIndex index, final TrendSegmentMeta meta, final String segment, final int buildNumber,
+         final TestcaseStatistic statistic) throws IOException {
+      index.setFirstBuild(Math.min(index.getFirstBuild(), buildNumber));
+      index.setLastBuild(Math.max(index.getLastBuild(), buildNumber));
+      Map<Integer, TrendRollup> openRollups = meta.getOpenRollups();
+      for (int blockSize : ROLLUP_BLOCK_SIZES) {
+         int block = Math.floorDiv(buildNumber, blockSize);
+         TrendRollup open = openRollups.get(blockSize);
+         if (open != null && open.getBlock() != block) {
+            if (block > open.getBlock()) {
+               appendLine(meta, segment + ROLLUP_SUFFIX + blockSize, open);
+               open = null;
+            } else {
+               // Builds of an already completed block are appended as separate line and merged when reading
+               TrendRollup late = new TrendRollup(block);
+               late.add(buildNumber, statistic);
+               appendLine(meta, segment + ROLLUP_SUFFIX + blockSize, late);
+               continue;
+            }
+         }
+         if (open == null) {
+            open = new TrendRollup(block);
+            openRollups.put(blockSize, open);
+         }
+         open.add(buildNumber, statistic);
+      }
+   }
+
+   /**
+    * Appends the value as JSON line to a file of the segment and records the new length in the metadata of the segment
+    */
+   private void appendLine(final TrendSegmentMeta meta, final String fileName, final Object value) throws IOException {
+      long length = appendLine(fileName, meta.getLengths().get(fileName), value);
+      meta.getLengths().put(fileName, length);
+   }
+
+   /**
+    * Appends the value as JSON line after the committed length of the file (dropping uncommitted data of interrupted writers); if the committed length is
+    * null, the value is appended to the end of the file
+    * 
+    * @return The new length of the file
+    */
+   private long appendLine(final String fileName, final Long committed, final Object value) throws IOException {
+      File file = new File(trendFolder, fileName);
+      ByteBuffer line = ByteBuffer.wrap((LINE_WRITER.writeValueAsString(value) + "\n").getBytes(StandardCharsets.UTF_8));
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+         long position = committed != null ? committed : channel.size();
+         if (channel.size() > position) {
+            channel.truncate(position);
+         }
+         channel.position(position);
+         while (line.hasRemaining()) {
+            channel.write(line);
+         }
+         return channel.position();
+      }
+   }
+
+   private BufferedReader openCommitted(final String fileName, final Long committed) throws IOException {
+      File file = new File(trendFolder, fileName);
+      InputStream stream = Files.newInputStream(file.toPath());
+      if (committed != null) {
+         stream = new BoundedInputStream(stream, committed);
+      }
+      return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+   }
+
+   /**
+    * Reads the trend of a testcase between the given builds (inclusive); if there are more than maxPoints builds in the range, the finest rollup with at most
+    * maxPoints blocks is used (or the coarsest rollup, if all have more blocks).
+    */
+   public TrendSeries readSeries(final TrendIndex index, final String testcase, final int fromBuild, final int toBuild, final int maxPoints) throws IOException {
+      int blockSize = getBlockSize(fromBuild, toBuild, maxPoints);
+      return new TrendSeries(blockSize, readPoints(index, testcase, fromBuild, toBuild, blockSize));
+   }
+
+   public static int getBlockSize(final int fromBuild, final int toBuild, final int maxPoints) {
+      long range = (long) toBuild - fromBuild + 1;
+      if (range <= maxPoints) {
+         return 1;
+      }
+      for (int candidate : ROLLUP_BLOCK_SIZES) {
+         if (range / candidate <= maxPoints) {
+            return candidate;
+         }
+      }
+      return ROLLUP_BLOCK_SIZES[ROLLUP_BLOCK_SIZES.length - 1];
+   }
+
+   public static boolean isSupportedBlockSize(final int blockSize) {
+      if (blockSize == 1) {
+         return true;
+      }
+      for (int candidate : ROLLUP_BLOCK_SIZES) {
+         if (candidate == blockSize) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Reads the points of the testcase between the given builds (inclusive) with the given block size; block size 1 returns the single builds
+    */
+   public List<TrendRollup> readPoints(final TrendIndex index, final String testcase, final int fromBuild, final int toBuild, final int blockSize)
+         throws IOException {
+      List<TrendRollup> points = new LinkedList<>();
+      if (blockSize == 1) {
+         for (Entry<Integer, TestcaseStatistic> build : readTestcase(index, testcase).getStatistics().entrySet()) {
+            if (build.getKey() >= fromBuild && build.getKey() <= toBuild) {
+               TrendRollup point = new TrendRollup(build.getKey());
+               point.add(build.getKey(), build.getValue());
+               points.add(point);
+            }
+         }
+      } else {
+         for (TrendRollup rollup : readRollups(index, testcase, blockSize).values()) {
+            if (rollup.getLastBuild() >= fromBuild && rollup.getFirstBuild() <= toBuild) {
+               points.add(rollup);
+            }
+         }
+      }
+      return points;
+   }
+
+   private Map<Integer, TrendRollup> readRollups(final TrendIndex index, final String testcase, final int blockSize) throws IOException {
+      Map<Integer, TrendRollup> rollups = new TreeMap<>();
+      String segment = index.getSegments().get(testcase);
+      if (segment == null) {
+         return rollups;
+      }
+      TrendSegmentMeta meta = readMeta(segment);
+      String rollupFile = segment + ROLLUP_SUFFIX + blockSize;
+      if (new File(trendFolder, rollupFile).exists()) {
+         try (BufferedReader reader = openCommitted(rollupFile, meta.getLengths().get(rollupFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+               if (line.isEmpty()) {
+                  continue;
+               }
+               try {
+                  addRollup(rollups, Constants.OBJECTMAPPER.readValue(line, TrendRollup.class));
+               } catch (JsonProcessingException e) {
+                  LOG.error("Skipping unreadable line of {}: {}", rollupFile, e.getMessage());
+               }
+            }
+         }
+      }
+      TrendRollup open = meta.getOpenRollups().get(blockSize);
+      if (open != null) {
+         addRollup(rollups, open);
+      }
+      return rollups;
+   }
+
+   private void addRollup(final Map<Integer, TrendRollup> rollups, final TrendRollup rollup) {
+      TrendRollup existing = rollups.get(rollup.getBlock());
+      if (existing == null) {
+         TrendRollup copy = new TrendRollup(rollup.getBlock());
+         copy.merge(rollup);
+         rollups.put(rollup.getBlock(), copy);
+      } else {
+         existing.merge(rollup);
+      }
+   }
+
+   /**
+    * Reads the values of one testcase, only reading its segment
+    */
+   public TestMeasurementValues readTestcase(final String testcase) throws IOException {
+      return readTestcase(readIndex(), testcase);
+   }
+
+   public TestMeasurementValues readTestcase(final TrendIndex index, final String testcase) throws IOException {
+      TestMeasurementValues values = new TestMeasurementValues();
+      String segment = index.getSegments().get(testcase);
+      if (segment != null) {
+         if (new File(trendFolder, segment).exists()) {
+            readSegment(segment, values);
+         }
+      }
+      return values;
+   }
+
+   public BuildMeasurementValues readAll() throws IOException {
+      TrendIndex index = readIndex();
+      BuildMeasurementValues values = new BuildMeasurementValues();
+      for (String testcase : index.getSegments().keySet()) {
+         values.getValues().put(testcase, readTestcase(index, testcase));
+      }
+      return values;
+   }
+
+   private void readSegment(final String segment, final TestMeasurementValues values) throws IOException {
+      try (BufferedReader reader = openCommitted(segment, readMeta(segment).getLengths().get(segment))) {
+         String line;
+         while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+               continue;
+            }
+            try {
+               TrendEntry entry = Constants.OBJECTMAPPER.readValue(line, TrendEntry.class);
+               values.getStatistics().put(entry.getBuild(), entry.getStatistic());
+            } catch (JsonProcessingException e) {
+               LOG.error("Skipping unreadable line of {}: {}", segment, e.getMessage());
+            }
+         }
+      }
+   }
+
+   private String createSegmentName(final TrendIndex index, final String testcase) {
+      String base = testcase.replaceAll("[^A-Za-z0-9._-]", "_");
+      String name = base + SEGMENT_SUFFIX;
+      int suffix = 1;
+      while (index.getSegments().containsValue(name) || name.equals(INDEX_FILE_NAME) || name.equals(JOURNAL_FILE_NAME)) {
+         name = base + "_" + suffix + SEGMENT_SUFFIX;
+         suffix++;
+      }
+      return name;
+   }
+
+   private void writeIndex(final TrendIndex index) throws IOException {
+      AtomicFileUtil.writeJson(indexFile, index);
+   }
+
+   /**
+    * Moves the values of a monolithic trend.json to segments; the old file is kept as trend.json.migrated
+    */
+   private boolean needsMigration() {
+      return new File(localWorkspace, TrendFileUtil.TREND_FILE_NAME).exists() && !indexFile.exists();
+   }
+
+   private void migrate() throws IOException {
+      File legacyFile = new File(localWorkspace, TrendFileUtil.TREND_FILE_NAME);
+      if (!needsMigration()) {
+         return;
+      }
+      LOG.info("Migrating {} to {}", legacyFile, trendFolder);
+      BuildMeasurementValues legacyValues = Constants.OBJECTMAPPER.readValue(legacyFile, BuildMeasurementValues.class);
+      if (trendFolder.exists()) {
+         // Left over from an interrupted migration
+         FileUtils.cleanDirectory(trendFolder);
+      } else if (!trendFolder.mkdirs()) {
+         throw new IOException("Could not create " + trendFolder);
+      }
+      TrendIndex index = new TrendIndex();
+      for (Entry<String, TestMeasurementValues> testcase : legacyValues.getValues().entrySet()) {
+         String segment = getOrCreateSegment(index, testcase.getKey());
+         TrendSegmentMeta meta = new TrendSegmentMeta();
+         for (Entry<Integer, TestcaseStatistic> build : testcase.getValue().getStatistics().entrySet()) {
+            appendLine(meta, segment, new TrendEntry(build.getKey(), build.getValue()));
+            addToRollups(index, meta, segment, build.getKey(), build.getValue());
+         }
+         AtomicFileUtil.writeJson(new File(trendFolder, segment + META_SUFFIX), meta);
+      }
+      index.setRevision(1);
+      writeIndex(index);
+      Files.move(legacyFile.toPath(), new File(localWorkspace, TrendFileUtil.TREND_FILE_NAME + MIGRATED_SUFFIX).toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+   }
+}
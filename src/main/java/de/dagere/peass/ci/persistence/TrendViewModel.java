@@ -0,0 +1,148 @@
+package de.dagere.peass.ci.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Trend series of all testcases of a job. The view model is created once per revision of the {@link TrendStore} and cached, keyed by the path of the trend
+ * store; only the models of the most recently displayed jobs are kept, so models of deleted or renamed jobs are evicted. The series of each testcase is read from its segment (or its rollups for long histories) when it is displayed first. Only the series of the whole
+ * history are cached; series of other build ranges are read on request.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class TrendViewModel {
+
+   public static final int MAX_CACHED_JOBS = 32;
+
+   private static final Map<String, TrendViewModel> CACHE = Collections.synchronizedMap(new LinkedHashMap<String, TrendViewModel>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, TrendViewModel> eldest) {
+         return size() > MAX_CACHED_JOBS;
+      }
+   });
+
+   private final TrendStore store;
+   private final TrendIndex index;
+   private final long lastModified;
+   private final Map<String, TrendSeries> series = new ConcurrentHashMap<>();
+
+   private TrendViewModel(final TrendStore store, final TrendIndex index) {
+      this.store = store;
+      this.index = index;
+      this.lastModified = store.getIndexFile().lastModified();
+   }
+
+   public static TrendViewModel get(final File localWorkspace) throws IOException {
+      TrendStore store = new TrendStore(localWorkspace);
+      TrendIndex index = store.readIndex();
+      String key = store.getIndexFile().getAbsolutePath();
+      TrendViewModel cached = CACHE.get(key);
+      if (cached != null && cached.index.getRevision() == index.getRevision()) {
+         return cached;
+      }
+      TrendViewModel model = new TrendViewModel(store, index);
+      CACHE.put(key, model);
+      return model;
+   }
+
+   public Set<String> getTestcases() {
+      return Collections.unmodifiableSet(index.getSegments().keySet());
+   }
+
+   public long getRevision() {
+      return index.getRevision();
+   }
+
+   /**
+    * Returns the modification time of the index, i.e. the time the newest build was appended
+    */
+   public long getLastModified() {
+      return lastModified;
+   }
+
+   public int getFirstBuild() {
+      return index.getFirstBuild();
+   }
+
+   public int getLastBuild() {
+      return index.getLastBuild();
+   }
+
+   public TrendSeries getSeries(final String testcase) throws IOException {
+      try {
+         return series.computeIfAbsent(testcase, name -> {
+            try {
+               return store.readSeries(index, name, index.getFirstBuild(), index.getLastBuild(), TrendStore.DEFAULT_MAX_POINTS);
+            } catch (IOException e) {
+               throw new UncheckedIOException(e);
+            }
+         });
+      } catch (UncheckedIOException e) {
+         throw e.getCause();
+      }
+   }
+
+   /**
+    * Returns the series of the testcase between the given builds (inclusive), using a resolution which keeps the number of points below maxPoints
+    */
+   public TrendSeries getSeries(final String testcase, final int fromBuild, final int toBuild, final int maxPoints) throws IOException {
+      if (fromBuild <= index.getFirstBuild() && toBuild >= index.getLastBuild() && maxPoints == TrendStore.DEFAULT_MAX_POINTS) {
+         return getSeries(testcase);
+      }
+      return store.readSeries(index, testcase, fromBuild, toBuild, maxPoints);
+   }
+
+   /**
+    * Writes the points of the given testcases in the build range as JSON; if blockSize is null, the block size is chosen by the size of the range and
+    * maxPoints
+    */
+   public void writeJson(final OutputStream out, final Collection<String> testcases, final int fromBuild, final int toBuild, final Integer blockSize,
+         final int maxPoints) throws IOException {
+      int usedBlockSize = blockSize != null ? blockSize : TrendStore.getBlockSize(fromBuild, toBuild, maxPoints);
+      try (JsonGenerator generator = Constants.OBJECTMAPPER.getFactory().createGenerator(out)) {
+         generator.writeStartObject();
+         generator.writeNumberField("revision", index.getRevision());
+         generator.writeNumberField("firstBuild", index.getFirstBuild());
+         generator.writeNumberField("lastBuild", index.getLastBuild());
+         generator.writeNumberField("from", fromBuild);
+         generator.writeNumberField("to", toBuild);
+         generator.writeNumberField("blockSize", usedBlockSize);
+         generator.writeObjectFieldStart("testcases");
+         for (String testcase : testcases) {
+            if (!index.getSegments().containsKey(testcase)) {
+               continue;
+            }
+            generator.writeArrayFieldStart(testcase);
+            for (TrendRollup point : store.readPoints(index, testcase, fromBuild, toBuild, usedBlockSize)) {
+               generator.writeStartObject();
+               generator.writeNumberField("firstBuild", point.getFirstBuild());
+               generator.writeNumberField("lastBuild", point.getLastBuild());
+               generator.writeNumberField("count", point.getCount());
+               generator.writeNumberField("mean", point.getMean());
+               generator.writeNumberField("deviation", point.getDeviation());
+               generator.writeNumberField("min", point.getMin());
+               generator.writeNumberField("max", point.getMax());
+               generator.writeEndObject();
+            }
+            generator.writeEndArray();
+         }
+         generator.writeEndObject();
+         generator.writeEndObject();
+      }
+   }
+}
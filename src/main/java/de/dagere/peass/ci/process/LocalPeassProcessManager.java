@@ -1,13 +1,20 @@
 package de.dagere.peass.ci.process;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import javax.xml.bind.JAXBException;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -21,48 +28,104 @@ import de.dagere.peass.ci.ContinuousFolderUtil;
 import de.dagere.peass.ci.MeasureVersionAction;
 import de.dagere.peass.ci.PeassProcessConfiguration;
 import de.dagere.peass.ci.RTSResult;
+import de.dagere.peass.ci.helper.BorderlineTestSelector;
+import de.dagere.peass.ci.helper.BudgetPlanner;
 import de.dagere.peass.ci.helper.DefaultMeasurementVisualizer;
 import de.dagere.peass.ci.helper.HistogramReader;
 import de.dagere.peass.ci.helper.HistogramValues;
+import de.dagere.peass.ci.helper.MeasurementResultMerger;
+import de.dagere.peass.ci.helper.MeasurementSummarizer;
+import de.dagere.peass.ci.helper.MeasurementSummary;
 import de.dagere.peass.ci.helper.RCAVisualizer;
+import de.dagere.peass.ci.helper.RepetitionCalibrator;
+import de.dagere.peass.ci.helper.SteadyStateDetector;
+import de.dagere.peass.ci.helper.TestPrioritizer;
 import de.dagere.peass.ci.helper.VisualizationFolderManager;
 import de.dagere.peass.ci.logs.LogActionCreator;
+import de.dagere.peass.ci.persistence.ChangeHistory;
+import de.dagere.peass.ci.persistence.JobDataLock;
+import de.dagere.peass.ci.persistence.MeasurementRecommendations;
+import de.dagere.peass.ci.persistence.RCAIndex;
+import de.dagere.peass.ci.persistence.TestMeasurementValues;
 import de.dagere.peass.ci.persistence.TrendFileUtil;
+import de.dagere.peass.ci.persistence.TrendIndex;
+import de.dagere.peass.ci.persistence.TrendStore;
 import de.dagere.peass.ci.remote.RemoteMeasurer;
 import de.dagere.peass.ci.remote.RemoteRCA;
 import de.dagere.peass.ci.remote.RemoteRTS;
+import de.dagere.peass.ci.rts.RTSDataContext;
 import de.dagere.peass.ci.rts.RTSVisualizationCreator;
+import de.dagere.peass.ci.sync.IncrementalSync;
+import de.dagere.peass.ci.sync.SyncScope;
+import de.dagere.peass.config.MeasurementConfig;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import de.dagere.peass.folders.ResultsFolders;
 import de.dagere.peass.measurement.analysis.ProjectStatistics;
 import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
 import de.dagere.peass.measurement.rca.CauseSearcherConfig;
 import de.dagere.peass.measurement.rca.RCAStrategy;
-import de.dagere.peass.utils.Constants;
 import hudson.FilePath;
+import hudson.model.Computer;
 import hudson.model.Run;
 import hudson.model.TaskListener;
-import hudson.util.DirScanner;
 
 public class LocalPeassProcessManager {
 
    private static final Logger LOG = LogManager.getLogger(LocalPeassProcessManager.class);
 
+   private static final String RECOMMENDATIONS_LOCK_FILE_NAME = "recommendations.lock";
+   private static final String CHANGE_HISTORY_LOCK_FILE_NAME = "change-history.lock";
+
+   /**
+    * Folders of the peass folder which contain results that are visualized; all other folders, e.g. project copies and temporary folders, are not copied
+    */
+   private static final String MEASURE_LOG_FOLDER = "logs/measureLogs";
+   private static final String RCA_LOG_FOLDER = "logs/rcaLogs";
+   private static final String RCA_FOLDER = "rca";
+   private static final String RCA_TREE_FOLDER = RCA_FOLDER + "/tree";
+
+   /**
+    * Count of chunks of descending priority, after each of which the results are written if the tests are prioritized
+    */
+   private static final int PRIORITY_CHUNKS = 4;
+
    private final FilePath workspace;
    private final File localWorkspace;
+   private final File sharedWorkspace;
    private final TaskListener listener;
    private final PeassProcessConfiguration peassConfig;
    private final ResultsFolders results;
    private final LogActionCreator logActionCreator;
    private final VisualizationFolderManager visualizationFolders;
+   private final String projectName;
+   private final Run<?, ?> run;
+   private MeasurementSummary measurementSummary;
+   /**
+    * Warmup of the tests which were measured in groups; the steady state detection needs it, since the detail results do not contain the warmup iterations
+    */
+   private final Map<String, Integer> appliedWarmups = new HashMap<>();
+   private final Set<TestCase> skippedTests = new LinkedHashSet<>();
+   private final Set<TestCase> borderlineTests = new LinkedHashSet<>();
+   private RTSDataContext rtsData;
 
    public LocalPeassProcessManager(final PeassProcessConfiguration peassConfig, final FilePath workspace, final File localWorkspace, final TaskListener listener,
          final Run<?, ?> run) {
+      this(peassConfig, workspace, localWorkspace, localWorkspace, listener, run);
+   }
+
+   /**
+    * Creates a process manager which uses the given local workspace for the data of the build and the shared workspace for data of all builds, i.e. the trend
+    * and, if isolated workspaces are used, the RTS results.
+    */
+   public LocalPeassProcessManager(final PeassProcessConfiguration peassConfig, final FilePath workspace, final File localWorkspace, final File sharedWorkspace,
+         final TaskListener listener, final Run<?, ?> run) {
       this.peassConfig = peassConfig;
       this.workspace = workspace;
       this.localWorkspace = localWorkspace;
+      this.sharedWorkspace = sharedWorkspace;
       this.listener = listener;
-      String projectName = new File(workspace.getRemote()).getName();
+      this.run = run;
+      projectName = new File(workspace.getRemote()).getName();
       this.results = new ResultsFolders(localWorkspace, projectName);
       visualizationFolders = new VisualizationFolderManager(localWorkspace, projectName, run);
       this.logActionCreator = new LogActionCreator(peassConfig, run, visualizationFolders);
@@ -70,17 +133,25 @@ public class LocalPeassProcessManager {
    }
 
    public RTSResult rts() throws IOException, InterruptedException {
+      SharedArtifacts sharedArtifacts = null;
+      if (!sharedWorkspace.equals(localWorkspace)) {
+         sharedArtifacts = new SharedArtifacts(sharedWorkspace, localWorkspace, results, listener.getLogger());
+         sharedArtifacts.seed(getRemotePeassFolder());
+      }
       RemoteRTS rts = new RemoteRTS(peassConfig, listener);
       RTSResult result = workspace.act(rts);
-      copyFromRemote();
+      copyFromRemote(SyncScope.all());
+      if (sharedArtifacts != null) {
+         sharedArtifacts.publish();
+      }
       if (result != null) {
          String versionOld = result.getVersionOld();
          listener.getLogger().println("Setting predecessor version, obtained by RTS: " + versionOld);
          peassConfig.getMeasurementConfig().getExecutionConfig().setVersionOld(versionOld);
       }
       if (peassConfig.isDisplayRTSLogs()) {
-         RTSInfos infos = RTSInfos.readInfosFromFolders(results, peassConfig);
-         logActionCreator.createRTSActions(infos);
+         RTSInfos infos = RTSInfos.readInfos(getRTSData());
+         logActionCreator.createRTSActions(infos, getRTSData());
       }
       if (result != null && result.getTests() != null) {
          return result;
@@ -90,64 +161,572 @@ public class LocalPeassProcessManager {
 
    }
 
+   /**
+    * Returns the RTS data of the current version, which is shared by all consumers of this build, so the RTS files are only parsed once
+    */
+   private RTSDataContext getRTSData() {
+      if (rtsData == null) {
+         rtsData = new RTSDataContext(results, peassConfig.getMeasurementConfig().getExecutionConfig().getVersion());
+      }
+      return rtsData;
+   }
+
    public boolean measure(final Set<TestCase> tests) throws IOException, InterruptedException {
-      final RemoteMeasurer remotePerformer = new RemoteMeasurer(peassConfig, listener, tests);
-      boolean worked = workspace.act(remotePerformer);
-      listener.getLogger().println("Measurement worked: " + worked);
-      copyFromRemote();
+      boolean budgeted = peassConfig.getMeasurementBudget() > 0;
+      MeasurementConfig measurementConfig = peassConfig.getMeasurementConfig();
+      Set<TestCase> orderedTests = peassConfig.isPrioritizeTests() ? prioritize(tests) : tests;
+      MeasurementAgentPool pool = null;
+      String agentLabel = peassConfig.getMeasurementAgentLabel();
+      if (agentLabel != null && !agentLabel.trim().isEmpty()) {
+         if (budgeted) {
+            listener.getLogger().println("Budgeted measurement is only executed on the build agent");
+         } else {
+            pool = new MeasurementAgentPool(peassConfig, workspace, localWorkspace, listener, run.getNumber());
+            if (!pool.hasAdditionalAgents()) {
+               pool.close();
+               pool = null;
+            }
+         }
+      }
+      boolean worked;
+      if (budgeted) {
+         worked = measureWithinBudget(orderedTests);
+      } else {
+         if (pool != null) {
+            try {
+               worked = measureDistributed(orderedTests, pool);
+            } finally {
+               pool.close();
+            }
+         } else if (peassConfig.isPrioritizeTests()) {
+            worked = measurePrioritized(orderedTests);
+         } else {
+            Map<TestCase, Integer> configuredVMs = new LinkedHashMap<>();
+            tests.forEach(test -> configuredVMs.put(test, measurementConfig.getVms()));
+            Map<MeasurementGroup, Set<TestCase>> groups = getMeasurementGroups(configuredVMs);
+            MeasurementGroup configuredGroup = new MeasurementGroup(measurementConfig.getVms(), measurementConfig.getWarmup(), measurementConfig.getIterations(),
+                  measurementConfig.getRepetitions());
+            if (groups.isEmpty() || (groups.size() == 1 && groups.containsKey(configuredGroup))) {
+               final RemoteMeasurer remotePerformer = new RemoteMeasurer(peassConfig, listener, tests);
+               measurementSummary = workspace.act(remotePerformer);
+               worked = measurementSummary.isWorked();
+               listener.getLogger().println("Measurement worked: " + worked + " Summarized on agent: " + measurementSummary.isSummarized());
+               copyFromRemote(getMeasurementScope());
+            } else {
+               worked = measureGroups(groups);
+            }
+         }
+         if (worked && peassConfig.isAdaptiveVMs()) {
+            worked = measureBorderlineTests(tests);
+         }
+      }
+      if (peassConfig.isAdaptiveWarmup() || peassConfig.isCalibrateRepetitions()) {
+         storeRecommendations(tests);
+      }
+      if (measurementSummary != null && measurementSummary.isSummarized()) {
+         logActionCreator.setRunSuccess(measurementSummary.getRunSuccess());
+      }
       if (peassConfig.isDisplayLogs()) {
          logActionCreator.createMeasurementActions(tests);
       }
       return worked;
    }
 
+   /**
+    * Groups the tests by their VM count and their recommended warmup, iterations and repetitions, keeping the order of the given tests; without adaptive warmup and
+    * calibrated repetitions, all tests use the configured warmup, iterations and repetitions
+    */
+   private Map<MeasurementGroup, Set<TestCase>> getMeasurementGroups(final Map<TestCase, Integer> testVMs) throws IOException {
+      int configuredWarmup = peassConfig.getMeasurementConfig().getWarmup();
+      int configuredIterations = peassConfig.getMeasurementConfig().getIterations();
+      int configuredRepetitions = peassConfig.getMeasurementConfig().getRepetitions();
+      Map<MeasurementGroup, Set<TestCase>> groups = new LinkedHashMap<>();
+      MeasurementRecommendations recommendations = peassConfig.isAdaptiveWarmup() || peassConfig.isCalibrateRepetitions()
+            ? MeasurementRecommendations.read(sharedWorkspace)
+            : new MeasurementRecommendations();
+      for (Map.Entry<TestCase, Integer> entry : testVMs.entrySet()) {
+         TestCase test = entry.getKey();
+         int warmup = peassConfig.isAdaptiveWarmup() ? recommendations.findWarmup(test, configuredWarmup) : configuredWarmup;
+         appliedWarmups.put(test.getExecutable(), warmup);
+         int iterations = peassConfig.isAdaptiveWarmup() ? recommendations.findIterations(test, configuredIterations) : configuredIterations;
+         int repetitions = peassConfig.isCalibrateRepetitions() ? recommendations.findRepetitions(test, configuredRepetitions) : configuredRepetitions;
+         groups.computeIfAbsent(new MeasurementGroup(entry.getValue(), warmup, iterations, repetitions), key -> new LinkedHashSet<>()).add(test);
+      }
+      return groups;
+   }
+
+   /**
+    * Measures every group of tests with its configuration; since every measurement only analyses its own tests, changes and statistics of all tests are computed
+    * by peass from the copied results, so grouping does not change the verdict
+    */
+   private boolean measureGroups(final Map<MeasurementGroup, Set<TestCase>> groups) throws IOException, InterruptedException {
+      measurementSummary = null;
+      boolean worked = true;
+      for (Map.Entry<MeasurementGroup, Set<TestCase>> group : groups.entrySet()) {
+         worked &= measureGroup(group.getKey(), group.getValue());
+      }
+      new MeasurementResultMerger(peassConfig.getMeasurementConfig(), localWorkspace, projectName).writeChangesAndStatistics();
+      return worked;
+   }
+
+   /**
+    * Orders the tests by their past changes, their trend volatility and their proximity to the changed code
+    */
+   private Set<TestCase> prioritize(final Set<TestCase> tests) throws IOException {
+      TestPrioritizer prioritizer = new TestPrioritizer(readChangeHistory(), readTrend(tests),
+            TestPrioritizer.getProximity(getRTSData().getVersionDependencies(), getRTSData().getTraceSelectedTests()));
+      Set<TestCase> orderedTests = prioritizer.prioritize(tests);
+      listener.getLogger().println("Prioritized tests: " + orderedTests);
+      return orderedTests;
+   }
+
+   /**
+    * Measures the tests in chunks of descending priority and writes changes and statistics after every chunk. If the build is aborted, the results of the measured
+    * chunks are visualized and added to the trend before the abort is passed on, so an aborted build already contains the results of the most important tests.
+    */
+   private boolean measurePrioritized(final Set<TestCase> orderedTests) throws IOException, InterruptedException {
+      List<TestCase> testList = new ArrayList<>(orderedTests);
+      int chunkSize = (int) Math.ceil((double) testList.size() / PRIORITY_CHUNKS);
+      boolean worked = true;
+      int measuredTests = 0;
+      try {
+         for (int start = 0; start < testList.size(); start += chunkSize) {
+            List<TestCase> chunk = testList.subList(start, Math.min(start + chunkSize, testList.size()));
+            listener.getLogger().println("Measuring tests " + (start + 1) + " - " + (start + chunk.size()) + " of " + testList.size() + " by priority");
+            Map<TestCase, Integer> chunkVMs = new LinkedHashMap<>();
+            chunk.forEach(test -> chunkVMs.put(test, peassConfig.getMeasurementConfig().getVms()));
+            worked &= measureGroups(getMeasurementGroups(chunkVMs));
+            measuredTests += chunk.size();
+         }
+      } catch (InterruptedException e) {
+         if (measuredTests > 0) {
+            listener.getLogger().println("Measurement was aborted, publishing the results of " + measuredTests + " of " + testList.size() + " tests");
+            try {
+               visualizeMeasurementResults(run);
+            } catch (IOException | JAXBException visualizationException) {
+               listener.getLogger().println("Could not publish the results of the aborted measurement: " + visualizationException.getMessage());
+               visualizationException.printStackTrace();
+            }
+         }
+         throw e;
+      }
+      return worked;
+   }
+
+   private boolean measureGroup(final MeasurementGroup group, final Set<TestCase> tests) throws IOException, InterruptedException {
+      listener.getLogger().println("Measuring " + tests.size() + " tests with " + group);
+      PeassProcessConfiguration groupConfig = peassConfig.copyWithTestConfiguration(group.getVms(), group.getWarmup(), group.getIterations(),
+            group.getRepetitions());
+      final RemoteMeasurer groupMeasurer = new RemoteMeasurer(groupConfig, listener, tests);
+      boolean worked = workspace.act(groupMeasurer).isWorked();
+      copyFromRemote(getMeasurementScope());
+      return worked;
+   }
+
+   /**
+    * Measures the tests with the VMs planned for the budget, starting with the tests of the highest priority. Before every group, the tests which do not fit into
+    * the remaining budget are skipped; they are reported as inconclusive together with the measured tests whose result is still borderline.
+    */
+   private boolean measureWithinBudget(final Set<TestCase> tests) throws IOException, InterruptedException {
+      long start = System.currentTimeMillis();
+      long budget = peassConfig.getMeasurementBudget() * 60L * 1000;
+      MeasurementRecommendations recommendations = MeasurementRecommendations.read(sharedWorkspace);
+      long vmOverhead = recommendations.getVmOverhead() > 0 ? recommendations.getVmOverhead() : BudgetPlanner.DEFAULT_VM_OVERHEAD;
+      BudgetPlanner planner = new BudgetPlanner(peassConfig.getMeasurementConfig(), peassConfig.getMaximumVMs(), vmOverhead, readLatestStatistics(tests));
+      Map<TestCase, Integer> plan = planner.plan(tests, budget);
+      Map<TestCase, Integer> plannedVMs = plan;
+      if (peassConfig.isPrioritizeTests()) {
+         // The plan is ordered by the need of VMs, but the prioritized order of the tests should be kept
+         plannedVMs = new LinkedHashMap<>();
+         for (TestCase test : tests) {
+            plannedVMs.put(test, plan.get(test));
+         }
+      }
+      listener.getLogger().println("Planned VMs for budget of " + peassConfig.getMeasurementBudget() + " minutes: " + plannedVMs);
+
+      measurementSummary = null;
+      MeasurementResultMerger merger = new MeasurementResultMerger(peassConfig.getMeasurementConfig(), localWorkspace, projectName);
+      boolean worked = true;
+      Set<TestCase> skipped = new LinkedHashSet<>();
+      long observedOverhead = 0;
+      int observedVMs = 0;
+      for (Map.Entry<MeasurementGroup, Set<TestCase>> group : getMeasurementGroups(plannedVMs).entrySet()) {
+         int vms = group.getKey().getVms();
+         long remaining = budget - (System.currentTimeMillis() - start);
+         Set<TestCase> fitting = new LinkedHashSet<>();
+         long estimated = 0;
+         for (TestCase test : group.getValue()) {
+            long testDuration = vms * planner.estimateVMDuration(test);
+            if (estimated + testDuration <= remaining) {
+               fitting.add(test);
+               estimated += testDuration;
+            } else {
+               skipped.add(test);
+            }
+         }
+         if (!fitting.isEmpty()) {
+            long groupStart = System.currentTimeMillis();
+            worked &= measureGroup(group.getKey(), fitting);
+            if (fitting.stream().allMatch(planner::hasHistory)) {
+               long measurementDuration = vms * fitting.stream().mapToLong(planner::estimateMeasurementDuration).sum();
+               observedOverhead += System.currentTimeMillis() - groupStart - measurementDuration;
+               observedVMs += vms * fitting.size();
+            }
+            if (peassConfig.isPrioritizeTests()) {
+               merger.writeChangesAndStatistics();
+            }
+         }
+      }
+      merger.writeChangesAndStatistics();
+      if (observedVMs > 0) {
+         storeVMOverhead(Math.max(0, observedOverhead / observedVMs));
+      }
+      reportInconclusiveTests(plannedVMs.keySet(), skipped);
+      return worked;
+   }
+
+   private Map<TestCase, TestMeasurementValues> readTrend(final Set<TestCase> tests) throws IOException {
+      TrendStore store = new TrendStore(sharedWorkspace);
+      TrendIndex index = store.readIndex();
+      Map<TestCase, TestMeasurementValues> trend = new HashMap<>();
+      for (TestCase test : tests) {
+         trend.put(test, store.readTestcase(index, test.toString()));
+      }
+      return trend;
+   }
+
+   private Map<TestCase, TestcaseStatistic> readLatestStatistics(final Set<TestCase> tests) throws IOException {
+      Map<TestCase, TestcaseStatistic> latest = new HashMap<>();
+      for (Map.Entry<TestCase, TestMeasurementValues> entry : readTrend(tests).entrySet()) {
+         Map<Integer, TestcaseStatistic> statistics = entry.getValue().getStatistics();
+         statistics.keySet().stream().max(Integer::compare).ifPresent(build -> latest.put(entry.getKey(), statistics.get(build)));
+      }
+      return latest;
+   }
+
+   /**
+    * Stores the observed overhead per VM, averaged with the previous observation, so the next budgeted builds plan with realistic VM durations
+    */
+   private void storeVMOverhead(final long observedOverhead) throws IOException {
+      listener.getLogger().println("Observed VM overhead: " + observedOverhead + " ms");
+      try (Closeable lock = JobDataLock.acquire(new File(sharedWorkspace, RECOMMENDATIONS_LOCK_FILE_NAME))) {
+         MeasurementRecommendations recommendations = MeasurementRecommendations.read(sharedWorkspace);
+         long previousOverhead = recommendations.getVmOverhead();
+         recommendations.setVmOverhead(previousOverhead > 0 ? (previousOverhead + observedOverhead) / 2 : observedOverhead);
+         recommendations.write(sharedWorkspace);
+      }
+   }
+
+   /**
+    * Collects the tests which were skipped and the measured tests whose result is still borderline; they are added to the measurement action of the build
+    */
+   private void reportInconclusiveTests(final Set<TestCase> plannedTests, final Set<TestCase> skipped) throws IOException {
+      MeasurementConfig measurementConfig = peassConfig.getMeasurementConfig();
+      Map<TestCase, TestcaseStatistic> versionStatistics = MeasurementSummarizer.readStatistics(results).getStatistics()
+            .get(measurementConfig.getExecutionConfig().getVersion());
+      BorderlineTestSelector selector = new BorderlineTestSelector(measurementConfig);
+      skippedTests.clear();
+      skippedTests.addAll(skipped);
+      borderlineTests.clear();
+      for (TestCase test : plannedTests) {
+         if (!skipped.contains(test)) {
+            TestcaseStatistic statistic = versionStatistics != null ? versionStatistics.get(test) : null;
+            if (statistic == null || selector.isBorderline(statistic)) {
+               borderlineTests.add(test);
+            }
+         }
+      }
+      if (!skipped.isEmpty()) {
+         listener.getLogger().println("Measurement budget exhausted, skipped " + skipped.size() + " tests: " + skipped);
+      }
+      listener.getLogger().println("Tests with borderline result: " + borderlineTests);
+   }
+
+   /**
+    * Stores the warmup detected in this measurement (the applied warmup plus the detected truncation point), limited by the minimum warmup and the configured
+    * warmup, and the repetitions calibrated from this measurement for the next builds
+    */
+   private void storeRecommendations(final Set<TestCase> tests) throws IOException {
+      MeasurementConfig measurementConfig = peassConfig.getMeasurementConfig();
+      Map<String, Integer> detectedWarmups = null;
+      Map<String, Integer> detectedIterations = null;
+      if (peassConfig.isAdaptiveWarmup()) {
+         if (measurementSummary != null && measurementSummary.isSummarized()) {
+            detectedWarmups = measurementSummary.getDetectedWarmups();
+            detectedIterations = measurementSummary.getDetectedIterations();
+         } else {
+            File detailResultsFolder = new File(results.getVersionFullResultsFolder(measurementConfig), "measurements");
+            SteadyStateDetector detector = new SteadyStateDetector(measurementConfig);
+            detectedWarmups = detector.detect(detailResultsFolder, tests, appliedWarmups);
+            detectedIterations = detector.getDetectedIterations();
+         }
+         listener.getLogger().println("Detected warmup: " + detectedWarmups);
+         listener.getLogger().println("Recommended iterations: " + detectedIterations);
+      }
+      Map<String, Integer> calibratedRepetitions = null;
+      if (peassConfig.isCalibrateRepetitions()) {
+         RepetitionCalibrator calibrator = new RepetitionCalibrator(measurementConfig.getExecutionConfig().getVersion(), peassConfig.getTargetIterationDuration());
+         calibratedRepetitions = calibrator.calibrate(results.getVersionFullResultsFolder(measurementConfig), tests);
+         listener.getLogger().println("Calibrated repetitions: " + calibratedRepetitions);
+      }
+      try (Closeable lock = JobDataLock.acquire(new File(sharedWorkspace, RECOMMENDATIONS_LOCK_FILE_NAME))) {
+         MeasurementRecommendations recommendations = MeasurementRecommendations.read(sharedWorkspace);
+         if (detectedWarmups != null) {
+            recommendations.updateWarmups(detectedWarmups, peassConfig.getMinimumWarmup(), measurementConfig.getWarmup());
+            recommendations.updateIterations(detectedIterations, SteadyStateDetector.MINIMUM_ITERATIONS, measurementConfig.getIterations());
+         }
+         if (calibratedRepetitions != null) {
+            recommendations.updateRepetitions(calibratedRepetitions);
+         }
+         recommendations.write(sharedWorkspace);
+      }
+   }
+
+   /**
+    * Measures the tests whose t value is close to the critical t value with additional VMs, up to the maximum VM count. The results of the first measurement are
+    * copied to the controller and removed on the agent, so the additional VMs can be merged with the following VM indices. The additional VMs are measured with the
+    * same warmup, iterations and repetitions as the first VMs of the test, since the recommendations are only updated afterwards.
+    */
+   private boolean measureBorderlineTests(final Set<TestCase> tests) throws IOException, InterruptedException {
+      MeasurementConfig measurementConfig = peassConfig.getMeasurementConfig();
+      int additionalVMs = peassConfig.getMaximumVMs() - measurementConfig.getVms();
+      ProjectStatistics statistics = measurementSummary != null && measurementSummary.isSummarized() ? measurementSummary.getStatistics()
+            : MeasurementSummarizer.readStatistics(results);
+      Set<TestCase> borderlineTests = new BorderlineTestSelector(measurementConfig).select(statistics);
+      borderlineTests.retainAll(tests);
+      String fullResultsPath = getRelativePath(results.getVersionFullResultsFolder(measurementConfig));
+      if (borderlineTests.isEmpty() || additionalVMs <= 0 || fullResultsPath.isEmpty()) {
+         listener.getLogger().println("No borderline tests or no additional VMs allowed, not adding VMs");
+         return true;
+      }
+      listener.getLogger().println("Measuring " + additionalVMs + " additional VMs for borderline tests: " + borderlineTests);
+
+      measurementSummary = null;
+      copyFromRemote(getMeasurementScope());
+      FilePath remotePeassFolder = getRemotePeassFolder();
+      // The remote results and logs of the tests are removed, so only the results of the additional VMs are copied and merged
+      remotePeassFolder.child(fullResultsPath).deleteRecursive();
+      for (TestCase test : borderlineTests) {
+         remotePeassFolder.child(getTestLogPath(test)).deleteRecursive();
+      }
+
+      // The additional VMs need the configuration of the first VMs of the test, otherwise their values can not be merged
+      Map<TestCase, Integer> borderlineVMs = new LinkedHashMap<>();
+      borderlineTests.forEach(test -> borderlineVMs.put(test, additionalVMs));
+      boolean worked = true;
+      for (Map.Entry<MeasurementGroup, Set<TestCase>> group : getMeasurementGroups(borderlineVMs).entrySet()) {
+         PeassProcessConfiguration groupConfig = peassConfig.copyWithTestConfiguration(additionalVMs, group.getKey().getWarmup(), group.getKey().getIterations(),
+               group.getKey().getRepetitions());
+         final RemoteMeasurer additionalMeasurer = new RemoteMeasurer(groupConfig, listener, group.getValue());
+         worked &= workspace.act(additionalMeasurer).isWorked();
+      }
+
+      File additionalFolder = new File(localWorkspace, "additional");
+      try {
+         new IncrementalSync(remotePeassFolder, additionalFolder, listener.getLogger()).sync(getAdditionalVMScope(borderlineTests));
+         MeasurementResultMerger merger = new MeasurementResultMerger(measurementConfig, localWorkspace, projectName);
+         merger.merge(additionalFolder, borderlineTests, measurementConfig.getVms(), additionalVMs);
+         merger.writeChangesAndStatistics();
+      } finally {
+         FileUtils.deleteDirectory(additionalFolder);
+      }
+      return worked;
+   }
+
+   /**
+    * Measures on all agents of the pool, one measurement group after another in the order of the given tests; since the agents only summarize their own VMs, the
+    * merged results are visualized from the raw files on the controller. The additional VMs of borderline tests are measured on the build agent afterwards.
+    */
+   private boolean measureDistributed(final Set<TestCase> orderedTests, final MeasurementAgentPool pool) throws IOException, InterruptedException {
+      measurementSummary = null;
+      if (peassConfig.isPrioritizeTests()) {
+         listener.getLogger().println("Distributed measurement measures the tests in prioritized order, but does not publish results before all tests are measured");
+      }
+      Map<TestCase, Integer> configuredVMs = new LinkedHashMap<>();
+      orderedTests.forEach(test -> configuredVMs.put(test, peassConfig.getMeasurementConfig().getVms()));
+      boolean worked = true;
+      for (Map.Entry<MeasurementGroup, Set<TestCase>> group : getMeasurementGroups(configuredVMs).entrySet()) {
+         listener.getLogger().println("Measuring " + group.getValue().size() + " tests with " + group.getKey() + " on the measurement agents");
+         PeassProcessConfiguration groupConfig = peassConfig.copyWithTestConfiguration(group.getKey().getVms(), group.getKey().getWarmup(),
+               group.getKey().getIterations(), group.getKey().getRepetitions());
+         worked &= pool.measure(group.getValue(), groupConfig, getMeasurementScope(), () -> copyFromRemote(getMeasurementScope()));
+      }
+      listener.getLogger().println("Distributed measurement worked: " + worked);
+      return worked;
+   }
+
    public boolean rca(final ProjectChanges changes, final RCAStrategy rcaStrategy) throws IOException, InterruptedException, Exception {
       final CauseSearcherConfig causeSearcherConfig = new CauseSearcherConfig(null, true, true, 0.01, false, true, rcaStrategy, 1);
 
       RemoteRCA remoteRCAExecutor = new RemoteRCA(peassConfig, causeSearcherConfig, changes, listener);
       boolean rcaWorked = workspace.act(remoteRCAExecutor);
-      copyFromRemote();
+      copyFromRemote(getRCAScope());
       return rcaWorked;
    }
 
    public void copyFromRemote() throws IOException, InterruptedException {
+      copyFromRemote(SyncScope.all());
+   }
+
+   /**
+    * Copies all files of the given scope which changed since the last copy from the remote peass folder to the local workspace
+    */
+   public void copyFromRemote(final SyncScope scope) throws IOException, InterruptedException {
+      FilePath remotePeassFolder = getRemotePeassFolder();
+      IncrementalSync sync = new IncrementalSync(remotePeassFolder, localWorkspace, listener.getLogger());
+      int count = sync.sync(scope);
+      listener.getLogger().println("Copied " + count + " files from " + remotePeassFolder + " to " + localWorkspace.getAbsolutePath());
+   }
+
+   private FilePath getRemotePeassFolder() {
       String remotePeassPath = ContinuousFolderUtil.getLocalFolder(new File(workspace.getRemote())).getPath();
-      listener.getLogger().println(Arrays.toString(new RuntimeException().getStackTrace()));
       listener.getLogger().println("Remote Peass path: " + remotePeassPath);
-      FilePath remotePeassFolder = new FilePath(workspace.getChannel(), remotePeassPath);
-      DirScanner.Glob dirScanner = new DirScanner.Glob("**/*,**/.git/**", "", false);
-      int count = remotePeassFolder.copyRecursiveTo(dirScanner, new FilePath(localWorkspace), "Copy including git folder");
-      listener.getLogger().println("Copied " + count + " files from " + remotePeassFolder + " to " + localWorkspace.getAbsolutePath());
+      return new FilePath(workspace.getChannel(), remotePeassPath);
+   }
+
+   private SyncScope getMeasurementScope() {
+      File fullResultsFolder = results.getVersionFullResultsFolder(peassConfig.getMeasurementConfig());
+      SyncScope scope = new SyncScope()
+            .include(getRelativePath(fullResultsFolder))
+            .include(getRelativePath(results.getChangeFile()))
+            .include(getRelativePath(results.getStatisticsFile()))
+            .include(getRelativePath(results.getMeasurementLogFolder()))
+            .include(getPeassFolderPath(MEASURE_LOG_FOLDER));
+      if (measurementSummary != null && measurementSummary.isSummarized()) {
+         // The detail results are only needed for summarizing, which was already done on the agent
+         scope.exclude(getRelativePath(new File(fullResultsFolder, "measurements")));
+      }
+      return scope;
+   }
+
+   /**
+    * Returns the scope of the results of additional VMs, i.e. the results folder and the logs of the given tests
+    */
+   private SyncScope getAdditionalVMScope(final Set<TestCase> tests) {
+      SyncScope scope = new SyncScope()
+            .include(getRelativePath(results.getVersionFullResultsFolder(peassConfig.getMeasurementConfig())));
+      for (TestCase test : tests) {
+         scope.include(getTestLogPath(test));
+      }
+      return scope;
+   }
+
+   private SyncScope getRCAScope() {
+      SyncScope scope = new SyncScope()
+            .include(getRelativePath(results.getRCALogFolder()))
+            .include(getPeassFolderPath(RCA_LOG_FOLDER))
+            .include(getPeassFolderPath(RCA_TREE_FOLDER))
+            .include(projectName + "_peass/" + RCA_FOLDER + "/" + RCAIndex.INDEX_FILE_NAME);
+      return scope;
+   }
+
+   /**
+    * Returns the path of the folder of the current version inside of the given folder of the peass folder, i.e. the only part of the folder which is read for
+    * visualization
+    */
+   private String getPeassFolderPath(final String folder) {
+      return projectName + "_peass/" + folder + "/" + peassConfig.getMeasurementConfig().getExecutionConfig().getVersion();
+   }
+
+   private String getTestLogPath(final TestCase test) {
+      return getPeassFolderPath(MEASURE_LOG_FOLDER) + "/" + test.getMethod();
+   }
+
+   /**
+    * Returns the path relative to the local workspace, which is identical to the path relative to the remote peass folder; if the file is not inside of the local
+    * workspace, the complete folder is synchronized.
+    */
+   private String getRelativePath(final File file) {
+      Path localPath = localWorkspace.toPath().toAbsolutePath().normalize();
+      Path filePath = file.toPath().toAbsolutePath().normalize();
+      if (filePath.startsWith(localPath) && !filePath.equals(localPath)) {
+         return localPath.relativize(filePath).toString().replace(File.separatorChar, '/');
+      } else {
+         return "";
+      }
    }
 
    public void visualizeRTSResults(final Run<?, ?> run) throws IOException {
-      RTSVisualizationCreator rtsVisualizationCreator = new RTSVisualizationCreator(results, peassConfig);
+      RTSVisualizationCreator rtsVisualizationCreator = new RTSVisualizationCreator(results, peassConfig, getRTSData());
       rtsVisualizationCreator.visualize(run);
    }
 
    public ProjectChanges visualizeMeasurementResults(final Run<?, ?> run)
          throws JAXBException, IOException, JsonParseException, JsonMappingException, JsonGenerationException {
+      if (measurementSummary != null && measurementSummary.isSummarized()) {
+         return visualizeMeasurementSummary(run, measurementSummary);
+      }
       File dataFolder = results.getVersionFullResultsFolder(peassConfig.getMeasurementConfig());
       final HistogramReader histogramReader = new HistogramReader(peassConfig.getMeasurementConfig(), dataFolder);
       final Map<String, HistogramValues> measurements = histogramReader.readMeasurements();
 
-      final ProjectChanges changes = getChanges();
+      final ProjectChanges changes = MeasurementSummarizer.readChanges(results);
 
-      final ProjectStatistics statistics = readStatistics();
+      final ProjectStatistics statistics = MeasurementSummarizer.readStatistics(results);
 
-      TrendFileUtil.persistTrend(run, localWorkspace, statistics);
+      TrendFileUtil.persistTrend(run, sharedWorkspace, statistics);
 
       Map<String, TestcaseStatistic> noWarmupStatistics = createPureMeasurementVisualization(run, dataFolder, measurements);
 
       Changes versionChanges = changes.getVersion(peassConfig.getMeasurementConfig().getExecutionConfig().getVersion());
+      recordChanges(run, versionChanges);
 
       final MeasureVersionAction action = new MeasureVersionAction(peassConfig.getMeasurementConfig(), versionChanges, statistics,
             noWarmupStatistics, measurements, histogramReader.getUpdatedConfigurations());
+      action.setInconclusiveTests(skippedTests, borderlineTests);
       run.addAction(action);
 
       return changes;
    }
 
+   private ProjectChanges visualizeMeasurementSummary(final Run<?, ?> run, final MeasurementSummary summary) throws IOException {
+      TrendFileUtil.persistTrend(run, sharedWorkspace, summary.getStatistics());
+
+      DefaultMeasurementVisualizer.addVisualizationActions(run, summary.getVisualizationContents(), summary.getMeasurements().keySet());
+
+      Changes versionChanges = summary.getChanges().getVersion(peassConfig.getMeasurementConfig().getExecutionConfig().getVersion());
+      recordChanges(run, versionChanges);
+
+      final MeasureVersionAction action = new MeasureVersionAction(peassConfig.getMeasurementConfig(), versionChanges, summary.getStatistics(),
+            summary.getNoWarmupStatistics(), summary.getMeasurements(), summary.getUpdatedConfigurations());
+      action.setInconclusiveTests(skippedTests, borderlineTests);
+      setRawResultLocation(action);
+      run.addAction(action);
+
+      return summary.getChanges();
+   }
+
+   /**
+    * The raw measurement files were not copied, since the results were summarized on the agent; the action fetches them from the agent on request
+    */
+   private void setRawResultLocation(final MeasureVersionAction action) {
+      Computer computer = workspace.toComputer();
+      if (computer != null) {
+         File detailResultsFolder = new File(results.getVersionFullResultsFolder(peassConfig.getMeasurementConfig()), "measurements");
+         String remoteFolder = getRemotePeassFolder().child(getRelativePath(detailResultsFolder)).getRemote();
+         action.setRawResultLocation(computer.getName(), remoteFolder);
+      }
+   }
+
+   private ChangeHistory readChangeHistory() throws IOException {
+      String version = peassConfig.getMeasurementConfig().getExecutionConfig().getVersion();
+      return ChangeHistory.read(sharedWorkspace, MeasurementSummarizer.readChanges(results), version);
+   }
+
+   /**
+    * Adds the changes of this build to the change history, which is used for prioritizing the tests of the next builds
+    */
+   private void recordChanges(final Run<?, ?> run, final Changes versionChanges) throws IOException {
+      if (versionChanges == null) {
+         return;
+      }
+      try (Closeable lock = JobDataLock.acquire(new File(sharedWorkspace, CHANGE_HISTORY_LOCK_FILE_NAME))) {
+         ChangeHistory history = readChangeHistory();
+         history.addChanges(versionChanges, run.getNumber());
+         history.write(sharedWorkspace);
+      }
+   }
+
    public void visualizeRCAResults(final Run<?, ?> run, final ProjectChanges changes) throws Exception, IOException {
       final RCAVisualizer rcaVisualizer = new RCAVisualizer(peassConfig.getMeasurementConfig(), visualizationFolders, changes, run);
       rcaVisualizer.visualizeRCA();
@@ -165,26 +744,4 @@ public class LocalPeassProcessManager {
       Map<String, TestcaseStatistic> noWarmupStatistics = visualizer.getNoWarmupStatistics();
       return noWarmupStatistics;
    }
-
-   private ProjectChanges getChanges() throws IOException, JsonParseException, JsonMappingException {
-      final File changeFile = results.getChangeFile();
-      final ProjectChanges changes;
-      if (changeFile.exists()) {
-         changes = Constants.OBJECTMAPPER.readValue(changeFile, ProjectChanges.class);
-      } else {
-         changes = new ProjectChanges();
-      }
-      return changes;
-   }
-
-   private ProjectStatistics readStatistics() throws IOException, JsonParseException, JsonMappingException {
-      final File statisticsFile = results.getStatisticsFile();
-      ProjectStatistics statistics;
-      if (statisticsFile.exists()) {
-         statistics = Constants.OBJECTMAPPER.readValue(statisticsFile, ProjectStatistics.class);
-      } else {
-         statistics = new ProjectStatistics();
-      }
-      return statistics;
-   }
 }
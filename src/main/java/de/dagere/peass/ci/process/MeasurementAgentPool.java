@@ -0,0 +1,237 @@
+package de.dagere.peass.ci.process;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.io.FileUtils;
+
+import de.dagere.peass.ci.ContinuousFolderUtil;
+import de.dagere.peass.ci.PeassProcessConfiguration;
+import de.dagere.peass.ci.helper.MeasurementResultMerger;
+import de.dagere.peass.ci.helper.MeasurementSummary;
+import de.dagere.peass.ci.remote.RemoteMeasurer;
+import de.dagere.peass.ci.sync.IncrementalSync;
+import de.dagere.peass.ci.sync.SyncScope;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Label;
+import hudson.model.Node;
+import hudson.model.Queue;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.OfflineCause;
+import hudson.util.DirScanner;
+import jenkins.model.Jenkins;
+
+/**
+ * Distributes the VMs of one measurement to the agent of the build and all idle online agents with the measurement agent label; agents which execute builds are
+ * skipped, since parallel load would disturb the measurement. The used agents are reserved by marking them temporarily offline until the pool is closed, so no
+ * build is scheduled on them while they measure; their channel stays connected. Every agent measures the same version pair with a disjoint range of VM indices, starting with the
+ * agent of the build; afterwards, the results of the additional agents are copied to the controller and merged into the results of the agent of the build. Every
+ * build uses its own folder peass-pool/&lt;project&gt;/&lt;build&gt; on the agents, which is deleted after merging.
+ *
+ * @author DaGeRe
+ *
+ */
+public class MeasurementAgentPool implements Closeable {
+
+   private static final String POOL_FOLDER = "peass-pool";
+   private static final String STAGING_FOLDER = "pool";
+
+   private final PeassProcessConfiguration peassConfig;
+   private final FilePath workspace;
+   private final File localWorkspace;
+   private final TaskListener listener;
+   private final int buildNumber;
+   private final List<Computer> reservedComputers = new ArrayList<>();
+   private final List<FilePath> agentWorkspaces;
+
+   public MeasurementAgentPool(final PeassProcessConfiguration peassConfig, final FilePath workspace, final File localWorkspace, final TaskListener listener,
+         final int buildNumber) {
+      this.peassConfig = peassConfig;
+      this.workspace = workspace;
+      this.localWorkspace = localWorkspace;
+      this.listener = listener;
+      this.buildNumber = buildNumber;
+      this.agentWorkspaces = findAgentWorkspaces();
+   }
+
+   private List<FilePath> findAgentWorkspaces() {
+      List<FilePath> workspaces = new ArrayList<>();
+      workspaces.add(workspace);
+      Jenkins jenkins = Jenkins.getInstanceOrNull();
+      Label label = jenkins != null ? jenkins.getLabel(peassConfig.getMeasurementAgentLabel()) : null;
+      if (label == null) {
+         listener.getLogger().println("Measurement agent label " + peassConfig.getMeasurementAgentLabel() + " not found, measuring on build agent only");
+         return workspaces;
+      }
+      String projectName = new File(workspace.getRemote()).getName();
+      for (Node node : label.getNodes()) {
+         Computer computer = node.toComputer();
+         VirtualChannel channel = computer != null ? computer.getChannel() : null;
+         FilePath rootPath = node.getRootPath();
+         if (channel != null && rootPath != null && channel != workspace.getChannel()) {
+            if (reserve(computer)) {
+               // The project folder needs to keep the name of the project, since peass derives the project name from it
+               workspaces.add(rootPath.child(POOL_FOLDER).child(projectName).child(Integer.toString(buildNumber)).child(projectName));
+            } else {
+               listener.getLogger().println("Skipping measurement agent " + node.getNodeName() + ", since it is busy");
+            }
+         }
+      }
+      return workspaces;
+   }
+
+   /**
+    * Marks the computer temporarily offline if it is idle; this is done under the lock of the queue, so no build can be assigned between checking and reserving
+    */
+   private boolean reserve(final Computer computer) {
+      AtomicBoolean reserved = new AtomicBoolean(false);
+      Queue.withLock(() -> {
+         if (computer.isIdle() && computer.isAcceptingTasks() && !computer.isTemporarilyOffline()) {
+            computer.setTemporarilyOffline(true, new OfflineCause.ByCLI("Reserved for peass measurement of build " + buildNumber));
+            reservedComputers.add(computer);
+            reserved.set(true);
+         }
+      });
+      return reserved.get();
+   }
+
+   /**
+    * Releases the reserved agents
+    */
+   @Override
+   public void close() {
+      for (Computer computer : reservedComputers) {
+         computer.setTemporarilyOffline(false, null);
+         listener.getLogger().println("Released measurement agent " + computer.getName());
+      }
+      reservedComputers.clear();
+   }
+
+   /**
+    * Returns whether there are agents in addition to the agent of the build; otherwise, distributing the measurement is not useful
+    */
+   public boolean hasAdditionalAgents() {
+      return agentWorkspaces.size() > 1 && peassConfig.getMeasurementConfig().getVms() > 1;
+   }
+
+   /**
+    * Returns the count of VMs of every agent, distributing the remainder to the first agents; agents without VMs are not used.
+    */
+   public static int[] partition(final int vms, final int agents) {
+      int usedAgents = Math.max(1, Math.min(vms, agents));
+      int[] shares = new int[usedAgents];
+      for (int i = 0; i < usedAgents; i++) {
+         shares[i] = vms / usedAgents + (i < vms % usedAgents ? 1 : 0);
+      }
+      return shares;
+   }
+
+   /**
+    * Executes the measurement of the tests with the configuration of their group on all agents and merges the results into the local workspace. The results of the agent
+    * of the build need to be copied to the local workspace before merging, so this is done by the given callback.
+    */
+   public boolean measure(final Set<TestCase> tests, final PeassProcessConfiguration groupConfig, final SyncScope scope, final ResultCopier buildAgentCopier)
+         throws IOException, InterruptedException {
+      int[] shares = partition(groupConfig.getMeasurementConfig().getVms(), agentWorkspaces.size());
+      listener.getLogger().println("Distributing " + groupConfig.getMeasurementConfig().getVms() + " VMs to " + shares.length + " agents");
+
+      for (int i = 1; i < shares.length; i++) {
+         prepareAgent(agentWorkspaces.get(i));
+      }
+
+      List<Future<MeasurementSummary>> futures = new ArrayList<>();
+      for (int i = 0; i < shares.length; i++) {
+         FilePath agentWorkspace = agentWorkspaces.get(i);
+         listener.getLogger().println("Measuring VMs " + getOffset(shares, i) + " - " + (getOffset(shares, i) + shares[i] - 1) + " on " + agentWorkspace);
+         RemoteMeasurer measurer = new RemoteMeasurer(groupConfig.copyWithVMs(shares[i]), listener, tests);
+         futures.add(agentWorkspace.actAsync(measurer));
+      }
+
+      boolean worked = true;
+      for (int i = 0; i < futures.size(); i++) {
+         worked &= getSummary(futures.get(i), agentWorkspaces.get(i)).isWorked();
+      }
+
+      buildAgentCopier.copy();
+      String projectName = new File(workspace.getRemote()).getName();
+      MeasurementResultMerger merger = new MeasurementResultMerger(groupConfig.getMeasurementConfig(), localWorkspace, projectName);
+      File stagingFolder = new File(localWorkspace, STAGING_FOLDER);
+      try {
+         for (int i = 1; i < shares.length; i++) {
+            File agentFolder = new File(stagingFolder, Integer.toString(i));
+            FilePath agentPeassFolder = new FilePath(agentWorkspaces.get(i).getChannel(),
+                  ContinuousFolderUtil.getLocalFolder(new File(agentWorkspaces.get(i).getRemote())).getPath());
+            new IncrementalSync(agentPeassFolder, agentFolder, listener.getLogger()).sync(scope);
+            merger.merge(agentFolder, tests, getOffset(shares, i), shares[i]);
+         }
+         merger.writeChangesAndStatistics();
+      } finally {
+         FileUtils.deleteDirectory(stagingFolder);
+         for (int i = 1; i < shares.length; i++) {
+            deleteBuildFolder(agentWorkspaces.get(i));
+         }
+      }
+      return worked;
+   }
+
+   private void deleteBuildFolder(final FilePath agentWorkspace) {
+      FilePath buildFolder = agentWorkspace.getParent();
+      try {
+         buildFolder.deleteRecursive();
+      } catch (IOException e) {
+         listener.getLogger().println("Could not delete " + buildFolder + ": " + e.getMessage());
+      } catch (InterruptedException e) {
+         listener.getLogger().println("Interrupted while deleting " + buildFolder);
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private MeasurementSummary getSummary(final Future<MeasurementSummary> future, final FilePath agentWorkspace) throws InterruptedException {
+      try {
+         return future.get();
+      } catch (ExecutionException e) {
+         listener.getLogger().println("Measurement on " + agentWorkspace + " failed: " + e.getCause());
+         e.printStackTrace(listener.getLogger());
+         return new MeasurementSummary(false);
+      }
+   }
+
+   private static int getOffset(final int[] shares, final int agentIndex) {
+      int offset = 0;
+      for (int i = 0; i < agentIndex; i++) {
+         offset += shares[i];
+      }
+      return offset;
+   }
+
+   /**
+    * Copies the workspace and the peass folder of the build agent to the pool folder of the agent, so the agent measures the same version pair with the same RTS
+    * results
+    */
+   private void prepareAgent(final FilePath agentWorkspace) throws IOException, InterruptedException {
+      FilePath remotePeassFolder = new FilePath(workspace.getChannel(), ContinuousFolderUtil.getLocalFolder(new File(workspace.getRemote())).getPath());
+      FilePath agentPeassFolder = new FilePath(agentWorkspace.getChannel(), ContinuousFolderUtil.getLocalFolder(new File(agentWorkspace.getRemote())).getPath());
+      agentWorkspace.deleteRecursive();
+      agentPeassFolder.deleteRecursive();
+      int workspaceFiles = workspace.copyRecursiveTo(new DirScanner.Glob("**/*", "", false), agentWorkspace, "Copy workspace to measurement agent");
+      int peassFiles = remotePeassFolder.copyRecursiveTo(new DirScanner.Glob("**/*", "", false), agentPeassFolder, "Copy peass folder to measurement agent");
+      listener.getLogger().println("Prepared " + agentWorkspace + ": " + workspaceFiles + " workspace files, " + peassFiles + " peass files");
+   }
+
+   /**
+    * Copies the results of the agent of the build to the local workspace
+    */
+   public interface ResultCopier {
+      void copy() throws IOException, InterruptedException;
+   }
+}
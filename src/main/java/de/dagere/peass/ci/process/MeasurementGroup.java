@@ -0,0 +1,73 @@
+package de.dagere.peass.ci.process;
+
+import java.util.Objects;
+
+/**
+ * Configuration of a group of tests which are measured together, since they share the same VM count, warmup, iterations and repetitions.
+ *
+ * @author DaGeRe
+ *
+ */
+public class MeasurementGroup implements Comparable<MeasurementGroup> {
+
+   private final int vms;
+   private final int warmup;
+   private final int iterations;
+   private final int repetitions;
+
+   public MeasurementGroup(final int vms, final int warmup, final int iterations, final int repetitions) {
+      this.vms = vms;
+      this.warmup = warmup;
+      this.iterations = iterations;
+      this.repetitions = repetitions;
+   }
+
+   public int getVms() {
+      return vms;
+   }
+
+   public int getWarmup() {
+      return warmup;
+   }
+
+   public int getIterations() {
+      return iterations;
+   }
+
+   public int getRepetitions() {
+      return repetitions;
+   }
+
+   @Override
+   public int compareTo(final MeasurementGroup other) {
+      if (vms != other.vms) {
+         return Integer.compare(vms, other.vms);
+      }
+      if (warmup != other.warmup) {
+         return Integer.compare(warmup, other.warmup);
+      }
+      if (iterations != other.iterations) {
+         return Integer.compare(iterations, other.iterations);
+      }
+      return Integer.compare(repetitions, other.repetitions);
+   }
+
+   @Override
+   public boolean equals(final Object obj) {
+      if (!(obj instanceof MeasurementGroup)) {
+         return false;
+      }
+      MeasurementGroup other = (MeasurementGroup) obj;
+      return vms == other.vms && warmup == other.warmup && iterations == other.iterations && repetitions == other.repetitions;
+   }
+
+   @Override
+   public int hashCode() {
+      return Objects.hash(vms, warmup, iterations, repetitions);
+   }
+
+   @Override
+   public String toString() {
+      return vms + " VMs, warmup " + warmup + ", " + iterations + " iterations, " + repetitions + " repetitions";
+   }
+}
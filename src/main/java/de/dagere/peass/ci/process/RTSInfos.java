@@ -1,17 +1,15 @@
 package de.dagere.peass.ci.process;
 
-import java.io.File;
 import java.io.IOException;
 
 import com.fasterxml.jackson.core.exc.StreamReadException;
 import com.fasterxml.jackson.databind.DatabindException;
 
 import de.dagere.peass.ci.PeassProcessConfiguration;
+import de.dagere.peass.ci.rts.RTSDataContext;
 import de.dagere.peass.dependency.analysis.data.TestSet;
-import de.dagere.peass.dependency.persistence.Dependencies;
 import de.dagere.peass.dependency.persistence.Version;
 import de.dagere.peass.folders.ResultsFolders;
-import de.dagere.peass.utils.Constants;
 
 public class RTSInfos {
    private final boolean staticChanges;
@@ -31,11 +29,13 @@ public class RTSInfos {
    }
 
    public static RTSInfos readInfosFromFolders(final ResultsFolders results, final PeassProcessConfiguration peassConfig) throws StreamReadException, DatabindException, IOException {
-      File dependencyFile = results.getDependencyFile();
-      if (dependencyFile.exists()) {
+      return readInfos(new RTSDataContext(results, peassConfig.getMeasurementConfig().getExecutionConfig().getVersion()));
+   }
+
+   public static RTSInfos readInfos(final RTSDataContext rtsData) throws IOException {
+      if (rtsData.hasDependencyFile()) {
          boolean staticChanges = false;
-         Dependencies dependencies = Constants.OBJECTMAPPER.readValue(dependencyFile, Dependencies.class);
-         Version version = dependencies.getVersions().get(peassConfig.getMeasurementConfig().getExecutionConfig().getVersion());
+         Version version = rtsData.getVersionDependencies();
          boolean hasStaticallySelectedTests = false;
          if (version != null) {
             if (!version.getChangedClazzes().isEmpty()) {
@@ -0,0 +1,119 @@
+package de.dagere.peass.ci.process;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.dagere.peass.ci.persistence.AtomicFileUtil;
+import de.dagere.peass.ci.persistence.JobDataLock;
+import de.dagere.peass.folders.ResultsFolders;
+import de.dagere.peass.utils.Constants;
+import hudson.FilePath;
+
+/**
+ * Synchronizes the artifacts which are shared by all builds of a job if every build uses its own isolated workspace: the RTS results (dependencies, executions
+ * and coverage info) are seeded from the shared peass-data folder to the remote peass folder before RTS, and published back to the shared folder afterwards.
+ * Since concurrent builds analyse different versions, the files are not replaced, but their versions are merged under the lock of the shared folder; the
+ * modification times are not compared, since the files are written on different hosts.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class SharedArtifacts {
+
+   private static final String LOCK_FILE_NAME = "shared.lock";
+   private static final String VERSIONS = "versions";
+
+   private final File sharedWorkspace;
+   private final File localWorkspace;
+   private final ResultsFolders localResults;
+   private final PrintStream logger;
+
+   public SharedArtifacts(final File sharedWorkspace, final File localWorkspace, final ResultsFolders localResults, final PrintStream logger) {
+      this.sharedWorkspace = sharedWorkspace;
+      this.localWorkspace = localWorkspace;
+      this.localResults = localResults;
+      this.logger = logger;
+   }
+
+   private List<File> getSharedFiles() {
+      return Arrays.asList(localResults.getDependencyFile(), localResults.getExecutionFile(), localResults.getCoverageInfoFile());
+   }
+
+   private String getRelativePath(final File file) {
+      return localWorkspace.toPath().toAbsolutePath().normalize().relativize(file.toPath().toAbsolutePath().normalize()).toString()
+            .replace(File.separatorChar, '/');
+   }
+
+   /**
+    * Merges the versions of the shared files into the files of the remote peass folder; versions which are already contained in the remote files are kept
+    */
+   public void seed(final FilePath remotePeassFolder) throws IOException, InterruptedException {
+      try (Closeable lock = JobDataLock.acquire(new File(sharedWorkspace, LOCK_FILE_NAME))) {
+         for (File localFile : getSharedFiles()) {
+            String relativePath = getRelativePath(localFile);
+            File sharedFile = new File(sharedWorkspace, relativePath);
+            if (sharedFile.exists()) {
+               FilePath remoteFile = remotePeassFolder.child(relativePath);
+               logger.println("Seeding shared " + relativePath + " to " + remoteFile.getRemote());
+               JsonNode shared = Constants.OBJECTMAPPER.readTree(sharedFile);
+               JsonNode merged = remoteFile.exists() ? mergeVersions(shared, Constants.OBJECTMAPPER.readTree(remoteFile.readToString())) : shared;
+               remoteFile.getParent().mkdirs();
+               remoteFile.write(Constants.OBJECTMAPPER.writeValueAsString(merged), StandardCharsets.UTF_8.name());
+            }
+         }
+      }
+   }
+
+   /**
+    * Merges the versions of the files of the isolated workspace into the shared files; versions which are contained in both files are taken from the isolated
+    * workspace, since they have been analysed by this build
+    */
+   public void publish() throws IOException {
+      try (Closeable lock = JobDataLock.acquire(new File(sharedWorkspace, LOCK_FILE_NAME))) {
+         for (File localFile : getSharedFiles()) {
+            String relativePath = getRelativePath(localFile);
+            File sharedFile = new File(sharedWorkspace, relativePath);
+            if (localFile.exists()) {
+               logger.println("Publishing " + relativePath + " to shared folder");
+               JsonNode local = Constants.OBJECTMAPPER.readTree(localFile);
+               JsonNode merged = sharedFile.exists() ? mergeVersions(Constants.OBJECTMAPPER.readTree(sharedFile), local) : local;
+               Files.createDirectories(sharedFile.getParentFile().toPath());
+               AtomicFileUtil.writeJson(sharedFile, merged);
+            }
+         }
+      }
+   }
+
+   /**
+    * Merges the versions of the source into the target: versions of the source replace versions of the target with the same name, other versions are added
+    * after the versions of the target. Other fields of the target are kept and only added from the source if the target does not contain them.
+    * 
+    * @return The target
+    */
+   static JsonNode mergeVersions(final JsonNode target, final JsonNode source) {
+      if (!(target instanceof ObjectNode) || !(source instanceof ObjectNode)) {
+         return source;
+      }
+      ObjectNode targetObject = (ObjectNode) target;
+      for (Iterator<Entry<String, JsonNode>> fields = source.fields(); fields.hasNext();) {
+         Entry<String, JsonNode> field = fields.next();
+         if (field.getKey().equals(VERSIONS) && targetObject.get(VERSIONS) instanceof ObjectNode && field.getValue() instanceof ObjectNode) {
+            ((ObjectNode) targetObject.get(VERSIONS)).setAll((ObjectNode) field.getValue());
+         } else if (!targetObject.has(field.getKey()) || targetObject.get(field.getKey()).isNull()) {
+            targetObject.set(field.getKey(), field.getValue());
+         }
+      }
+      return targetObject;
+   }
+}
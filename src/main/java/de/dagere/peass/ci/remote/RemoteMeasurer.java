@@ -10,14 +10,18 @@ import org.apache.logging.log4j.Logger;
 import org.jenkinsci.remoting.RoleChecker;
 
 import de.dagere.peass.ci.ContinuousExecutor;
+import de.dagere.peass.ci.ContinuousFolderUtil;
 import de.dagere.peass.ci.PeassProcessConfiguration;
+import de.dagere.peass.ci.helper.MeasurementSummarizer;
+import de.dagere.peass.ci.helper.MeasurementSummary;
 import de.dagere.peass.ci.process.JenkinsLogRedirector;
 import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.folders.ResultsFolders;
 import hudson.FilePath.FileCallable;
 import hudson.model.TaskListener;
 import hudson.remoting.VirtualChannel;
 
-public class RemoteMeasurer implements FileCallable<Boolean> {
+public class RemoteMeasurer implements FileCallable<MeasurementSummary> {
    
    private static final Logger LOG = LogManager.getLogger(RemoteMeasurer.class);
 
@@ -40,7 +44,7 @@ public class RemoteMeasurer implements FileCallable<Boolean> {
    }
 
    @Override
-   public Boolean invoke(final File workspaceFolder, final VirtualChannel channel) throws IOException, InterruptedException {
+   public MeasurementSummary invoke(final File workspaceFolder, final VirtualChannel channel) throws IOException, InterruptedException {
       try (final JenkinsLogRedirector redirector = new JenkinsLogRedirector(listener)) {
          LOG.info("Starting remote invocation, VMs: " + peassConfig.getMeasurementConfig().getVms());
 
@@ -56,7 +60,7 @@ public class RemoteMeasurer implements FileCallable<Boolean> {
                peassConfig.getDependencyConfig(), 
                peassConfig.getEnvVars());
          executor.measure(tests);
-         return true;
+         return summarize(workspaceFolder);
       } catch (Throwable e) {
          File test = new File(workspaceFolder, "error.txt"); // Workaround, since error redirection on Jenkins agents currently does not work
          PrintStream writer = new PrintStream(test, "UTF-8");
@@ -65,7 +69,24 @@ public class RemoteMeasurer implements FileCallable<Boolean> {
          listener.getLogger().println("Exception thrown");
          e.printStackTrace(listener.getLogger());
          e.printStackTrace();
-         return false;
+         return new MeasurementSummary(false);
+      }
+   }
+
+   /**
+    * Summarizes the results where they are; if this fails, the controller reads the copied raw results
+    */
+   private MeasurementSummary summarize(final File workspaceFolder) {
+      try {
+         File localFolder = ContinuousFolderUtil.getLocalFolder(workspaceFolder);
+         ResultsFolders results = new ResultsFolders(localFolder, workspaceFolder.getName());
+         MeasurementSummarizer summarizer = new MeasurementSummarizer(peassConfig.getMeasurementConfig(), results);
+         summarizer.setDetectSteadyState(peassConfig.isAdaptiveWarmup());
+         return summarizer.summarize(tests);
+      } catch (Throwable e) {
+         listener.getLogger().println("Summarizing measurement results on agent failed: " + e.getMessage());
+         e.printStackTrace(listener.getLogger());
+         return new MeasurementSummary(true);
       }
    }
 
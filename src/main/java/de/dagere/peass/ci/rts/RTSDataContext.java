@@ -0,0 +1,123 @@
+package de.dagere.peass.ci.rts;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import de.dagere.peass.dependency.analysis.data.TestSet;
+import de.dagere.peass.dependency.persistence.Dependencies;
+import de.dagere.peass.dependency.persistence.ExecutionData;
+import de.dagere.peass.dependency.persistence.Version;
+import de.dagere.peass.folders.ResultsFolders;
+import de.dagere.peass.utils.Constants;
+
+/**
+ * RTS data of the current version of one build. The dependency file and the execution file contain all versions of the project, so they are read by a streaming
+ * parser which only materializes the entry of the current version, and every file is read at most once per build.
+ *
+ * @author DaGeRe
+ *
+ */
+public class RTSDataContext {
+
+   private static final Logger LOG = LogManager.getLogger(RTSDataContext.class);
+
+   private static final String VERSIONS_FIELD = "versions";
+
+   private final ResultsFolders results;
+   private final String version;
+
+   private boolean dependenciesRead = false;
+   private Version versionDependencies;
+   private boolean executionRead = false;
+   private TestSet traceSelectedTests;
+
+   public RTSDataContext(final ResultsFolders results, final String version) {
+      this.results = results;
+      this.version = version;
+   }
+
+   public String getVersion() {
+      return version;
+   }
+
+   public boolean hasDependencyFile() {
+      return results.getDependencyFile().exists();
+   }
+
+   public boolean hasExecutionFile() {
+      return results.getExecutionFile().exists();
+   }
+
+   /**
+    * Returns the static selection of the current version, or null if the dependency file does not exist or does not contain the version
+    */
+   public synchronized Version getVersionDependencies() throws IOException {
+      if (!dependenciesRead) {
+         File dependencyFile = results.getDependencyFile();
+         if (dependencyFile.exists()) {
+            versionDependencies = readVersionEntry(dependencyFile, version, Version.class,
+                  file -> Constants.OBJECTMAPPER.readValue(file, Dependencies.class).getVersions().get(version));
+         }
+         dependenciesRead = true;
+      }
+      return versionDependencies;
+   }
+
+   /**
+    * Returns the tests selected by their traces in the current version, or null if the execution file does not exist or does not contain the version
+    */
+   public synchronized TestSet getTraceSelectedTests() throws IOException {
+      if (!executionRead) {
+         File executionFile = results.getExecutionFile();
+         if (executionFile.exists()) {
+            traceSelectedTests = readVersionEntry(executionFile, version, TestSet.class,
+                  file -> Constants.OBJECTMAPPER.readValue(file, ExecutionData.class).getVersions().get(version));
+         }
+         executionRead = true;
+      }
+      return traceSelectedTests;
+   }
+
+   /**
+    * Reads only the entry of the given version from the versions map of the file, skipping all other versions and fields without materializing them. If the file
+    * has no versions map, the whole file is deserialized by the fallback.
+    */
+   public static <T> T readVersionEntry(final File file, final String version, final Class<T> entryClass, final FullReader<T> fallback) throws IOException {
+      try (JsonParser parser = Constants.OBJECTMAPPER.getFactory().createParser(file)) {
+         if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+         }
+         while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (VERSIONS_FIELD.equals(field) && value == JsonToken.START_OBJECT) {
+               while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                  String currentVersion = parser.getCurrentName();
+                  parser.nextToken();
+                  if (currentVersion.equals(version)) {
+                     return Constants.OBJECTMAPPER.readValue(parser, entryClass);
+                  }
+                  parser.skipChildren();
+               }
+               return null;
+            }
+            parser.skipChildren();
+         }
+      }
+      LOG.info("No {} field found in {}, reading complete file", VERSIONS_FIELD, file);
+      return fallback.read(file);
+   }
+
+   /**
+    * Reads the entry of a version by deserializing the complete file
+    */
+   public interface FullReader<T> {
+      T read(File file) throws IOException;
+   }
+}
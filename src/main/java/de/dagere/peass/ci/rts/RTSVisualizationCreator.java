@@ -19,8 +19,6 @@ import de.dagere.peass.ci.PeassProcessConfiguration;
 import de.dagere.peass.dependency.analysis.data.ChangedEntity;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import de.dagere.peass.dependency.analysis.data.TestSet;
-import de.dagere.peass.dependency.persistence.Dependencies;
-import de.dagere.peass.dependency.persistence.ExecutionData;
 import de.dagere.peass.dependency.persistence.Version;
 import de.dagere.peass.dependency.traces.coverage.CoverageSelectionInfo;
 import de.dagere.peass.dependency.traces.coverage.CoverageSelectionVersion;
@@ -34,10 +32,16 @@ public class RTSVisualizationCreator {
 
    private final ResultsFolders localWorkspace;
    private final PeassProcessConfiguration peassConfig;
+   private final RTSDataContext rtsData;
 
    public RTSVisualizationCreator(final ResultsFolders localWorkspace, final PeassProcessConfiguration peassConfig) {
+      this(localWorkspace, peassConfig, new RTSDataContext(localWorkspace, peassConfig.getMeasurementConfig().getExecutionConfig().getVersion()));
+   }
+
+   public RTSVisualizationCreator(final ResultsFolders localWorkspace, final PeassProcessConfiguration peassConfig, final RTSDataContext rtsData) {
       this.localWorkspace = localWorkspace;
       this.peassConfig = peassConfig;
+      this.rtsData = rtsData;
    }
 
    public void visualize(final Run<?, ?> run) {
@@ -77,10 +81,8 @@ public class RTSVisualizationCreator {
 
    private List<String> readDynamicSelection(final Run<?, ?> run) throws IOException, JsonParseException, JsonMappingException {
       List<String> selectedTests = new LinkedList<>();
-      File executionfile = localWorkspace.getExecutionFile();
-      if (executionfile.exists()) {
-         ExecutionData executions = Constants.OBJECTMAPPER.readValue(executionfile, ExecutionData.class);
-         TestSet tests = executions.getVersions().get(peassConfig.getMeasurementConfig().getExecutionConfig().getVersion());
+      if (rtsData.hasExecutionFile()) {
+         TestSet tests = rtsData.getTraceSelectedTests();
 
          if (tests != null) {
             for (TestCase test : tests.getTests()) {
@@ -88,7 +90,7 @@ public class RTSVisualizationCreator {
             }
          }
       } else {
-         LOG.info("File {} was not found, RTS execution info might be incomplete", executionfile.getAbsoluteFile());
+         LOG.info("File {} was not found, RTS execution info might be incomplete", localWorkspace.getExecutionFile().getAbsoluteFile());
       }
       return selectedTests;
    }
@@ -108,10 +110,8 @@ public class RTSVisualizationCreator {
 
    private Map<String, List<String>> readStaticSelection(final Run<?, ?> run) throws IOException, JsonParseException, JsonMappingException {
       Map<String, List<String>> changesList = new LinkedHashMap<String, List<String>>();
-      File dependencyfile = localWorkspace.getDependencyFile();
-      if (dependencyfile.exists()) {
-         Dependencies dependencies = Constants.OBJECTMAPPER.readValue(dependencyfile, Dependencies.class);
-         Version version = dependencies.getVersions().get(peassConfig.getMeasurementConfig().getExecutionConfig().getVersion());
+      if (rtsData.hasDependencyFile()) {
+         Version version = rtsData.getVersionDependencies();
 
          if (version != null) {
             addVersionDataToChangeliste(changesList, version);
@@ -120,7 +120,7 @@ public class RTSVisualizationCreator {
          }
 
       } else {
-         LOG.error("File {} was not found, RTS selection seems to not have worked at all", dependencyfile);
+         LOG.error("File {} was not found, RTS selection seems to not have worked at all", localWorkspace.getDependencyFile());
       }
       return changesList;
    }
@@ -0,0 +1,29 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.Serializable;
+
+/**
+ * Result of bundling a remote repository: the commit of HEAD and the path of the bundle on the agent, which is null if the controller already knows all objects.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class GitBundleResult implements Serializable {
+   private static final long serialVersionUID = -5563339307245637461L;
+
+   private final String head;
+   private final String bundlePath;
+
+   public GitBundleResult(final String head, final String bundlePath) {
+      this.head = head;
+      this.bundlePath = bundlePath;
+   }
+
+   public String getHead() {
+      return head;
+   }
+
+   public String getBundlePath() {
+      return bundlePath;
+   }
+}
@@ -0,0 +1,81 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import hudson.FilePath;
+
+/**
+ * Transfers the .git folder of a repository in the remote peass folder as one incremental bundle instead of copying every object file. Afterwards, HEAD and the index of
+ * the local copy point to the remote HEAD; the working tree itself is copied by the regular file synchronization.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class GitBundleSync {
+
+   private final FilePath remotePeassFolder;
+   private final File localWorkspace;
+   private final PrintStream logger;
+
+   public GitBundleSync(final FilePath remotePeassFolder, final File localWorkspace, final PrintStream logger) {
+      this.remotePeassFolder = remotePeassFolder;
+      this.localWorkspace = localWorkspace;
+      this.logger = logger;
+   }
+
+   public void sync(final String repositoryPath) throws IOException, InterruptedException {
+      File localRepository = new File(localWorkspace, repositoryPath);
+      if (!new File(localRepository, ".git").exists()) {
+         if (!localRepository.exists() && !localRepository.mkdirs()) {
+            throw new IOException("Could not create " + localRepository.getAbsolutePath());
+         }
+         GitCommand.run(localRepository, "init", "-q");
+      }
+
+      List<String> knownCommits = getKnownCommits(localRepository);
+      GitBundleResult result = remotePeassFolder.act(new RemoteGitBundleCreator(repositoryPath, knownCommits));
+
+      if (result.getBundlePath() != null) {
+         FilePath remoteBundle = new FilePath(remotePeassFolder.getChannel(), result.getBundlePath());
+         File localBundle = File.createTempFile("peass-sync", ".bundle");
+         try {
+            remoteBundle.copyTo(new FilePath(localBundle));
+            logger.println("Fetching bundle of " + repositoryPath + " (" + localBundle.length() + " bytes)");
+            GitCommand.run(localRepository, "fetch", "-q", "--update-head-ok", localBundle.getAbsolutePath(), "+refs/*:refs/*");
+            GitCommand.run(localRepository, "fetch", "-q", localBundle.getAbsolutePath(), "HEAD");
+         } finally {
+            remoteBundle.delete();
+            if (!localBundle.delete()) {
+               logger.println("Could not delete " + localBundle.getAbsolutePath());
+            }
+         }
+      } else {
+         logger.println("No new git objects in " + repositoryPath);
+      }
+
+      GitCommand.run(localRepository, "update-ref", "--no-deref", "HEAD", result.getHead());
+      GitCommand.run(localRepository, "reset", "-q");
+   }
+
+   private List<String> getKnownCommits(final File localRepository) throws IOException, InterruptedException {
+      Set<String> commits = new LinkedHashSet<>();
+      String refs = GitCommand.run(localRepository, "for-each-ref", "--format=%(objectname)");
+      for (String line : refs.split("\n")) {
+         if (!line.trim().isEmpty()) {
+            commits.add(line.trim());
+         }
+      }
+      try {
+         commits.add(GitCommand.run(localRepository, "rev-parse", "--verify", "-q", "HEAD"));
+      } catch (IOException e) {
+         // Freshly initialized repository without HEAD commit
+      }
+      return new ArrayList<>(commits);
+   }
+}
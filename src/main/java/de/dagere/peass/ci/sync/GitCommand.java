@@ -0,0 +1,75 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Executes git in a repository folder and returns its standard output, without the error output; used on the agent and on the controller for transferring the
+ * repository as bundle.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class GitCommand {
+
+   private GitCommand() {
+
+   }
+
+   public static String run(final File repository, final String... arguments) throws IOException, InterruptedException {
+      return run(repository, null, Arrays.asList(arguments));
+   }
+
+   public static String run(final File repository, final String input, final List<String> arguments) throws IOException, InterruptedException {
+      List<String> command = new ArrayList<>();
+      command.add("git");
+      command.addAll(arguments);
+      ProcessBuilder builder = new ProcessBuilder(command);
+      builder.directory(repository);
+      Process process = builder.start();
+      // Warnings of git are written to stderr; they are read separately, so they are never part of the parsed output
+      StringBuilder errorOutput = new StringBuilder();
+      Thread errorReader = new Thread(() -> {
+         try (InputStream stderr = process.getErrorStream()) {
+            errorOutput.append(IOUtils.toString(stderr, StandardCharsets.UTF_8));
+         } catch (IOException e) {
+            errorOutput.append(e.getMessage());
+         }
+      });
+      errorReader.start();
+      // The input is written by its own thread, since git may fill the output pipe before it has read the complete input, e.g. in cat-file --batch-check
+      StringBuilder inputError = new StringBuilder();
+      Thread inputWriter = new Thread(() -> {
+         try (OutputStream stdin = process.getOutputStream()) {
+            if (input != null) {
+               stdin.write(input.getBytes(StandardCharsets.UTF_8));
+            }
+         } catch (IOException e) {
+            inputError.append(e.getMessage());
+         }
+      });
+      inputWriter.start();
+      String output;
+      try (InputStream stdout = process.getInputStream()) {
+         output = IOUtils.toString(stdout, StandardCharsets.UTF_8);
+      }
+      int exitCode = process.waitFor();
+      inputWriter.join();
+      errorReader.join();
+      if (exitCode == 0 && inputError.length() > 0) {
+         throw new IOException("Input of git " + arguments + " in " + repository + " could not be written: " + inputError);
+      }
+      if (exitCode != 0) {
+         throw new IOException("git " + arguments + " in " + repository + " failed with exit code " + exitCode + ": " + errorOutput + output);
+      }
+      return output.trim();
+   }
+}
@@ -0,0 +1,82 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import hudson.FilePath;
+import hudson.util.DirScanner;
+
+/**
+ * Copies the remote peass folder to the controller, transferring only files which are new or changed compared to the manifest of the last synchronization. Git
+ * repositories are transfered as incremental bundles.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class IncrementalSync {
+
+   private final FilePath remotePeassFolder;
+   private final File localWorkspace;
+   private final PrintStream logger;
+
+   public IncrementalSync(final FilePath remotePeassFolder, final File localWorkspace, final PrintStream logger) {
+      this.remotePeassFolder = remotePeassFolder;
+      this.localWorkspace = localWorkspace;
+      this.logger = logger;
+   }
+
+   public int sync(final SyncScope scope) throws IOException, InterruptedException {
+      SyncManifest knownManifest = SyncManifest.read(localWorkspace, logger);
+      SyncManifest remoteManifest = remotePeassFolder.act(new RemoteManifestCreator(knownManifest, scope));
+
+      List<String> changedFiles = getChangedFiles(knownManifest, remoteManifest);
+      logger.println("Sync scope: " + scope + " Remote files: " + remoteManifest.getFiles().size() + " Changed: " + changedFiles.size());
+
+      int count = 0;
+      if (!changedFiles.isEmpty()) {
+         count = remotePeassFolder.copyRecursiveTo(new SelectedFilesScanner(changedFiles), new FilePath(localWorkspace), "Copy changed files");
+      }
+
+      for (String repository : remoteManifest.getGitRepositories()) {
+         syncGitRepository(repository);
+      }
+
+      knownManifest.replaceScope(scope, remoteManifest);
+      knownManifest.write(localWorkspace);
+      return count;
+   }
+
+   /**
+    * Transfers the repository as git bundle; if this is not possible, e.g. because git is not available on the controller or the repository is shallow, the .git folder
+    * is copied file by file
+    */
+   private void syncGitRepository(final String repository) throws IOException, InterruptedException {
+      try {
+         new GitBundleSync(remotePeassFolder, localWorkspace, logger).sync(repository);
+      } catch (IOException e) {
+         logger.println("Git bundle transfer of " + repository + " failed, copying .git folder: " + e.getMessage());
+         String gitFolder = repository.isEmpty() ? ".git/**" : repository + "/.git/**";
+         remotePeassFolder.copyRecursiveTo(new DirScanner.Glob(gitFolder, "", false), new FilePath(localWorkspace), "Copy git folder");
+      }
+   }
+
+   List<String> getChangedFiles(final SyncManifest knownManifest, final SyncManifest remoteManifest) {
+      List<String> changedFiles = new LinkedList<>();
+      for (Map.Entry<String, ManifestEntry> remoteEntry : remoteManifest.getFiles().entrySet()) {
+         ManifestEntry knownEntry = knownManifest.getEntry(remoteEntry.getKey());
+         File localFile = new File(localWorkspace, remoteEntry.getKey());
+         boolean unchanged = knownEntry != null
+               && knownEntry.getHash().equals(remoteEntry.getValue().getHash())
+               && localFile.exists()
+               && localFile.length() == remoteEntry.getValue().getSize();
+         if (!unchanged) {
+            changedFiles.add(remoteEntry.getKey());
+         }
+      }
+      return changedFiles;
+   }
+}
@@ -0,0 +1,50 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.Serializable;
+
+/**
+ * Size, modification time and content hash of one file of the synchronized folder.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class ManifestEntry implements Serializable {
+   private static final long serialVersionUID = -2512488129412406470L;
+
+   private long size;
+   private long lastModified;
+   private String hash;
+
+   public ManifestEntry() {
+   }
+
+   public ManifestEntry(final long size, final long lastModified, final String hash) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.hash = hash;
+   }
+
+   public long getSize() {
+      return size;
+   }
+
+   public void setSize(final long size) {
+      this.size = size;
+   }
+
+   public long getLastModified() {
+      return lastModified;
+   }
+
+   public void setLastModified(final long lastModified) {
+      this.lastModified = lastModified;
+   }
+
+   public String getHash() {
+      return hash;
+   }
+
+   public void setHash(final String hash) {
+      this.hash = hash;
+   }
+}
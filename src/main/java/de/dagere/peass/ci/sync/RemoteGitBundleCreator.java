@@ -0,0 +1,92 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jenkinsci.remoting.RoleChecker;
+
+import hudson.FilePath.FileCallable;
+import hudson.remoting.VirtualChannel;
+
+/**
+ * Creates a git bundle of a repository in the remote peass folder, containing only the objects which are not reachable from the commits the controller already has.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class RemoteGitBundleCreator implements FileCallable<GitBundleResult> {
+
+   private static final long serialVersionUID = 3283036546391700532L;
+
+   private final String repositoryPath;
+   private final List<String> knownCommits;
+
+   public RemoteGitBundleCreator(final String repositoryPath, final List<String> knownCommits) {
+      this.repositoryPath = repositoryPath;
+      this.knownCommits = knownCommits;
+   }
+
+   @Override
+   public void checkRoles(final RoleChecker checker) throws SecurityException {
+   }
+
+   @Override
+   public GitBundleResult invoke(final File peassFolder, final VirtualChannel channel) throws IOException, InterruptedException {
+      File repository = new File(peassFolder, repositoryPath);
+      String head = GitCommand.run(repository, "rev-parse", "HEAD");
+
+      List<String> exclusions = getExistingKnownCommits(repository);
+      List<String> countArguments = new ArrayList<>(Arrays.asList("rev-list", "--count", "--all", "HEAD"));
+      addExclusions(countArguments, exclusions);
+      int newCommits = parseCount(GitCommand.run(repository, null, countArguments));
+      if (newCommits == 0) {
+         return new GitBundleResult(head, null);
+      }
+
+      File bundle = File.createTempFile("peass-sync", ".bundle");
+      List<String> bundleArguments = new ArrayList<>(Arrays.asList("bundle", "create", bundle.getAbsolutePath(), "HEAD", "--all"));
+      addExclusions(bundleArguments, exclusions);
+      GitCommand.run(repository, null, bundleArguments);
+      return new GitBundleResult(head, bundle.getAbsolutePath());
+   }
+
+   /**
+    * Parses the commit count; an unexpected output is an IOException, so the caller falls back to copying the .git folder
+    */
+   private static int parseCount(final String output) throws IOException {
+      try {
+         return Integer.parseInt(output.trim());
+      } catch (NumberFormatException e) {
+         throw new IOException("Unexpected output of git rev-list --count: " + output, e);
+      }
+   }
+
+   private void addExclusions(final List<String> arguments, final List<String> exclusions) {
+      if (!exclusions.isEmpty()) {
+         arguments.add("--not");
+         arguments.addAll(exclusions);
+      }
+   }
+
+   /**
+    * Filters the commits known by the controller to those which exist on the agent, since git fails if a commit after --not is unknown
+    */
+   private List<String> getExistingKnownCommits(final File repository) throws IOException, InterruptedException {
+      List<String> existing = new ArrayList<>();
+      if (knownCommits.isEmpty()) {
+         return existing;
+      }
+      String input = String.join("\n", knownCommits) + "\n";
+      String output = GitCommand.run(repository, input, Arrays.asList("cat-file", "--batch-check=%(objectname) %(objecttype)"));
+      for (String line : output.split("\n")) {
+         String[] parts = line.trim().split(" ");
+         if (parts.length == 2 && "commit".equals(parts[1])) {
+            existing.add(parts[0]);
+         }
+      }
+      return existing;
+   }
+}
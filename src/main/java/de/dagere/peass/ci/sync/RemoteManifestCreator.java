@@ -0,0 +1,86 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.jenkinsci.remoting.RoleChecker;
+
+import hudson.FilePath.FileCallable;
+import hudson.Util;
+import hudson.remoting.VirtualChannel;
+
+/**
+ * Creates the manifest of the remote peass folder. The hash of a file is only recomputed if size or modification time differ from the manifest which is known on the
+ * controller, so unchanged files are not read again. .git folders are not part of the manifest; they are only listed as repositories, which are transfered by
+ * {@link GitBundleSync}.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class RemoteManifestCreator implements FileCallable<SyncManifest> {
+
+   private static final long serialVersionUID = -6373870779981519394L;
+
+   private final SyncManifest knownManifest;
+   private final SyncScope scope;
+
+   public RemoteManifestCreator(final SyncManifest knownManifest, final SyncScope scope) {
+      this.knownManifest = knownManifest;
+      this.scope = scope;
+   }
+
+   @Override
+   public void checkRoles(final RoleChecker checker) throws SecurityException {
+   }
+
+   @Override
+   public SyncManifest invoke(final File peassFolder, final VirtualChannel channel) throws IOException, InterruptedException {
+      final SyncManifest manifest = new SyncManifest();
+      if (!peassFolder.exists()) {
+         return manifest;
+      }
+      final Path root = peassFolder.toPath();
+      Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+         @Override
+         public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+            String relativePath = getRelativePath(root, dir);
+            if (dir.getFileName() != null && ".git".equals(dir.getFileName().toString()) && !dir.equals(root)) {
+               if (scope.contains(relativePath)) {
+                  manifest.getGitRepositories().add(getRelativePath(root, dir.getParent()));
+               }
+               return FileVisitResult.SKIP_SUBTREE;
+            }
+            return scope.needsVisit(relativePath) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+         }
+
+         @Override
+         public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+            String relativePath = getRelativePath(root, file);
+            if (attrs.isRegularFile() && scope.contains(relativePath)) {
+               manifest.getFiles().put(relativePath, createEntry(file.toFile(), relativePath, attrs));
+            }
+            return FileVisitResult.CONTINUE;
+         }
+      });
+      return manifest;
+   }
+
+   private ManifestEntry createEntry(final File file, final String relativePath, final BasicFileAttributes attrs) throws IOException {
+      long size = attrs.size();
+      long lastModified = attrs.lastModifiedTime().toMillis();
+      ManifestEntry known = knownManifest.getEntry(relativePath);
+      if (known != null && known.getSize() == size && known.getLastModified() == lastModified) {
+         return known;
+      }
+      return new ManifestEntry(size, lastModified, Util.getDigestOf(file));
+   }
+
+   static String getRelativePath(final Path root, final Path file) {
+      return root.relativize(file).toString().replace(File.separatorChar, '/');
+   }
+}
@@ -0,0 +1,37 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import hudson.util.DirScanner;
+import hudson.util.FileVisitor;
+
+/**
+ * Visits only the given relative paths, so {@link hudson.FilePath#copyRecursiveTo(DirScanner, hudson.FilePath, String)} only transfers the selected files.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class SelectedFilesScanner extends DirScanner {
+
+   private static final long serialVersionUID = 1927334573580429150L;
+
+   private final List<String> relativePaths;
+
+   public SelectedFilesScanner(final Collection<String> relativePaths) {
+      this.relativePaths = new ArrayList<>(relativePaths);
+   }
+
+   @Override
+   public void scan(final File dir, final FileVisitor visitor) throws IOException {
+      for (String relativePath : relativePaths) {
+         File file = new File(dir, relativePath);
+         if (file.isFile()) {
+            visitor.visit(file, relativePath);
+         }
+      }
+   }
+}
@@ -0,0 +1,95 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import de.dagere.peass.ci.persistence.AtomicFileUtil;
+import de.dagere.peass.utils.Constants;
+
+/**
+ * Manifest of the files of the remote peass folder (relative path, separated by /, to file data), which were last copied to the controller.
+ * 
+ * The manifest describes the content of the local workspace it is stored in, so it is kept per workspace and not in the shared job folder: with isolated
+ * workspaces, every build starts with an empty workspace, and a manifest of another workspace would not save any transfer, since files which do not exist
+ * locally are always copied. Within a build, the manifest still avoids copying unchanged files again, e.g. between measurement and RCA.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class SyncManifest implements Serializable {
+   private static final long serialVersionUID = 4101806592385707330L;
+
+   public static final String MANIFEST_FILE_NAME = "syncManifest.json";
+
+   private Map<String, ManifestEntry> files = new TreeMap<>();
+   private List<String> gitRepositories = new LinkedList<>();
+
+   public Map<String, ManifestEntry> getFiles() {
+      return files;
+   }
+
+   public void setFiles(final Map<String, ManifestEntry> files) {
+      this.files = files;
+   }
+
+   /**
+    * Relative paths of the folders containing a .git folder
+    */
+   public List<String> getGitRepositories() {
+      return gitRepositories;
+   }
+
+   public void setGitRepositories(final List<String> gitRepositories) {
+      this.gitRepositories = gitRepositories;
+   }
+
+   @JsonIgnore
+   public ManifestEntry getEntry(final String path) {
+      return files.get(path);
+   }
+
+   /**
+    * Reads the manifest of the last synchronization; if the manifest is not readable, an empty manifest is returned, so all files of the scope are copied again
+    */
+   public static SyncManifest read(final File localWorkspace, final PrintStream logger) {
+      File manifestFile = new File(localWorkspace, MANIFEST_FILE_NAME);
+      if (manifestFile.exists()) {
+         try {
+            return Constants.OBJECTMAPPER.readValue(manifestFile, SyncManifest.class);
+         } catch (IOException e) {
+            logger.println("Sync manifest " + manifestFile.getAbsolutePath() + " is not readable, copying all files: " + e.getMessage());
+         }
+      }
+      return new SyncManifest();
+   }
+
+   /**
+    * Replaces all entries of the given scope by the entries of the remote manifest, which was created for this scope; so files which were deleted on the remote
+    * side are removed from the manifest
+    */
+   public void replaceScope(final SyncScope scope, final SyncManifest remoteManifest) {
+      files.keySet().removeIf(scope::contains);
+      files.putAll(remoteManifest.getFiles());
+      gitRepositories.removeIf(scope::contains);
+      for (String repository : remoteManifest.getGitRepositories()) {
+         if (!gitRepositories.contains(repository)) {
+            gitRepositories.add(repository);
+         }
+      }
+   }
+
+   /**
+    * Writes the manifest atomically, so an interrupted write does not leave a corrupt manifest
+    */
+   public void write(final File localWorkspace) throws IOException {
+      AtomicFileUtil.writeJson(new File(localWorkspace, MANIFEST_FILE_NAME), this);
+   }
+}
@@ -0,0 +1,94 @@
+package de.dagere.peass.ci.sync;
+
+import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Limits a synchronization to the given relative paths (files or folders, separated by /) of the peass folder; an empty scope or an included empty path synchronizes
+ * everything.
+ * 
+ * @author DaGeRe
+ *
+ */
+public class SyncScope implements Serializable {
+   private static final long serialVersionUID = 7406962389963938346L;
+
+   private final List<String> includedPaths = new LinkedList<>();
+   private final List<String> excludedPaths = new LinkedList<>();
+
+   public static SyncScope all() {
+      return new SyncScope();
+   }
+
+   public SyncScope include(final String relativePath) {
+      if (relativePath != null) {
+         includedPaths.add(relativePath);
+      }
+      return this;
+   }
+
+   /**
+    * Excludes the given relative path, even if it is inside of an included path
+    */
+   public SyncScope exclude(final String relativePath) {
+      if (relativePath != null && !relativePath.isEmpty()) {
+         excludedPaths.add(relativePath);
+      }
+      return this;
+   }
+
+   public List<String> getIncludedPaths() {
+      return includedPaths;
+   }
+
+   public boolean isComplete() {
+      return includedPaths.isEmpty() && excludedPaths.isEmpty();
+   }
+
+   public boolean contains(final String relativePath) {
+      for (String excluded : excludedPaths) {
+         if (isInside(relativePath, excluded)) {
+            return false;
+         }
+      }
+      if (includedPaths.isEmpty()) {
+         return true;
+      }
+      for (String included : includedPaths) {
+         if (included.isEmpty() || isInside(relativePath, included)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static boolean isInside(final String relativePath, final String folder) {
+      return relativePath.equals(folder) || relativePath.startsWith(folder + "/");
+   }
+
+   /**
+    * Returns whether the folder needs to be visited, i.e. whether it is contained in the scope or contains an included path
+    */
+   public boolean needsVisit(final String relativeFolder) {
+      for (String excluded : excludedPaths) {
+         if (isInside(relativeFolder, excluded)) {
+            return false;
+         }
+      }
+      if (relativeFolder.isEmpty() || contains(relativeFolder)) {
+         return true;
+      }
+      for (String included : includedPaths) {
+         if (included.startsWith(relativeFolder + "/")) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public String toString() {
+      return isComplete() ? "complete" : includedPaths + " without " + excludedPaths;
+   }
+}
@@ -0,0 +1,77 @@
+package de.peass.ci;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.regex.Matcher;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import de.dagere.peass.analysis.changes.Change;
+import de.dagere.peass.analysis.changes.ProjectChanges;
+import de.dagere.peass.ci.MeasureVersionAction;
+import de.dagere.peass.ci.helper.HistogramValues;
+import de.dagere.peass.ci.persistence.MeasureVersionData;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.measurement.analysis.ProjectStatistics;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Run;
+
+public class MeasureVersionActionMigrationTest {
+
+   @Rule
+   public JenkinsRule jenkins = new JenkinsRule();
+
+   @Test
+   public void testOldBuildIsMigrated() throws Exception {
+      FreeStyleProject project = jenkins.createFreeStyleProject();
+      FreeStyleBuild build = jenkins.buildAndAssertSuccess(project);
+
+      File buildXml = new File(build.getRootDir(), "build.xml");
+      String xml = FileUtils.readFileToString(buildXml, StandardCharsets.UTF_8);
+      xml = xml.replaceFirst("<actions>", Matcher.quoteReplacement("<actions>" + createOldActionXml()));
+      FileUtils.write(buildXml, xml, StandardCharsets.UTF_8);
+      Assert.assertTrue(xml.contains("<measurements>"));
+
+      jenkins.jenkins.reload();
+      FreeStyleProject reloadedProject = jenkins.jenkins.getItemByFullName(project.getFullName(), FreeStyleProject.class);
+      FreeStyleBuild reloadedBuild = reloadedProject.getBuildByNumber(build.getNumber());
+      MeasureVersionAction action = reloadedBuild.getAction(MeasureVersionAction.class);
+
+      Assert.assertEquals(1, action.getTestcaseCount());
+      Assert.assertEquals(1, action.getChangedTestcaseCount());
+      Assert.assertTrue(new File(reloadedBuild.getRootDir(), MeasureVersionData.FILE_NAME).exists());
+
+      // The migrated run is saved asynchronously
+      String migratedXml = FileUtils.readFileToString(buildXml, StandardCharsets.UTF_8);
+      for (int i = 0; i < 100 && migratedXml.contains("<measurements>"); i++) {
+         Thread.sleep(100);
+         migratedXml = FileUtils.readFileToString(buildXml, StandardCharsets.UTF_8);
+      }
+      Assert.assertTrue(migratedXml.contains("MeasureVersionAction"));
+      Assert.assertFalse(migratedXml.contains("<measurements>"));
+      Assert.assertFalse(migratedXml.contains("<statistics>"));
+      Assert.assertFalse(migratedXml.contains("<inlineData>"));
+   }
+
+   /**
+    * Creates the xml of an action of the old format, which contained the measurement data directly instead of the inline data
+    */
+   private String createOldActionXml() {
+      ProjectChanges changes = new ProjectChanges();
+      changes.addChange(new TestCase("de.Test", "method"), "1", new Change("dummy", "method"));
+      HashMap<String, HistogramValues> measurements = new HashMap<>();
+      measurements.put("de.Test#method", null);
+
+      MeasureVersionAction currentAction = new MeasureVersionAction(new MeasurementConfig(2), changes.getVersion("1"), new ProjectStatistics(),
+            new HashMap<>(), measurements, new HashMap<>());
+      String actionXml = Run.XSTREAM2.toXML(currentAction);
+      return actionXml.replace("<inlineData>", "").replace("</inlineData>", "");
+   }
+}
@@ -0,0 +1,81 @@
+package de.peass.ci;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+
+import de.dagere.peass.analysis.changes.Changes;
+import de.dagere.peass.ci.MeasureVersionAction;
+import de.dagere.peass.ci.helper.HistogramValues;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.folders.PeassFolders;
+import de.dagere.peass.measurement.analysis.ProjectStatistics;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+
+public class MeasureVersionActionRawResultTest {
+
+   private static final String TESTCASE = "de.package.ClassA#method1";
+   private static final String VERSION = "b02c92af73e3297be617f4c973a7a63fb603565b";
+   private static final String VERSION_OLD = "e80d8a1bf747d1f70dc52260616b36cac9e44561";
+
+   @Rule
+   public JenkinsRule jenkins = new JenkinsRule();
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder(new File("target"));
+
+   @Test
+   public void testRawResultIsFetchedOnRequest() throws Exception {
+      File rawFolder = folder.newFolder("measurements");
+      File rawFile = new File(rawFolder, PeassFolders.getRelativeFullResultPath(new TestCase(TESTCASE), VERSION, VERSION_OLD, 1));
+      FileUtils.write(rawFile, "<kopemedata/>", StandardCharsets.UTF_8);
+
+      FreeStyleProject project = jenkins.createFreeStyleProject();
+      FreeStyleBuild build = jenkins.buildAndAssertSuccess(project);
+      MeasureVersionAction action = createAction();
+      // The controller has the computer name "", so the raw results are read from the local folder
+      action.setRawResultLocation("", rawFolder.getAbsolutePath());
+      build.addAction(action);
+
+      JenkinsRule.WebClient client = jenkins.createWebClient();
+      client.getOptions().setThrowExceptionOnFailingStatusCode(false);
+      String actionUrl = jenkins.getURL() + build.getUrl() + action.getUrlName() + "/";
+
+      WebResponse response = client.loadWebResponse(new WebRequest(new URL(actionUrl + action.getRawResultUrl(TESTCASE, VERSION_OLD, 1))));
+      Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatusCode());
+      Assert.assertEquals("<kopemedata/>", response.getContentAsString());
+
+      WebResponse missingResponse = client.loadWebResponse(new WebRequest(new URL(actionUrl + action.getRawResultUrl(TESTCASE, VERSION, 0))));
+      Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND, missingResponse.getStatusCode());
+
+      WebResponse invalidVersionResponse = client.loadWebResponse(new WebRequest(new URL(actionUrl + action.getRawResultUrl(TESTCASE, "../other", 1))));
+      Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, invalidVersionResponse.getStatusCode());
+
+      WebResponse invalidVMResponse = client.loadWebResponse(new WebRequest(new URL(actionUrl + action.getRawResultUrl(TESTCASE, VERSION, 2))));
+      Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, invalidVMResponse.getStatusCode());
+   }
+
+   private MeasureVersionAction createAction() {
+      MeasurementConfig config = new MeasurementConfig(2);
+      config.getExecutionConfig().setVersion(VERSION);
+      config.getExecutionConfig().setVersionOld(VERSION_OLD);
+      HashMap<String, HistogramValues> measurements = new HashMap<>();
+      measurements.put(TESTCASE, null);
+      return new MeasureVersionAction(config, new Changes(), new ProjectStatistics(), new HashMap<>(), measurements, new HashMap<>());
+   }
+}
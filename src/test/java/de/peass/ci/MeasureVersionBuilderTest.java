@@ -40,6 +40,24 @@ public class MeasureVersionBuilderTest {
       FreeStyleBuild build = jenkins.buildAndAssertStatus(Result.FAILURE, project);
    }
    
+   @Test
+   public void testIsolatedWorkspaceIsKeptOnFailure() throws Exception {
+      FreeStyleProject project = jenkins.createFreeStyleProject();
+
+      MeasureVersionBuilder builder = createSimpleBuilder();
+      builder.setIsolatedWorkspaces(true);
+      project.getBuildersList().add(builder);
+
+      FreeStyleBuild failedBuild = jenkins.buildAndAssertStatus(Result.FAILURE, project);
+      File sharedWorkspace = new File(project.getRootDir(), "peass-data");
+      File failedWorkspace = new File(sharedWorkspace, "builds" + File.separator + failedBuild.getNumber());
+      Assert.assertTrue(failedWorkspace.exists());
+
+      failedBuild.delete();
+      jenkins.buildAndAssertStatus(Result.FAILURE, project);
+      Assert.assertFalse(failedWorkspace.exists());
+   }
+
    @Test
    public void testFullBuild() throws Exception {
       // Windows tends to create some strange errors when trying to copy .git-folders; therefore, windows builds are currently not fully supported
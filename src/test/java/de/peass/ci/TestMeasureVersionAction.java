@@ -1,5 +1,6 @@
 package de.peass.ci;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 import org.junit.Assert;
@@ -52,4 +53,25 @@ public class TestMeasureVersionAction {
       Assert.assertTrue(action.testIsChanged("de.package.ClassA#method2"));
       Assert.assertTrue(action.testIsChanged("de.package.ClassB#method2"));
    }
+
+   @Test
+   public void testMissingStatistics() {
+      MeasureVersionAction action = new MeasureVersionAction(new MeasurementConfig(5), getChanges().getVersion("1"), new ProjectStatistics(),
+            new HashMap<>(), new HashMap<>(), new HashMap<>());
+
+      Assert.assertNull(action.getTestcaseStatistic("de.package.ClassA#method1"));
+   }
+
+   @Test
+   public void testInconclusiveTests() {
+      MeasureVersionAction action = new MeasureVersionAction(new MeasurementConfig(5), getChanges().getVersion("1"), new ProjectStatistics(),
+            new HashMap<>(), new HashMap<>(), new HashMap<>());
+      Assert.assertFalse(action.hasInconclusiveTests());
+
+      action.setInconclusiveTests(Arrays.asList(new TestCase("de.package.ClassA", "method1")), Arrays.asList(new TestCase("de.package.ClassB", "method2")));
+
+      Assert.assertTrue(action.hasInconclusiveTests());
+      Assert.assertEquals(Arrays.asList("de.package.ClassA#method1"), action.getSkippedTests());
+      Assert.assertEquals(Arrays.asList("de.package.ClassB#method2"), action.getBorderlineTests());
+   }
 }
@@ -0,0 +1,91 @@
+package de.peass.ci;
+
+import java.io.File;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+
+import de.dagere.peass.ci.persistence.TrendStore;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+import de.dagere.peass.utils.Constants;
+import hudson.model.FreeStyleProject;
+
+public class TrendActionApiTest {
+
+   private static final String TESTCASE_A = "de.TestA#method";
+   private static final String TESTCASE_B = "de.TestB#method";
+
+   @Rule
+   public JenkinsRule jenkins = new JenkinsRule();
+
+   @Test
+   public void testFilterAndNotModified() throws Exception {
+      FreeStyleProject project = jenkins.createFreeStyleProject();
+      TrendStore store = new TrendStore(new File(project.getRootDir(), "peass-data"));
+      for (int build = 1; build <= 3; build++) {
+         store.append(createStatistics(build), build);
+      }
+
+      JenkinsRule.WebClient client = jenkins.createWebClient();
+      client.getOptions().setThrowExceptionOnFailingStatusCode(false);
+      String apiUrl = jenkins.getURL() + project.getUrl() + "stats/api?filter=TestA&from=2&to=3";
+
+      WebResponse response = client.loadWebResponse(new WebRequest(new URL(apiUrl)));
+      Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatusCode());
+      JsonNode trend = Constants.OBJECTMAPPER.readTree(response.getContentAsString());
+      Assert.assertEquals(1, trend.get("blockSize").asInt());
+      Assert.assertEquals(1, trend.get("testcases").size());
+      JsonNode points = trend.get("testcases").get(TESTCASE_A);
+      Assert.assertEquals(2, points.size());
+      Assert.assertEquals(2, points.get(0).get("firstBuild").asInt());
+      Assert.assertEquals(3, points.get(1).get("lastBuild").asInt());
+
+      Assert.assertEquals("Accept-Encoding", response.getResponseHeaderValue("Vary"));
+      String etag = response.getResponseHeaderValue("ETag");
+      Assert.assertNotNull(etag);
+      WebRequest conditionalRequest = new WebRequest(new URL(apiUrl));
+      conditionalRequest.setAdditionalHeader("If-None-Match", etag);
+      WebResponse notModifiedResponse = client.loadWebResponse(conditionalRequest);
+      Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, notModifiedResponse.getStatusCode());
+      Assert.assertEquals("Accept-Encoding", notModifiedResponse.getResponseHeaderValue("Vary"));
+
+      store.append(createStatistics(4), 4);
+      WebResponse changedResponse = client.loadWebResponse(conditionalRequest);
+      Assert.assertEquals(HttpServletResponse.SC_OK, changedResponse.getStatusCode());
+      Assert.assertNotEquals(etag, changedResponse.getResponseHeaderValue("ETag"));
+   }
+
+   @Test
+   public void testUnsupportedResolution() throws Exception {
+      FreeStyleProject project = jenkins.createFreeStyleProject();
+      TrendStore store = new TrendStore(new File(project.getRootDir(), "peass-data"));
+      store.append(createStatistics(1), 1);
+
+      JenkinsRule.WebClient client = jenkins.createWebClient();
+      client.getOptions().setThrowExceptionOnFailingStatusCode(false);
+      WebResponse response = client.loadWebResponse(new WebRequest(new URL(jenkins.getURL() + project.getUrl() + "stats/api?resolution=5")));
+      Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatusCode());
+   }
+
+   private Map<String, TestcaseStatistic> createStatistics(final int build) {
+      Map<String, TestcaseStatistic> statistics = new HashMap<>();
+      for (String testcase : new String[] { TESTCASE_A, TESTCASE_B }) {
+         TestcaseStatistic statistic = new TestcaseStatistic();
+         statistic.setMeanCurrent(build);
+         statistic.setDeviationCurrent(1);
+         statistics.put(testcase, statistic);
+      }
+      return statistics;
+   }
+}
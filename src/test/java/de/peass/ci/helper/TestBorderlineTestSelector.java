@@ -0,0 +1,26 @@
+package de.peass.ci.helper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dagere.peass.ci.helper.BorderlineTestSelector;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+import de.dagere.peass.statistics.StatisticUtil;
+
+public class TestBorderlineTestSelector {
+
+   @Test
+   public void testBorderlineDetection() {
+      MeasurementConfig config = new MeasurementConfig(15);
+      config.getStatisticsConfig().setType1error(0.01);
+      double criticalTValue = StatisticUtil.getCriticalValueTTest(0.01, 28);
+
+      BorderlineTestSelector selector = new BorderlineTestSelector(config);
+
+      Assert.assertTrue(selector.isBorderline(new TestcaseStatistic(1, 2, 0.1, 0.2, 15, criticalTValue * 1.1, true, 100, 100)));
+      Assert.assertTrue(selector.isBorderline(new TestcaseStatistic(1, 2, 0.1, 0.2, 15, -criticalTValue * 0.9, false, 100, 100)));
+      Assert.assertFalse(selector.isBorderline(new TestcaseStatistic(1, 2, 0.1, 0.2, 15, criticalTValue * 3, true, 100, 100)));
+      Assert.assertFalse(selector.isBorderline(new TestcaseStatistic(1, 1, 0.1, 0.1, 15, 0.1, false, 100, 100)));
+   }
+}
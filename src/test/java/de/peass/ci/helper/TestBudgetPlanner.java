@@ -0,0 +1,49 @@
+package de.peass.ci.helper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dagere.peass.ci.helper.BudgetPlanner;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+
+public class TestBudgetPlanner {
+
+   private static final TestCase STABLE = new TestCase("de.Test", "stable");
+   private static final TestCase NOISY = new TestCase("de.Test", "noisy");
+   private static final TestCase UNKNOWN = new TestCase("de.Test", "unknown");
+
+   @Test
+   public void testNoisyTestsGetMoreVMs() {
+      MeasurementConfig config = new MeasurementConfig(10);
+      config.setIterations(100);
+      config.setWarmup(0);
+      config.getStatisticsConfig().setType1error(0.01);
+
+      Map<TestCase, TestcaseStatistic> history = new HashMap<>();
+      history.put(STABLE, new TestcaseStatistic(1000000, 1000000, 10000, 10000, 10, 0.1, false, 1, 1));
+      history.put(NOISY, new TestcaseStatistic(1000000, 1000000, 200000, 200000, 10, 0.1, false, 1, 1));
+
+      BudgetPlanner planner = new BudgetPlanner(config, 30, 10000, history);
+      Set<TestCase> tests = new LinkedHashSet<>(Arrays.asList(STABLE, NOISY, UNKNOWN));
+      long budget = 5 * 60 * 1000;
+      Map<TestCase, Integer> plan = planner.plan(tests, budget);
+
+      Assert.assertEquals(10, plan.get(UNKNOWN).intValue());
+      Assert.assertTrue(plan.get(NOISY) > plan.get(STABLE));
+      Assert.assertTrue(plan.get(STABLE) >= BudgetPlanner.MINIMUM_VMS);
+
+      long plannedDuration = 0;
+      for (Map.Entry<TestCase, Integer> entry : plan.entrySet()) {
+         plannedDuration += entry.getValue() * planner.estimateVMDuration(entry.getKey());
+      }
+      Assert.assertTrue(plannedDuration <= budget);
+   }
+}
@@ -0,0 +1,53 @@
+package de.peass.ci.helper;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dagere.peass.ci.helper.ChunkValues;
+import de.dagere.peass.ci.helper.ChunkValuesSidecar;
+
+public class TestChunkValuesSidecar {
+
+   private static final File EXAMPLE_FILE = new File("src/test/resources/demo-results/histogram/"
+         + "measurement_a23e385264c31def8dcda86c3cf64faa698c62d8_33ce17c04b5218c25c40137d4d09f40fbb3e4f0f/CalleeTest_onlyCallMethod2.xml");
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder(new File("target"));
+
+   @Test
+   public void testSidecarCreation() throws Exception {
+      File xmlFile = new File(folder.getRoot(), EXAMPLE_FILE.getName());
+      FileUtils.copyFile(EXAMPLE_FILE, xmlFile);
+
+      ChunkValues parsed = ChunkValuesSidecar.read(xmlFile);
+      File sidecar = ChunkValuesSidecar.getSidecarFile(xmlFile);
+      Assert.assertTrue(sidecar.exists());
+
+      ChunkValues cached = ChunkValuesSidecar.read(xmlFile);
+      Assert.assertEquals("de.test.CalleeTest#onlyCallMethod2", cached.getTestcaseKey());
+      Assert.assertEquals(5, cached.size());
+      Assert.assertArrayEquals(parsed.getValues(), cached.getValues(), 0.0);
+      Assert.assertArrayEquals(parsed.getRepetitions(), cached.getRepetitions());
+      Assert.assertArrayEquals(parsed.getVersions(), cached.getVersions());
+      Assert.assertEquals(200, cached.getMinRepetitions());
+      Assert.assertEquals(2, cached.getValues("a23e385264c31def8dcda86c3cf64faa698c62d8", 200).length);
+   }
+
+   @Test
+   public void testOutdatedSidecar() throws Exception {
+      File xmlFile = new File(folder.getRoot(), EXAMPLE_FILE.getName());
+      FileUtils.copyFile(EXAMPLE_FILE, xmlFile);
+      File sidecar = ChunkValuesSidecar.getSidecarFile(xmlFile);
+      FileUtils.writeStringToFile(sidecar, "outdated", "UTF-8");
+
+      ChunkValues values = ChunkValuesSidecar.read(xmlFile);
+
+      Assert.assertEquals(5, values.size());
+      Assert.assertTrue(sidecar.length() > "outdated".length());
+   }
+}
@@ -0,0 +1,43 @@
+package de.peass.ci.helper;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dagere.peass.ci.helper.HistogramBins;
+import de.dagere.peass.ci.helper.HistogramValues;
+import de.dagere.peass.config.MeasurementConfig;
+
+public class TestHistogramValues {
+
+   @Test
+   public void testBinning() {
+      Random random = new Random(0);
+      double[] current = random.doubles(1000, 10000, 20000).toArray();
+      double[] before = random.doubles(1000, 15000, 25000).toArray();
+
+      MeasurementConfig config = new MeasurementConfig(1000);
+      config.setRepetitions(1);
+      HistogramValues values = new HistogramValues(current, before, config);
+
+      HistogramBins bins = values.getBins();
+      Assert.assertTrue(bins.getBinCount() > 1);
+      Assert.assertTrue(bins.getBinCount() <= HistogramBins.MAX_BINS);
+      Assert.assertEquals(1000, Arrays.stream(bins.getCountsCurrent()).sum());
+      Assert.assertEquals(1000, Arrays.stream(bins.getCountsBefore()).sum());
+
+      Assert.assertEquals(HistogramValues.MAX_RAW_VALUES, values.getValuesCurrentReadable().split(",").length);
+      Assert.assertEquals(5, values.getMarkersCurrentReadable().split(",").length);
+   }
+
+   @Test
+   public void testEqualValues() {
+      HistogramBins bins = HistogramBins.create(new double[] { 5, 5, 5 }, new double[] { 5 });
+
+      Assert.assertEquals(1, bins.getBinCount());
+      Assert.assertEquals(3, bins.getCountsCurrent()[0]);
+      Assert.assertEquals(1, bins.getCountsBefore()[0]);
+   }
+}
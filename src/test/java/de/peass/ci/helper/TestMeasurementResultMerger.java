@@ -0,0 +1,84 @@
+package de.peass.ci.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import de.dagere.peass.ci.helper.ChunkValues;
+import de.dagere.peass.ci.helper.ChunkValuesSidecar;
+import de.dagere.peass.ci.helper.MeasurementResultMerger;
+import de.dagere.peass.ci.process.MeasurementAgentPool;
+
+public class TestMeasurementResultMerger {
+
+   private static final String VERSION = "a23e385264c31def8dcda86c3cf64faa698c62d8";
+   private static final String VERSION_OLD = "33ce17c04b5218c25c40137d4d09f40fbb3e4f0f";
+   private static final File EXAMPLE_FILE = new File("src/test/resources/demo-results/histogram/"
+         + "measurement_a23e385264c31def8dcda86c3cf64faa698c62d8_33ce17c04b5218c25c40137d4d09f40fbb3e4f0f/CalleeTest_onlyCallMethod2.xml");
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder(new File("target"));
+
+   @Test
+   public void testResultFileMerging() throws Exception {
+      File target = new File(folder.getRoot(), EXAMPLE_FILE.getName());
+      FileUtils.copyFile(EXAMPLE_FILE, target);
+      Assert.assertEquals(5, ChunkValuesSidecar.read(target).size());
+
+      MeasurementResultMerger.mergeResultFile(target, EXAMPLE_FILE, VERSION, VERSION_OLD);
+
+      ChunkValues merged = ChunkValuesSidecar.read(target);
+      Assert.assertEquals("de.test.CalleeTest#onlyCallMethod2", merged.getTestcaseKey());
+      Assert.assertEquals(10, merged.size());
+      Assert.assertEquals(4, merged.getValues("a23e385264c31def8dcda86c3cf64faa698c62d8", 200).length);
+   }
+
+   @Test
+   public void testResultsAreMergedIntoChunkOfVersionPair() throws Exception {
+      String example = FileUtils.readFileToString(EXAMPLE_FILE, StandardCharsets.UTF_8);
+      String chunk = example.substring(example.indexOf("<chunk"), example.indexOf("</chunk>") + "</chunk>".length());
+      String formerChunk = chunk.replace(VERSION, "000002").replace(VERSION_OLD, "000001");
+      File target = new File(folder.getRoot(), EXAMPLE_FILE.getName());
+      FileUtils.write(target, example.replace(chunk, formerChunk + chunk), StandardCharsets.UTF_8);
+
+      MeasurementResultMerger.mergeResultFile(target, EXAMPLE_FILE, VERSION, VERSION_OLD);
+
+      NodeList chunks = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(target).getElementsByTagName("chunk");
+      Assert.assertEquals(2, chunks.getLength());
+      Assert.assertEquals(5, ((Element) chunks.item(0)).getElementsByTagName("result").getLength());
+      Assert.assertEquals(10, ((Element) chunks.item(1)).getElementsByTagName("result").getLength());
+   }
+
+   @Test
+   public void testDoctypeIsRejected() throws Exception {
+      File target = new File(folder.getRoot(), EXAMPLE_FILE.getName());
+      FileUtils.copyFile(EXAMPLE_FILE, target);
+      File source = new File(folder.getRoot(), "source.xml");
+      FileUtils.write(source, "<?xml version=\"1.0\"?><!DOCTYPE kopemedata [<!ENTITY secret SYSTEM \"file:///etc/passwd\">]><kopemedata>&secret;</kopemedata>",
+            StandardCharsets.UTF_8);
+
+      try {
+         MeasurementResultMerger.mergeResultFile(target, source, VERSION, VERSION_OLD);
+         Assert.fail("Result file with doctype should not be merged");
+      } catch (IOException e) {
+         Assert.assertEquals(FileUtils.readFileToString(EXAMPLE_FILE, StandardCharsets.UTF_8), FileUtils.readFileToString(target, StandardCharsets.UTF_8));
+      }
+   }
+
+   @Test
+   public void testVMPartition() {
+      Assert.assertArrayEquals(new int[] { 6, 6, 6, 6, 6 }, MeasurementAgentPool.partition(30, 5));
+      Assert.assertArrayEquals(new int[] { 4, 3, 3 }, MeasurementAgentPool.partition(10, 3));
+      Assert.assertArrayEquals(new int[] { 1, 1 }, MeasurementAgentPool.partition(2, 4));
+   }
+}
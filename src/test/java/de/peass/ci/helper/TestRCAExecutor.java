@@ -0,0 +1,78 @@
+package de.peass.ci.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.dagere.peass.analysis.changes.Change;
+import de.dagere.peass.analysis.changes.ProjectChanges;
+import de.dagere.peass.ci.helper.RCAExecutor;
+import de.dagere.peass.ci.persistence.RCAIndex;
+import de.dagere.peass.ci.persistence.RCAIndexEntry;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.folders.CauseSearchFolders;
+
+public class TestRCAExecutor {
+
+   private static final File BASE_FOLDER = new File("target/rca-executor");
+   private static final File PROJECT_FOLDER = new File(BASE_FOLDER, "demo-project");
+   private static final String VERSION = "000002";
+   private static final TestCase TEST_A = new TestCase("de.test.CalleeTest", "methodA");
+   private static final TestCase TEST_B = new TestCase("de.test.CalleeTest", "methodB");
+   private static final TestCase FAILING_TEST = new TestCase("de.test.CalleeTest", "methodFailing");
+
+   @Before
+   public void cleanFolder() throws IOException {
+      FileUtils.deleteDirectory(BASE_FOLDER);
+      PROJECT_FOLDER.mkdirs();
+      FileUtils.write(new File(PROJECT_FOLDER, "pom.xml"), "<project/>", StandardCharsets.UTF_8);
+   }
+
+   @Test
+   public void testIsolatedResultsAreMerged() throws Exception {
+      MeasurementConfig config = new MeasurementConfig(2);
+      config.getExecutionConfig().setVersion(VERSION);
+      config.getExecutionConfig().setVersionOld("000001");
+
+      ProjectChanges changes = new ProjectChanges();
+      for (TestCase test : new TestCase[] { TEST_A, TEST_B, FAILING_TEST }) {
+         changes.addChange(test, VERSION, new Change("dummy", test.getMethod()));
+      }
+
+      RCAExecutor executor = new RCAExecutor(config, PROJECT_FOLDER, changes, null, null) {
+         @Override
+         protected void executeRCA(final MeasurementConfig config, final TestCase testCase, final File searchProjectFolder) throws IOException {
+            Assert.assertNotEquals(PROJECT_FOLDER.getAbsoluteFile(), searchProjectFolder.getAbsoluteFile());
+            Assert.assertEquals(PROJECT_FOLDER.getName(), searchProjectFolder.getName());
+            if (testCase.equals(FAILING_TEST)) {
+               throw new IOException("Simulated failure of the analysis");
+            }
+            FileUtils.write(getResultFile(searchProjectFolder, testCase), "{}", StandardCharsets.UTF_8);
+         }
+      };
+      executor.setParallelism(2);
+      executor.executeRCAs();
+
+      File rcaFolder = RCAIndex.getRCAFolder(new CauseSearchFolders(PROJECT_FOLDER));
+      RCAIndex index = RCAIndex.read(rcaFolder);
+      for (TestCase test : new TestCase[] { TEST_A, TEST_B }) {
+         File resultFile = getResultFile(PROJECT_FOLDER, test);
+         Assert.assertTrue(resultFile.exists());
+         Assert.assertEquals(RCAIndexEntry.Status.FINISHED, index.findEntry(rcaFolder, resultFile).getStatus());
+      }
+      Assert.assertEquals(RCAIndexEntry.Status.FAILED, index.findEntry(rcaFolder, getResultFile(PROJECT_FOLDER, FAILING_TEST)).getStatus());
+
+      File[] isolatedFolders = BASE_FOLDER.listFiles((dir, name) -> name.startsWith(PROJECT_FOLDER.getName() + "_rca"));
+      Assert.assertEquals(0, isolatedFolders.length);
+   }
+
+   private static File getResultFile(final File projectFolder, final TestCase testCase) {
+      return new File(new CauseSearchFolders(projectFolder).getRcaTreeFolder(VERSION, testCase), testCase.getMethod() + ".json");
+   }
+}
@@ -0,0 +1,54 @@
+package de.peass.ci.helper;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dagere.peass.ci.persistence.RCAIndex;
+import de.dagere.peass.ci.persistence.RCAIndexEntry;
+
+public class TestRCAIndex {
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder(new File("target"));
+
+   @Test
+   public void testIndexRoundtrip() throws Exception {
+      File rcaFolder = new File(folder.getRoot(), "rca");
+      File resultFile = new File(rcaFolder, "tree/000002/CalleeTest/onlyCallMethod1.json");
+
+      RCAIndex index = RCAIndex.read(rcaFolder);
+      Assert.assertNull(index.findEntry(rcaFolder, resultFile));
+
+      index.addEntry(new RCAIndexEntry("000002", "000001", "de.test.CalleeTest#onlyCallMethod1", 42, RCAIndex.getRelativePath(rcaFolder, resultFile),
+            RCAIndexEntry.Status.FINISHED));
+      index.write(rcaFolder);
+
+      RCAIndexEntry entry = RCAIndex.read(rcaFolder).findEntry(rcaFolder, resultFile);
+      Assert.assertEquals("tree/000002/CalleeTest/onlyCallMethod1.json", entry.getResultFile());
+      Assert.assertEquals("000001", entry.getVersionOld());
+      Assert.assertEquals(42, entry.getConfigHash());
+      Assert.assertEquals(RCAIndexEntry.Status.FINISHED, entry.getStatus());
+   }
+
+   @Test
+   public void testUnreadableIndexIsKept() throws Exception {
+      File rcaFolder = new File(folder.getRoot(), "rca");
+      File indexFile = new File(rcaFolder, RCAIndex.INDEX_FILE_NAME);
+      FileUtils.write(indexFile, "{\"entries\": {", StandardCharsets.UTF_8);
+
+      RCAIndex index = RCAIndex.read(rcaFolder);
+      Assert.assertNull(index.findEntry(rcaFolder, new File(rcaFolder, "tree/000002/CalleeTest/onlyCallMethod1.json")));
+      index.write(rcaFolder);
+
+      File[] unreadableFiles = rcaFolder.listFiles((dir, name) -> name.startsWith(RCAIndex.INDEX_FILE_NAME + ".unreadable"));
+      Assert.assertEquals(1, unreadableFiles.length);
+      Assert.assertEquals("{\"entries\": {", FileUtils.readFileToString(unreadableFiles[0], StandardCharsets.UTF_8));
+   }
+}
@@ -0,0 +1,23 @@
+package de.peass.ci.helper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dagere.peass.ci.helper.RepetitionCalibrator;
+
+public class TestRepetitionCalibrator {
+
+   @Test
+   public void testCalibration() {
+      RepetitionCalibrator calibrator = new RepetitionCalibrator("000001", 10);
+
+      // 100 repetitions taking 1 ms means 10 microseconds per repetition, so 1000 repetitions take 10 ms
+      Assert.assertEquals(1000, calibrator.getRepetitions(1000000, 100));
+      // A repetition taking 1 second is already slower than the target
+      Assert.assertEquals(1, calibrator.getRepetitions(1000000000d, 1));
+      // Repetitions close to the timer resolution are limited
+      Assert.assertEquals(RepetitionCalibrator.MAXIMUM_REPETITIONS, calibrator.getRepetitions(10, 100));
+      // Without usable duration, the used repetitions are kept
+      Assert.assertEquals(100, calibrator.getRepetitions(0, 100));
+   }
+}
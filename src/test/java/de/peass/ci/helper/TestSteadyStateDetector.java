@@ -0,0 +1,102 @@
+package de.peass.ci.helper;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dagere.peass.ci.helper.SteadyStateDetector;
+import de.dagere.peass.ci.persistence.MeasurementRecommendations;
+import de.dagere.peass.config.MeasurementConfig;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.folders.PeassFolders;
+
+public class TestSteadyStateDetector {
+
+   private static final File DETAIL_FILE = new File("src/test/resources/demo-results/histogram/"
+         + "measurement_a23e385264c31def8dcda86c3cf64faa698c62d8_33ce17c04b5218c25c40137d4d09f40fbb3e4f0f/measurements/de.test.CalleeTest/"
+         + "a23e385264c31def8dcda86c3cf64faa698c62d8/33ce17c04b5218c25c40137d4d09f40fbb3e4f0f/onlyCallMethod2_0_33ce17c04b5218c25c40137d4d09f40fbb3e4f0f.xml");
+
+   @Test
+   public void testWarmupDetection() {
+      Random random = new Random(0);
+      double[] series = new double[100];
+      for (int i = 0; i < series.length; i++) {
+         double warmupOverhead = i < 20 ? (20 - i) * 50 : 0;
+         series[i] = 1000 + warmupOverhead + random.nextGaussian() * 5;
+      }
+      int truncationPoint = SteadyStateDetector.getTruncationPoint(series);
+      Assert.assertTrue("Truncation point was " + truncationPoint, truncationPoint >= 15 && truncationPoint <= 25);
+   }
+
+   @Test
+   public void testSteadySeries() {
+      Random random = new Random(0);
+      double[] series = new double[50];
+      for (int i = 0; i < series.length; i++) {
+         series[i] = 1000 + random.nextGaussian() * 5;
+      }
+      Assert.assertTrue(SteadyStateDetector.getTruncationPoint(series) <= 10);
+      Assert.assertEquals(0, SteadyStateDetector.getTruncationPoint(new double[] { 5, 4, 3 }));
+   }
+
+   @Test
+   public void testRequiredIterations() {
+      Random random = new Random(0);
+      double[] quietSeries = new double[200];
+      double[] noisySeries = new double[200];
+      for (int i = 0; i < quietSeries.length; i++) {
+         quietSeries[i] = 1000 + random.nextGaussian() * 5;
+         noisySeries[i] = 1000 + random.nextGaussian() * 200;
+      }
+      Assert.assertEquals(SteadyStateDetector.MINIMUM_ITERATIONS, SteadyStateDetector.getRequiredIterations(quietSeries, 0));
+      int noisyIterations = SteadyStateDetector.getRequiredIterations(noisySeries, 0);
+      Assert.assertTrue("Required iterations were " + noisyIterations, noisyIterations > 100);
+      Assert.assertEquals(4, SteadyStateDetector.getRequiredIterations(new double[] { 5, 4, 3, 2, 1, 1 }, 2));
+   }
+
+   @Test
+   public void testAppliedWarmupIsAdded() throws Exception {
+      File detailResultsFolder = new File("target/steady-state/measurements");
+      FileUtils.deleteDirectory(detailResultsFolder);
+      MeasurementConfig config = new MeasurementConfig(1);
+      config.setWarmup(100);
+      config.getExecutionConfig().setVersion("000002");
+      config.getExecutionConfig().setVersionOld("000001");
+      TestCase test = new TestCase("de.test.CalleeTest", "onlyCallMethod1");
+
+      Random random = new Random(0);
+      for (String version : new String[] { "000002", "000001" }) {
+         StringBuilder values = new StringBuilder();
+         for (int i = 0; i < 100; i++) {
+            double warmupOverhead = i < 20 ? (20 - i) * 50 : 0;
+            values.append("<value>").append(1000 + warmupOverhead + random.nextGaussian() * 5).append("</value>");
+         }
+         File detailFile = new File(detailResultsFolder, PeassFolders.getRelativeFullResultPath(test, "000002", version, 0));
+         FileUtils.write(detailFile, "<kopeme><result><fulldata>" + values + "</fulldata></result></kopeme>", StandardCharsets.UTF_8);
+      }
+
+      SteadyStateDetector detector = new SteadyStateDetector(config);
+      int detectedWarmup = detector.detect(detailResultsFolder, Collections.singleton(test), Collections.singletonMap(test.getExecutable(), 30))
+            .get(test.getExecutable());
+      Assert.assertTrue("Detected warmup was " + detectedWarmup, detectedWarmup >= 45 && detectedWarmup <= 55);
+
+      Map<String, Integer> configuredWarmups = detector.detect(detailResultsFolder, Collections.singleton(test));
+      Assert.assertTrue(configuredWarmups.get(test.getExecutable()) >= 115);
+
+      MeasurementRecommendations recommendations = new MeasurementRecommendations();
+      recommendations.updateWarmups(Collections.singletonMap(test.getExecutable(), detectedWarmup), 0, config.getWarmup());
+      Assert.assertEquals(detectedWarmup, recommendations.findWarmup(test, config.getWarmup()));
+   }
+
+   @Test
+   public void testSeriesReading() throws Exception {
+      double[] series = SteadyStateDetector.readSeries(DETAIL_FILE);
+      Assert.assertEquals(3, series.length);
+   }
+}
@@ -0,0 +1,86 @@
+package de.peass.ci.helper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dagere.peass.analysis.changes.Change;
+import de.dagere.peass.analysis.changes.ProjectChanges;
+import de.dagere.peass.ci.helper.TestPrioritizer;
+import de.dagere.peass.ci.persistence.ChangeHistory;
+import de.dagere.peass.ci.persistence.TestMeasurementValues;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+
+public class TestTestPrioritizer {
+
+   private static final TestCase UNCHANGED = new TestCase("de.Test", "unchanged");
+   private static final TestCase VOLATILE = new TestCase("de.Test", "volatile");
+   private static final TestCase CHANGED = new TestCase("de.Test", "changed");
+
+   @Test
+   public void testOrder() {
+      ChangeHistory history = new ChangeHistory();
+      for (int build = 1; build <= 3; build++) {
+         ProjectChanges changes = new ProjectChanges();
+         changes.addChange(CHANGED, "1", new Change("dummy", "changed"));
+         history.addChanges(changes.getVersion("1"), build);
+      }
+      Assert.assertEquals(3, history.getChangeCount(CHANGED));
+
+      Map<TestCase, TestMeasurementValues> trend = new HashMap<>();
+      trend.put(VOLATILE, createTrend(100, 200, 100, 200));
+      trend.put(CHANGED, createTrend(100, 101, 100, 101));
+
+      Map<TestCase, Integer> proximity = new HashMap<>();
+      proximity.put(CHANGED, 2);
+      proximity.put(VOLATILE, 1);
+
+      TestPrioritizer prioritizer = new TestPrioritizer(history, trend, proximity);
+      Set<TestCase> ordered = prioritizer.prioritize(new LinkedHashSet<>(Arrays.asList(UNCHANGED, VOLATILE, CHANGED)));
+
+      Iterator<TestCase> iterator = ordered.iterator();
+      Assert.assertEquals(CHANGED, iterator.next());
+      Assert.assertEquals(VOLATILE, iterator.next());
+      Assert.assertEquals(UNCHANGED, iterator.next());
+   }
+
+   @Test
+   public void testHistoryIsSeededFromProjectChanges() {
+      ProjectChanges changes = new ProjectChanges();
+      changes.addChange(CHANGED, "1", new Change("dummy", "changed"));
+      changes.addChange(CHANGED, "2", new Change("dummy", "changed"));
+      changes.addChange(CHANGED, "3", new Change("dummy", "changed"));
+      changes.addChange(VOLATILE, "3", new Change("dummy", "volatile"));
+
+      ChangeHistory history = new ChangeHistory();
+      history.seed(changes, "3");
+
+      // Version 3 is the current version, which is recorded with its build number afterwards
+      Assert.assertTrue(history.isSeeded());
+      Assert.assertEquals(2, history.getChangeCount(CHANGED));
+      Assert.assertEquals(0, history.getChangeCount(VOLATILE));
+
+      history.addChanges(changes.getVersion("3"), 7);
+      history.seed(changes, "3");
+      Assert.assertEquals(3, history.getChangeCount(CHANGED));
+      Assert.assertEquals(1, history.getChangeCount(VOLATILE));
+      Assert.assertEquals(7, (int) history.getChangedBuilds().get(CHANGED.getExecutable()).get(2));
+   }
+
+   private TestMeasurementValues createTrend(final double... means) {
+      TestMeasurementValues values = new TestMeasurementValues();
+      for (int build = 0; build < means.length; build++) {
+         TestcaseStatistic statistic = new TestcaseStatistic();
+         statistic.setMeanCurrent(means[build]);
+         values.getStatistics().put(build, statistic);
+      }
+      return values;
+   }
+}
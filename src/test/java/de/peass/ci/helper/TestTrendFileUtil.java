@@ -3,6 +3,7 @@ package de.peass.ci.helper;
 import java.io.File;
 import java.io.IOException;
 
+import org.apache.commons.io.FileUtils;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
@@ -17,9 +18,11 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import de.dagere.peass.ci.persistence.BuildMeasurementValues;
 import de.dagere.peass.ci.persistence.TestMeasurementValues;
 import de.dagere.peass.ci.persistence.TrendFileUtil;
+import de.dagere.peass.ci.persistence.TrendStore;
 import de.dagere.peass.dependency.analysis.data.TestCase;
 import de.dagere.peass.measurement.analysis.ProjectStatistics;
 import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+import de.dagere.peass.utils.Constants;
 import hudson.model.Run;
 
 /**
@@ -35,9 +38,10 @@ public class TestTrendFileUtil {
    private static final int VERSION_INDEX = 15;
 
    @Before
-   public void cleanTrendfile() {
+   public void cleanTrendfile() throws IOException {
       File trendFile = new File(LOCAL_WORKSPACE, TrendFileUtil.TREND_FILE_NAME);
       trendFile.delete();
+      FileUtils.deleteDirectory(new File(LOCAL_WORKSPACE, TrendStore.TREND_FOLDER_NAME));
    }
 
    @Test
@@ -61,6 +65,22 @@ public class TestTrendFileUtil {
       Assert.assertEquals(testcaseValues.getStatistics().get(VERSION_INDEX + 1).getMeanCurrent(), 2, 0.01);
    }
 
+   @Test
+   public void testMigration() throws JsonParseException, JsonMappingException, JsonGenerationException, IOException, InterruptedException {
+      BuildMeasurementValues legacyValues = new BuildMeasurementValues();
+      legacyValues.addMeasurement(buildStatistics(), VERSION_INDEX);
+      Constants.OBJECTMAPPER.writeValue(new File(LOCAL_WORKSPACE, TrendFileUtil.TREND_FILE_NAME), legacyValues);
+
+      Run run = Mockito.mock(Run.class);
+      Mockito.when(run.getNumber()).thenReturn(VERSION_INDEX + 1);
+      TrendFileUtil.persistTrend(run, LOCAL_WORKSPACE, buildStatistics());
+
+      Assert.assertFalse(new File(LOCAL_WORKSPACE, TrendFileUtil.TREND_FILE_NAME).exists());
+      TestMeasurementValues testcaseValues = new TrendStore(LOCAL_WORKSPACE).readTestcase("DemoTest#methodB");
+      MatcherAssert.assertThat(testcaseValues.getStatistics().keySet(), Matchers.contains(VERSION_INDEX, VERSION_INDEX + 1));
+      Assert.assertEquals(testcaseValues.getStatistics().get(VERSION_INDEX).getMeanCurrent(), 4, 0.01);
+   }
+
    private void checkFirstAddition() throws JsonParseException, JsonMappingException, IOException, InterruptedException {
       BuildMeasurementValues values = TrendFileUtil.readMeasurementValues(LOCAL_WORKSPACE);
 
@@ -0,0 +1,109 @@
+package de.peass.ci.helper;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dagere.peass.ci.persistence.TrendIndex;
+import de.dagere.peass.ci.persistence.TrendSeries;
+import de.dagere.peass.ci.persistence.TrendStore;
+import de.dagere.peass.measurement.analysis.statistics.TestcaseStatistic;
+
+public class TestTrendStore {
+
+   private static final String TESTCASE = "DemoTest#methodA";
+   private static final int BUILDS = 600;
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder(new File("target"));
+
+   @Test
+   public void testRollupSelection() throws Exception {
+      TrendStore store = new TrendStore(folder.getRoot());
+      for (int build = 1; build <= BUILDS; build++) {
+         TestcaseStatistic statistic = new TestcaseStatistic();
+         statistic.setMeanCurrent(build);
+         statistic.setDeviationCurrent(1);
+         store.append(Collections.singletonMap(TESTCASE, statistic), build);
+      }
+
+      TrendIndex index = store.readIndex();
+      Assert.assertEquals(1, index.getFirstBuild());
+      Assert.assertEquals(BUILDS, index.getLastBuild());
+
+      TrendSeries full = store.readSeries(index, TESTCASE, 1, BUILDS, TrendStore.DEFAULT_MAX_POINTS);
+      Assert.assertEquals(16, full.getBlockSize());
+      Assert.assertEquals(BUILDS / 16 + 1, full.getPointCount());
+      Assert.assertTrue(full.getMinReadable().startsWith("[1.0, 16.0"));
+
+      TrendSeries coarse = store.readSeries(index, TESTCASE, 1, BUILDS, 10);
+      Assert.assertEquals(256, coarse.getBlockSize());
+      Assert.assertEquals(3, coarse.getPointCount());
+
+      TrendSeries recent = store.readSeries(index, TESTCASE, BUILDS - 99, BUILDS, TrendStore.DEFAULT_MAX_POINTS);
+      Assert.assertEquals(1, recent.getBlockSize());
+      Assert.assertEquals(100, recent.getPointCount());
+   }
+
+   @Test
+   public void testIndexDoesNotGrowWithTestcases() throws Exception {
+      TrendStore store = new TrendStore(folder.getRoot());
+      Map<String, TestcaseStatistic> statistics = new HashMap<>();
+      for (int testcase = 0; testcase < 10; testcase++) {
+         statistics.put("DemoTest#method" + testcase, new TestcaseStatistic());
+      }
+      store.append(statistics, 1);
+      long smallIndexLength = store.getIndexFile().length();
+
+      for (int testcase = 10; testcase < 100; testcase++) {
+         statistics.put("DemoTest#method" + testcase, new TestcaseStatistic());
+      }
+      store.append(statistics, 2);
+      Assert.assertTrue(store.getIndexFile().length() <= smallIndexLength + 2);
+
+      TrendIndex index = store.readIndex();
+      Assert.assertEquals(100, index.getSegments().size());
+      Assert.assertEquals(2, store.readTestcase(index, "DemoTest#method0").getStatistics().size());
+      Assert.assertEquals(1, store.readTestcase(index, "DemoTest#method99").getStatistics().size());
+   }
+
+   @Test
+   public void testConcurrentAppends() throws Exception {
+      TrendStore store = new TrendStore(folder.getRoot());
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      List<Future<?>> appends = new LinkedList<>();
+      for (int build = 1; build <= 64; build++) {
+         final int buildNumber = build;
+         appends.add(executor.submit(() -> {
+            TestcaseStatistic statistic = new TestcaseStatistic();
+            statistic.setMeanCurrent(buildNumber);
+            store.append(Collections.singletonMap("DemoTest#method" + (buildNumber % 4), statistic), buildNumber);
+            return null;
+         }));
+      }
+      for (Future<?> append : appends) {
+         append.get();
+      }
+      executor.shutdown();
+
+      TrendIndex index = store.readIndex();
+      Assert.assertEquals(64, index.getRevision());
+      Assert.assertEquals(4, index.getSegments().size());
+      int builds = 0;
+      for (String testcase : index.getSegments().keySet()) {
+         builds += store.readTestcase(index, testcase).getStatistics().size();
+      }
+      Assert.assertEquals(64, builds);
+   }
+}
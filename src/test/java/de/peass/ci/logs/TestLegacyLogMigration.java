@@ -0,0 +1,92 @@
+package de.peass.ci.logs;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import de.dagere.peass.ci.logs.InternalLogAction;
+import de.dagere.peass.ci.logs.measurement.LogAction;
+import de.dagere.peass.ci.logs.rts.RTSLogAction;
+import de.dagere.peass.dependency.analysis.data.TestCase;
+import hudson.model.Run;
+import hudson.util.XStream2;
+
+public class TestLegacyLogMigration {
+
+   private static final File RUN_FOLDER = new File("target/legacy-log-run");
+   private static final TestCase TESTCASE = new TestCase("de.Test", "method");
+
+   private final XStream2 xstream = new XStream2();
+
+   @Before
+   public void cleanFolder() throws IOException {
+      FileUtils.deleteDirectory(RUN_FOLDER);
+      RUN_FOLDER.mkdirs();
+   }
+
+   @Test
+   public void testMeasurementLogIsMigrated() throws IOException {
+      Run<?, ?> run = mockRun();
+
+      LogAction current = new LogAction(TESTCASE, 0, "abcdef123", null);
+      LogAction action = (LogAction) xstream.fromXML(addLegacyFields(xstream.toXML(current), "<logData>Old measurement log</logData>"));
+      action.onLoad(run);
+
+      Assert.assertNotNull(action.getLogFile());
+      Assert.assertTrue(action.getLogFile().getFile(run).exists());
+      Assert.assertEquals("Old measurement log", action.getLog());
+
+      String savedXml = xstream.toXML(action);
+      Assert.assertFalse(savedXml.contains("logData"));
+      Assert.assertFalse(savedXml.contains("Old measurement log"));
+   }
+
+   @Test
+   public void testRTSLogIsMigrated() throws IOException {
+      Run<?, ?> run = mockRun();
+
+      RTSLogAction current = new RTSLogAction("abcdef123", TESTCASE, null, null);
+      RTSLogAction action = (RTSLogAction) xstream.fromXML(addLegacyFields(xstream.toXML(current), "<cleanLog>Old clean log</cleanLog><log>Old method log</log>"));
+      action.onLoad(run);
+
+      Assert.assertEquals("Old clean log", action.getCleanLog());
+      Assert.assertEquals("Old method log", action.getLog());
+      Assert.assertNotEquals(action.getCleanLogFile().getPath(), action.getLogFile().getPath());
+
+      String savedXml = xstream.toXML(action);
+      Assert.assertFalse(savedXml.contains("<cleanLog>"));
+      Assert.assertFalse(savedXml.contains("<log>"));
+   }
+
+   @Test
+   public void testInternalLogIsMigrated() throws IOException {
+      Run<?, ?> run = mockRun();
+
+      InternalLogAction current = new InternalLogAction("rtsLog", "Regression Test Selection Log", null);
+      InternalLogAction action = (InternalLogAction) xstream.fromXML(addLegacyFields(xstream.toXML(current), "<text>Old process log</text>"));
+      action.onLoad(run);
+
+      Assert.assertEquals("Old process log", action.getText());
+      Assert.assertTrue(action.getLogFile().getFile(run).exists());
+      Assert.assertFalse(xstream.toXML(action).contains("<text>"));
+   }
+
+   /**
+    * Creates the xml of a build in the old format, i.e. with the log texts instead of the log files
+    */
+   private String addLegacyFields(final String xml, final String legacyFields) {
+      int end = xml.lastIndexOf("</");
+      return xml.substring(0, end) + legacyFields + xml.substring(end);
+   }
+
+   private Run<?, ?> mockRun() {
+      Run<?, ?> run = Mockito.mock(Run.class);
+      Mockito.when(run.getRootDir()).thenReturn(RUN_FOLDER);
+      return run;
+   }
+}
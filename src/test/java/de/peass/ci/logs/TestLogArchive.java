@@ -0,0 +1,55 @@
+package de.peass.ci.logs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import de.dagere.peass.ci.logs.LogArchive;
+import de.dagere.peass.ci.logs.LogArchiveEntry;
+import de.dagere.peass.ci.logs.LogFileStorage;
+import de.dagere.peass.ci.logs.StoredLogFile;
+import hudson.model.Run;
+
+public class TestLogArchive {
+
+   private static final File RUN_FOLDER = new File("target/archive-run");
+
+   @Before
+   public void cleanFolder() throws IOException {
+      FileUtils.deleteDirectory(RUN_FOLDER);
+      RUN_FOLDER.mkdirs();
+   }
+
+   @Test
+   public void testArchiveEntriesAreReadable() throws IOException {
+      Run run = Mockito.mock(Run.class);
+      Mockito.when(run.getRootDir()).thenReturn(RUN_FOLDER);
+
+      File logA = new File("target/archive-logA.txt");
+      FileUtils.write(logA, "First log\nwith two lines", StandardCharsets.UTF_8);
+      File logB = new File("target/archive-logB.txt");
+      FileUtils.write(logB, "Second log", StandardCharsets.UTF_8);
+
+      LogFileStorage storage = new LogFileStorage(run, true);
+      StoredLogFile storedA = storage.store("logA", logA);
+      StoredLogFile storedB = storage.store("logB", logB);
+      Assert.assertNull(storage.store("logC", new File("target/archive-missing.txt")));
+      storage.finish();
+
+      Assert.assertTrue(storedA.isArchived());
+      Assert.assertEquals("First log\nwith two lines", storedA.read(run));
+      Assert.assertEquals("Second log", storedB.read(run));
+
+      Map<String, LogArchiveEntry> index = LogArchive.readIndex(new File(RUN_FOLDER, LogArchive.INDEX_FILE_NAME));
+      Assert.assertEquals(2, index.size());
+      Assert.assertEquals(storedB.getOffset(), index.get("logB").getOffset());
+      Assert.assertEquals(logB.length(), index.get("logB").getSize());
+   }
+}
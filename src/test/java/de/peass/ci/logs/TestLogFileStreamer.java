@@ -0,0 +1,48 @@
+package de.peass.ci.logs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dagere.peass.ci.logs.LogFileStreamer;
+import de.dagere.peass.ci.logs.LogPage;
+
+public class TestLogFileStreamer {
+
+   @Test
+   public void testRangeParsing() {
+      Assert.assertArrayEquals(new long[] { 0, 9 }, LogFileStreamer.parseRange("0-9", 100));
+      Assert.assertArrayEquals(new long[] { 50, 99 }, LogFileStreamer.parseRange("50-", 100));
+      Assert.assertArrayEquals(new long[] { 90, 99 }, LogFileStreamer.parseRange("-10", 100));
+      Assert.assertArrayEquals(new long[] { 0, 99 }, LogFileStreamer.parseRange("-500", 100));
+      Assert.assertArrayEquals(new long[] { 95, 99 }, LogFileStreamer.parseRange("95-200", 100));
+
+      Assert.assertNull(LogFileStreamer.parseRange("100-", 100));
+      Assert.assertNull(LogFileStreamer.parseRange("20-10", 100));
+      Assert.assertNull(LogFileStreamer.parseRange("a-b", 100));
+   }
+
+   @Test
+   public void testPaging() throws IOException {
+      File logFile = new File("target/streamer-test.txt");
+      StringBuilder content = new StringBuilder();
+      while (content.length() < LogFileStreamer.PAGE_SIZE + 100) {
+         content.append("This is a log line\n");
+      }
+      FileUtils.write(logFile, content.toString(), StandardCharsets.UTF_8);
+
+      LogPage firstPage = LogFileStreamer.readPage(logFile, 0);
+      Assert.assertTrue(firstPage.isFirst());
+      Assert.assertFalse(firstPage.isLast());
+      Assert.assertEquals(LogFileStreamer.PAGE_SIZE, firstPage.getText().length());
+
+      LogPage lastPage = LogFileStreamer.readPage(logFile, firstPage.getNextStart());
+      Assert.assertTrue(lastPage.isLast());
+      Assert.assertEquals(content.length() - LogFileStreamer.PAGE_SIZE, lastPage.getText().length());
+      Assert.assertEquals(content.substring(LogFileStreamer.PAGE_SIZE), lastPage.getText());
+   }
+}
@@ -0,0 +1,32 @@
+package de.peass.ci.process;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dagere.peass.ci.sync.GitCommand;
+
+public class TestGitCommand {
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder(new File("target"));
+
+   @Test(timeout = 60000)
+   public void testLargeInput() throws Exception {
+      File repository = folder.newFolder("repository");
+      GitCommand.run(repository, "init");
+
+      StringBuilder input = new StringBuilder();
+      int commits = 20000;
+      for (int i = 0; i < commits; i++) {
+         input.append(String.format("%040x", i)).append('\n');
+      }
+      String output = GitCommand.run(repository, input.toString(), Arrays.asList("cat-file", "--batch-check"));
+
+      Assert.assertEquals(commits, output.split("\n").length);
+   }
+}
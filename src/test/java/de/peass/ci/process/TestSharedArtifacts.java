@@ -0,0 +1,80 @@
+package de.peass.ci.process;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.dagere.peass.ci.process.SharedArtifacts;
+import de.dagere.peass.folders.ResultsFolders;
+import de.dagere.peass.utils.Constants;
+import hudson.FilePath;
+
+public class TestSharedArtifacts {
+
+   private static final File BASE_FOLDER = new File("target/shared-artifacts");
+   private static final File SHARED_FOLDER = new File(BASE_FOLDER, "peass-data");
+   private static final File LOCAL_FOLDER = new File(SHARED_FOLDER, "builds/2");
+   private static final File REMOTE_FOLDER = new File(BASE_FOLDER, "remote");
+
+   private ResultsFolders localResults;
+   private String relativeDependencyPath;
+
+   @Before
+   public void cleanFolders() throws IOException {
+      FileUtils.deleteDirectory(BASE_FOLDER);
+      LOCAL_FOLDER.mkdirs();
+      REMOTE_FOLDER.mkdirs();
+      localResults = new ResultsFolders(LOCAL_FOLDER, "demo-project");
+      relativeDependencyPath = LOCAL_FOLDER.toPath().relativize(localResults.getDependencyFile().toPath()).toString();
+   }
+
+   @Test
+   public void testSeedKeepsRemoteVersions() throws Exception {
+      File sharedFile = new File(SHARED_FOLDER, relativeDependencyPath);
+      writeJson(sharedFile, "{\"url\":\"demo\",\"versions\":{\"a\":{\"value\":\"shared\"},\"b\":{\"value\":\"shared\"}}}");
+      File remoteFile = new File(REMOTE_FOLDER, relativeDependencyPath);
+      writeJson(remoteFile, "{\"versions\":{\"b\":{\"value\":\"remote\"},\"c\":{\"value\":\"remote\"}}}");
+
+      createSharedArtifacts().seed(new FilePath(REMOTE_FOLDER));
+
+      JsonNode seeded = Constants.OBJECTMAPPER.readTree(remoteFile);
+      Assert.assertEquals("demo", seeded.get("url").asText());
+      Assert.assertEquals("shared", seeded.get("versions").get("a").get("value").asText());
+      Assert.assertEquals("remote", seeded.get("versions").get("b").get("value").asText());
+      Assert.assertEquals("remote", seeded.get("versions").get("c").get("value").asText());
+   }
+
+   @Test
+   public void testPublishMergesConcurrentBuilds() throws Exception {
+      File sharedFile = new File(SHARED_FOLDER, relativeDependencyPath);
+      writeJson(sharedFile, "{\"url\":\"demo\",\"versions\":{\"a\":{\"value\":\"old\"},\"b\":{\"value\":\"concurrent\"}}}");
+      writeJson(localResults.getDependencyFile(), "{\"url\":\"demo\",\"versions\":{\"a\":{\"value\":\"new\"},\"c\":{\"value\":\"new\"}}}");
+      // The modification time of files from other hosts is not comparable, so it must not decide which versions are kept
+      sharedFile.setLastModified(System.currentTimeMillis() + 60000);
+
+      createSharedArtifacts().publish();
+
+      JsonNode published = Constants.OBJECTMAPPER.readTree(sharedFile);
+      Assert.assertEquals(3, published.get("versions").size());
+      Assert.assertEquals("new", published.get("versions").get("a").get("value").asText());
+      Assert.assertEquals("concurrent", published.get("versions").get("b").get("value").asText());
+      Assert.assertEquals("new", published.get("versions").get("c").get("value").asText());
+   }
+
+   private SharedArtifacts createSharedArtifacts() {
+      return new SharedArtifacts(SHARED_FOLDER, LOCAL_FOLDER, localResults, new PrintStream(new NullOutputStream()));
+   }
+
+   private void writeJson(final File file, final String json) throws IOException {
+      FileUtils.write(file, json, StandardCharsets.UTF_8);
+   }
+}
@@ -0,0 +1,50 @@
+package de.peass.ci.process;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dagere.peass.ci.sync.ManifestEntry;
+import de.dagere.peass.ci.sync.SyncManifest;
+import de.dagere.peass.ci.sync.SyncScope;
+
+public class TestSyncScope {
+
+   @Test
+   public void testScopeContains() {
+      SyncScope scope = new SyncScope()
+            .include("demo-project_peass")
+            .include("results/changes.json");
+
+      Assert.assertTrue(scope.contains("demo-project_peass/logs/measureLogs/log.txt"));
+      Assert.assertTrue(scope.contains("results/changes.json"));
+      Assert.assertFalse(scope.contains("results/changes.json.bak"));
+      Assert.assertFalse(scope.contains("demo-project/.git/HEAD"));
+
+      Assert.assertTrue(scope.needsVisit("results"));
+      Assert.assertTrue(scope.needsVisit("demo-project_peass/logs"));
+      Assert.assertFalse(scope.needsVisit("demo-project"));
+   }
+
+   @Test
+   public void testCompleteScope() {
+      Assert.assertTrue(SyncScope.all().contains("demo-project/.git/HEAD"));
+      Assert.assertTrue(new SyncScope().include("").contains("demo-project/.git/HEAD"));
+   }
+
+   @Test
+   public void testManifestReplacesScope() {
+      SyncManifest known = new SyncManifest();
+      known.getFiles().put("demo-project_peass/logs/measureLogs/v1/deleted.txt", new ManifestEntry(1, 1, "a"));
+      known.getFiles().put("demo-project_peass/logs/measureLogs/v1/kept.txt", new ManifestEntry(1, 1, "b"));
+      known.getFiles().put("results/changes.json", new ManifestEntry(1, 1, "c"));
+
+      SyncManifest remote = new SyncManifest();
+      remote.getFiles().put("demo-project_peass/logs/measureLogs/v1/kept.txt", new ManifestEntry(2, 2, "d"));
+
+      known.replaceScope(new SyncScope().include("demo-project_peass/logs/measureLogs/v1"), remote);
+
+      Assert.assertNull(known.getEntry("demo-project_peass/logs/measureLogs/v1/deleted.txt"));
+      Assert.assertEquals("d", known.getEntry("demo-project_peass/logs/measureLogs/v1/kept.txt").getHash());
+      Assert.assertEquals("c", known.getEntry("results/changes.json").getHash());
+   }
+}
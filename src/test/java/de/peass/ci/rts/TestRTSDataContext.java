@@ -0,0 +1,40 @@
+package de.peass.ci.rts;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import de.dagere.peass.ci.rts.RTSDataContext;
+import de.dagere.peass.dependency.persistence.Version;
+import de.dagere.peass.folders.ResultsFolders;
+
+public class TestRTSDataContext {
+
+   private static final File DEPENDENCY_FILE = new File("src/test/resources/noSelectedTest/deps_demo.json");
+
+   @Test
+   public void testReadCurrentVersion() throws IOException {
+      ResultsFolders folders = Mockito.mock(ResultsFolders.class);
+      Mockito.when(folders.getDependencyFile()).thenReturn(DEPENDENCY_FILE);
+
+      RTSDataContext context = new RTSDataContext(folders, "15f345835d2a0c85070c9d2ffbbb0f098f68adb5");
+      Version version = context.getVersionDependencies();
+
+      Assert.assertNotNull(version);
+      Assert.assertTrue(version.isRunning());
+      Assert.assertEquals(1, version.getChangedClazzes().size());
+      Assert.assertSame(version, context.getVersionDependencies());
+   }
+
+   @Test
+   public void testMissingVersion() throws IOException {
+      ResultsFolders folders = Mockito.mock(ResultsFolders.class);
+      Mockito.when(folders.getDependencyFile()).thenReturn(DEPENDENCY_FILE);
+
+      RTSDataContext context = new RTSDataContext(folders, "0d0f5faf9a13f46203b42ed738be1d6b162d6553");
+      Assert.assertNull(context.getVersionDependencies());
+   }
+}